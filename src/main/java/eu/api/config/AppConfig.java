@@ -2,10 +2,8 @@ package eu.api.config;
 
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
-import org.springframework.scheduling.annotation.EnableAsync;
 
 @Configuration
 @EnableJpaAuditing
-@EnableAsync
 public class AppConfig {
 }
@@ -0,0 +1,31 @@
+package eu.api.config;
+
+import eu.api.service.AuditRetentionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Daily audit housekeeping: count yesterday's events, then create upcoming partitions and drop expired ones.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "audit.retention.enabled", havingValue = "true", matchIfMissing = true)
+public class AuditRetentionScheduler {
+
+    private final AuditRetentionService auditRetentionService;
+
+    @Scheduled(cron = "${audit.retention.cron:0 30 0 * * ?}", zone = "UTC", scheduler = SchedulingConfig.BATCH_JOB_SCHEDULER)
+    public void run() {
+        try {
+            auditRetentionService.rollUp();
+        } catch (RuntimeException e) {
+            log.error("Audit rollup failed; expired partitions are kept until it succeeds", e);
+            return;
+        }
+        auditRetentionService.maintainPartitions();
+    }
+}
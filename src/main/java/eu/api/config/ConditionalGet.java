@@ -0,0 +1,24 @@
+package eu.api.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a GET handler whose body depends only on one user's data, so {@link ConditionalGetInterceptor} can
+ * answer If-None-Match from the user's data version before the handler runs.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ConditionalGet {
+
+    Scope value() default Scope.CURRENT_USER;
+
+    enum Scope {
+        /** The authenticated user. */
+        CURRENT_USER,
+        /** The owner of the {token} path variable, an emergency token. */
+        EMERGENCY_TOKEN
+    }
+}
@@ -0,0 +1,88 @@
+package eu.api.config;
+
+import eu.api.security.CurrentUser;
+import eu.api.service.DataVersionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Strong ETags for {@link ConditionalGet} handlers, built from the per-user data version rather than a hash of
+ * the rendered body. The version is read before the handler runs, so a matching If-None-Match is answered with
+ * 304 after one primary-key lookup, without loading or decrypting anything. Reading the version first also
+ * means a write racing with the request can only make the ETag older than the body, never newer.
+ * <p>
+ * /me ETags include the user id, so a client cache shared by two accounts never confuses their versions.
+ */
+@Component
+@RequiredArgsConstructor
+public class ConditionalGetInterceptor implements HandlerInterceptor {
+
+    private static final String TOKEN_VARIABLE = "token";
+
+    private final DataVersionService dataVersionService;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!HttpMethod.GET.matches(request.getMethod()) || !(handler instanceof HandlerMethod method)) {
+            return true;
+        }
+        ConditionalGet conditionalGet = method.getMethodAnnotation(ConditionalGet.class);
+        if (conditionalGet == null) {
+            return true;
+        }
+        String etag = etag(conditionalGet.value(), request);
+        if (etag == null) {
+            return true;
+        }
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return false;
+        }
+        return true;
+    }
+
+    private String etag(ConditionalGet.Scope scope, HttpServletRequest request) {
+        return switch (scope) {
+            case CURRENT_USER -> {
+                Optional<UUID> userId = CurrentUser.getUserId();
+                yield userId.flatMap(dataVersionService::current)
+                        .map(version -> "\"" + userId.get() + "-" + version + "\"")
+                        .orElse(null);
+            }
+            case EMERGENCY_TOKEN -> {
+                String token = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE)
+                        instanceof Map<?, ?> variables && variables.get(TOKEN_VARIABLE) instanceof String value
+                        ? value : null;
+                yield token == null ? null : dataVersionService.currentForEmergencyToken(token)
+                        .map(version -> "\"e-" + version + "\"")
+                        .orElse(null);
+            }
+        };
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.equals("*") || trimmed.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
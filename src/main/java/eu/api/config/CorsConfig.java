@@ -14,7 +14,7 @@ public class CorsConfig {
 
     private static final List<String> ALLOWED_METHODS = List.of("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS");
     private static final List<String> ALLOWED_HEADERS = List.of(
-            "Authorization", "Content-Type", "Accept", "Origin", "X-Requested-With", "traceId");
+            "Authorization", "Content-Type", "Accept", "Origin", "X-Requested-With", "traceId", "If-None-Match");
 
     @Value("${cors.allowed-origins:}")
     private String allowedOrigins;
@@ -30,7 +30,7 @@ public class CorsConfig {
         config.setAllowedOrigins(origins);
         config.setAllowedMethods(ALLOWED_METHODS);
         config.setAllowedHeaders(ALLOWED_HEADERS);
-        config.setExposedHeaders(List.of("traceId"));
+        config.setExposedHeaders(List.of("traceId", "ETag"));
         config.setMaxAge(maxAgeSeconds);
         config.setAllowCredentials(!origins.contains("*"));
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
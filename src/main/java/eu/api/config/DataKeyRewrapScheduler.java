@@ -0,0 +1,39 @@
+package eu.api.config;
+
+import eu.api.crypto.DataKeyService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rewraps per-user data keys still wrapped by a retired master key (CRYPTO_RETIRED_MASTER_KEYS)
+ * under the current CRYPTO_MASTER_KEY. Only the small user_data_keys table is touched;
+ * encrypted field values stay as they are.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "crypto.rewrap.enabled", havingValue = "true", matchIfMissing = true)
+public class DataKeyRewrapScheduler {
+
+    private final DataKeyService dataKeyService;
+
+    @Value("${crypto.rewrap.batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(cron = "${crypto.rewrap.cron:0 15 * * * ?}", scheduler = SchedulingConfig.BATCH_JOB_SCHEDULER)
+    public void rewrap() {
+        int total = 0;
+        int rewrapped;
+        do {
+            rewrapped = dataKeyService.rewrapBatch(batchSize);
+            total += rewrapped;
+        } while (rewrapped == batchSize);
+        if (total > 0) {
+            log.info("Data key rewrap: rewrapped {} keys under the current master key", total);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package eu.api.config;
+
+import eu.api.crypto.FieldReencryptor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Periodically moves encrypted fields to the current data key version (CRYPTO_DATA_KEY_VERSION).
+ * Each run is capped at crypto.reencrypt.max-run-minutes and resumes where the previous one stopped;
+ * once every table is done a run is a handful of progress lookups.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "crypto.reencrypt.enabled", havingValue = "true", matchIfMissing = true)
+public class FieldReencryptionScheduler {
+
+    private final FieldReencryptor fieldReencryptor;
+
+    @Value("${crypto.reencrypt.max-run-minutes:20}")
+    private long maxRunMinutes;
+
+    @Scheduled(cron = "${crypto.reencrypt.cron:0 30 * * * ?}", scheduler = SchedulingConfig.BATCH_JOB_SCHEDULER)
+    public void reencrypt() {
+        if (!fieldReencryptor.run(Duration.ofMinutes(maxRunMinutes))) {
+            log.info("Field re-encryption: not finished (run budget spent or tables leased elsewhere); continuing on next run");
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package eu.api.config;
+
+import eu.api.security.JwtService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Picks up a rotated JWT_SECRET_FILE without a restart. Replicas poll independently, so for up to one
+ * check interval a token signed with the new secret can be rejected by a replica that has not reloaded yet.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnExpression("!'${jwt.secret-file:}'.isBlank()")
+public class JwtSecretReloadScheduler {
+
+    private final JwtService jwtService;
+
+    @Scheduled(fixedDelayString = "${jwt.secret-file-check-ms:30000}", initialDelayString = "${jwt.secret-file-check-ms:30000}")
+    public void reload() {
+        jwtService.reloadSecret();
+    }
+}
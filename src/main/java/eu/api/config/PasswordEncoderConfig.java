@@ -0,0 +1,99 @@
+package eu.api.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.util.ClassUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Password encoder used by {@link eu.api.security.PasswordHasher}. Hashes are stored with an algorithm
+ * prefix ({bcrypt}/{argon2}); unprefixed hashes from before are plain BCrypt and still match. A stored hash
+ * whose algorithm or parameters differ from the current ones is reported by upgradeEncoding and rehashed on
+ * the next successful login.
+ * <p>
+ * The BCrypt cost is calibrated at startup so one hash takes about password-hashing.target-millis on this
+ * CPU, unless password-hashing.bcrypt-strength pins it. Argon2id needs BouncyCastle on the classpath.
+ */
+@Slf4j
+@Configuration
+public class PasswordEncoderConfig {
+
+    private static final String BCRYPT = "bcrypt";
+    private static final String ARGON2 = "argon2";
+    private static final int MIN_BCRYPT_STRENGTH = 10;
+    private static final int MAX_BCRYPT_STRENGTH = 16;
+    private static final int CALIBRATION_SAMPLES = 3;
+    private static final String CALIBRATION_PASSWORD = "calibration-password";
+    private static final int ARGON2_SALT_LENGTH = 16;
+    private static final int ARGON2_HASH_LENGTH = 32;
+
+    @Value("${password-hashing.algorithm:bcrypt}")
+    private String algorithm;
+
+    @Value("${password-hashing.target-millis:250}")
+    private long targetMillis;
+
+    @Value("${password-hashing.bcrypt-strength:0}")
+    private int bcryptStrength;
+
+    @Value("${password-hashing.argon2.memory-kib:19456}")
+    private int argon2MemoryKib;
+
+    @Value("${password-hashing.argon2.iterations:2}")
+    private int argon2Iterations;
+
+    @Value("${password-hashing.argon2.parallelism:1}")
+    private int argon2Parallelism;
+
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        boolean argon2Available = ClassUtils.isPresent("org.bouncycastle.crypto.generators.Argon2BytesGenerator", null);
+        String idForEncode = algorithm.trim().toLowerCase();
+        if (!BCRYPT.equals(idForEncode) && !ARGON2.equals(idForEncode)) {
+            throw new IllegalStateException("password-hashing.algorithm must be bcrypt or argon2, was " + algorithm);
+        }
+        if (ARGON2.equals(idForEncode) && !argon2Available) {
+            throw new IllegalStateException("password-hashing.algorithm=argon2 needs org.bouncycastle:bcprov-jdk18on on the classpath");
+        }
+
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        int strength = bcryptStrength > 0 ? bcryptStrength : calibrateBcryptStrength(targetMillis);
+        encoders.put(BCRYPT, new BCryptPasswordEncoder(strength));
+        if (argon2Available) {
+            encoders.put(ARGON2, new Argon2PasswordEncoder(ARGON2_SALT_LENGTH, ARGON2_HASH_LENGTH,
+                    argon2Parallelism, argon2MemoryKib, argon2Iterations));
+        }
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(idForEncode, encoders);
+        encoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        log.info("Password hashing: {} (bcrypt cost {})", idForEncode, strength);
+        return encoder;
+    }
+
+    /**
+     * Each BCrypt cost step doubles the work, so one measurement at the minimum cost is enough to extrapolate.
+     */
+    static int calibrateBcryptStrength(long targetMillis) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(MIN_BCRYPT_STRENGTH);
+        String hash = probe.encode(CALIBRATION_PASSWORD);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < CALIBRATION_SAMPLES; i++) {
+            long start = System.nanoTime();
+            probe.matches(CALIBRATION_PASSWORD, hash);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        double millisAtMin = Math.max(best / 1_000_000.0, 0.01);
+        int steps = (int) Math.floor(Math.log(targetMillis / millisAtMin) / Math.log(2));
+        int strength = Math.max(MIN_BCRYPT_STRENGTH, Math.min(MAX_BCRYPT_STRENGTH, MIN_BCRYPT_STRENGTH + steps));
+        log.info("Password hashing: bcrypt cost {} takes {} ms here; target {} ms -> cost {}",
+                MIN_BCRYPT_STRENGTH, Math.round(millisAtMin), targetMillis, strength);
+        return strength;
+    }
+}
@@ -0,0 +1,43 @@
+package eu.api.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Batch jobs that can run for minutes (field re-encryption, data key rewrap, audit rollup) use
+ * batchJobScheduler via {@code @Scheduled(scheduler = ...)}, so they never hold the thread of the default
+ * scheduler that the short periodic jobs (emergency token sync, JWT secret reload, rate limit cleanup) rely on.
+ * Declaring a scheduler bean switches off Boot's default one, so taskScheduler is declared here too, still
+ * configured by spring.task.scheduling.*. The emergency token filter's rebuild and sync have
+ * emergencyTokenScheduler to themselves, one thread each, so the sync interval holds whatever else is running.
+ */
+@Configuration
+public class SchedulingConfig {
+
+    public static final String BATCH_JOB_SCHEDULER = "batchJobScheduler";
+    public static final String EMERGENCY_TOKEN_SCHEDULER = "emergencyTokenScheduler";
+
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder builder) {
+        return builder.build();
+    }
+
+    @Bean(BATCH_JOB_SCHEDULER)
+    public ThreadPoolTaskScheduler batchJobScheduler(@Value("${scheduling.batch-pool-size:2}") int poolSize) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(Math.max(1, poolSize));
+        scheduler.setThreadNamePrefix("batch-job-");
+        return scheduler;
+    }
+
+    @Bean(EMERGENCY_TOKEN_SCHEDULER)
+    public ThreadPoolTaskScheduler emergencyTokenScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(2);
+        scheduler.setThreadNamePrefix("emergency-token-");
+        return scheduler;
+    }
+}
@@ -1,5 +1,6 @@
 package eu.api.controller;
 
+import eu.api.config.ConditionalGet;
 import eu.api.dto.request.CreateAddressRequest;
 import eu.api.dto.request.UpdateAddressRequest;
 import eu.api.dto.response.AddressResponse;
@@ -21,6 +22,7 @@ public class AddressController {
 
     private final AddressService addressService;
 
+    @ConditionalGet
     @GetMapping
     public ResponseEntity<List<AddressResponse>> list() {
         UUID userId = CurrentUser.getUserIdOrThrow();
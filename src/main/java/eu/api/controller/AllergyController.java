@@ -1,5 +1,6 @@
 package eu.api.controller;
 
+import eu.api.config.ConditionalGet;
 import eu.api.dto.request.CreateAllergyRequest;
 import eu.api.dto.request.UpdateAllergyRequest;
 import eu.api.dto.response.AllergyListItemResponse;
@@ -21,6 +22,7 @@ public class AllergyController {
 
     private final AllergyService allergyService;
 
+    @ConditionalGet
     @GetMapping
     public ResponseEntity<List<AllergyListItemResponse>> list(
             @RequestParam(name = "includeNotes", defaultValue = "false") boolean includeNotes) {
@@ -0,0 +1,31 @@
+package eu.api.controller;
+
+import eu.api.dto.response.AuditLogResponse;
+import eu.api.security.CurrentUser;
+import eu.api.service.AuditLogService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/me/audit")
+@RequiredArgsConstructor
+public class AuditController {
+
+    private final AuditLogService auditLogService;
+
+    @GetMapping
+    public ResponseEntity<AuditLogResponse> list(
+            @RequestParam(name = "resourceType", required = false) String resourceType,
+            @RequestParam(name = "action", required = false) String action,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "limit", defaultValue = "50") int limit) {
+        UUID userId = CurrentUser.getUserIdOrThrow();
+        return ResponseEntity.ok(auditLogService.list(userId, resourceType, action, cursor, limit));
+    }
+}
@@ -1,5 +1,6 @@
 package eu.api.controller;
 
+import eu.api.config.ConditionalGet;
 import eu.api.dto.request.CreateEmergencyContactRequest;
 import eu.api.dto.request.UpdateEmergencyContactRequest;
 import eu.api.dto.response.EmergencyContactResponse;
@@ -21,6 +22,7 @@ public class EmergencyContactController {
 
     private final EmergencyContactService emergencyContactService;
 
+    @ConditionalGet
     @GetMapping
     public ResponseEntity<List<EmergencyContactResponse>> list() {
         UUID userId = CurrentUser.getUserIdOrThrow();
@@ -1,11 +1,19 @@
 package eu.api.controller;
 
-import eu.api.dto.response.EmergencyPublicResponse;
+import eu.api.config.ConditionalGet;
+import eu.api.dto.request.VerifyOfflineCardRequest;
+import eu.api.security.OfflineCardSigner;
+import eu.api.service.EmergencySnapshotService;
 import eu.api.service.EmergencyTokenService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
+
 /**
  * Public endpoint — no authentication required.
  * Accessible by anyone with a valid emergency token (e.g. via QR code).
@@ -15,11 +23,36 @@ import org.springframework.web.bind.annotation.*;
 @RequiredArgsConstructor
 public class EmergencyPublicController {
 
+    private final EmergencySnapshotService emergencySnapshotService;
     private final EmergencyTokenService emergencyTokenService;
+    private final OfflineCardSigner offlineCardSigner;
+
+    /**
+     * Writes the stored EmergencyPublicResponse JSON as is.
+     */
+    @ConditionalGet(ConditionalGet.Scope.EMERGENCY_TOKEN)
+    @GetMapping(value = "/{token}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getEmergencyData(@PathVariable String token) {
+        byte[] card = emergencySnapshotService.getCard(token);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(card);
+    }
+
+    /**
+     * Server-side check of a signed offline card, for clients that do not embed the verifier.
+     */
+    @PostMapping(value = "/offline/verify", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> verifyOfflineCard(@Valid @RequestBody VerifyOfflineCardRequest request) {
+        byte[] card = emergencyTokenService.verifyOfflineCard(request.getCard());
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(card);
+    }
 
-    @GetMapping("/{token}")
-    public ResponseEntity<EmergencyPublicResponse> getEmergencyData(@PathVariable String token) {
-        EmergencyPublicResponse response = emergencyTokenService.getEmergencyData(token);
-        return ResponseEntity.ok(response);
+    /**
+     * Keys offline cards are signed with, as a JWK Set, for scanners that verify cards on the device.
+     */
+    @GetMapping(value = "/offline/keys", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> offlineCardKeys() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofHours(1)).cachePublic())
+                .body(offlineCardSigner.jwks());
     }
 }
@@ -1,6 +1,7 @@
 package eu.api.controller;
 
 import eu.api.dto.response.EmergencyTokenResponse;
+import eu.api.dto.response.OfflineEmergencyCardResponse;
 import eu.api.security.CurrentUser;
 import eu.api.service.EmergencyTokenService;
 import lombok.RequiredArgsConstructor;
@@ -26,6 +27,13 @@ public class EmergencyTokenController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/offline-card")
+    public ResponseEntity<OfflineEmergencyCardResponse> offlineCard() {
+        UUID userId = CurrentUser.getUserIdOrThrow();
+        OfflineEmergencyCardResponse response = emergencyTokenService.issueOfflineCard(userId);
+        return ResponseEntity.ok(response);
+    }
+
     @PostMapping("/regenerate")
     public ResponseEntity<EmergencyTokenResponse> regenerate() {
         UUID userId = CurrentUser.getUserIdOrThrow();
@@ -1,16 +1,16 @@
 package eu.api.controller;
 
-import eu.api.dto.response.*;
+import eu.api.dto.response.ExportDataResponse;
 import eu.api.security.CurrentUser;
-import eu.api.service.*;
+import eu.api.service.ExportService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.time.Instant;
-import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -18,27 +18,24 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class ExportController {
 
-    private final ProfileService profileService;
-    private final HealthInfoService healthInfoService;
-    private final AllergyService allergyService;
-    private final MedicationService medicationService;
-    private final EmergencyContactService emergencyContactService;
-    private final AddressService addressService;
+    private final ExportService exportService;
 
     @GetMapping
     public ResponseEntity<ExportDataResponse> exportAll() {
         UUID userId = CurrentUser.getUserIdOrThrow();
 
-        ExportDataResponse response = ExportDataResponse.builder()
-                .profile(profileService.getProfile(userId))
-                .health(healthInfoService.getHealthInfo(userId, true))
-                .allergies(allergyService.list(userId, true))
-                .medications(medicationService.list(userId, true))
-                .emergencyContacts(emergencyContactService.list(userId))
-                .addresses(addressService.list(userId))
-                .exportedAt(Instant.now().toString())
-                .build();
-
+        ExportDataResponse response = exportService.exportAll(userId);
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * Same document as {@link #exportAll()}, streamed; meant for accounts too large to export in one piece.
+     */
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamAll() {
+        UUID userId = CurrentUser.getUserIdOrThrow();
+
+        StreamingResponseBody body = out -> exportService.streamAll(userId, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
 }
@@ -1,5 +1,6 @@
 package eu.api.controller;
 
+import eu.api.config.ConditionalGet;
 import eu.api.dto.request.UpdateHealthRequest;
 import eu.api.dto.response.HealthInfoResponse;
 import eu.api.security.CurrentUser;
@@ -18,6 +19,7 @@ public class MeHealthController {
 
     private final HealthInfoService healthInfoService;
 
+    @ConditionalGet
     @GetMapping
     public ResponseEntity<HealthInfoResponse> getHealthInfo(
             @RequestParam(name = "includeNotes", defaultValue = "false") boolean includeNotes) {
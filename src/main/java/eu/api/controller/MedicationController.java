@@ -1,5 +1,6 @@
 package eu.api.controller;
 
+import eu.api.config.ConditionalGet;
 import eu.api.dto.request.CreateMedicationRequest;
 import eu.api.dto.request.UpdateMedicationRequest;
 import eu.api.dto.response.MedicationListItemResponse;
@@ -21,6 +22,7 @@ public class MedicationController {
 
     private final MedicationService medicationService;
 
+    @ConditionalGet
     @GetMapping
     public ResponseEntity<List<MedicationListItemResponse>> list(
             @RequestParam(name = "includeNotes", defaultValue = "false") boolean includeNotes) {
@@ -1,5 +1,6 @@
 package eu.api.controller;
 
+import eu.api.config.ConditionalGet;
 import eu.api.dto.request.UpdateProfileRequest;
 import eu.api.dto.response.ProfileResponse;
 import eu.api.security.CurrentUser;
@@ -18,6 +19,7 @@ public class ProfileController {
 
     private final ProfileService profileService;
 
+    @ConditionalGet
     @GetMapping
     public ResponseEntity<ProfileResponse> getProfile() {
         UUID userId = CurrentUser.getUserIdOrThrow();
@@ -0,0 +1,178 @@
+package eu.api.crypto;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Allocation-light AES-GCM primitive behind {@link CryptoServiceImpl}.
+ * Cipher instances and scratch buffers are pooled rather than thread-local, so virtual threads
+ * share a small set of slots instead of each pinning its own. IV generation uses one shared DRBG.
+ * Values are raw bytes (stored as binary, see {@link Ciphertext}): format (0x01) || key id (1 byte) || IV (12 bytes) || ciphertext || tag (16 bytes);
+ * the two header bytes are authenticated as AAD.
+ * Values written before the header existed are just IV || ciphertext || tag and are read with headered = false.
+ */
+final class AesGcmEngine {
+
+    static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    static final int GCM_TAG_LENGTH_BITS = 128;
+    static final int GCM_TAG_LENGTH_BYTES = GCM_TAG_LENGTH_BITS / 8;
+    static final int GCM_IV_LENGTH_BYTES = 12;
+    static final byte FORMAT_V1 = 0x01;
+    static final int HEADER_LENGTH_BYTES = 2;
+    static final int MAX_KEY_ID = 0xFF;
+    static final int NO_HEADER = -1;
+
+    private static final int INITIAL_BUFFER_BYTES = 512;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final Queue<Slot> pool = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooled = new AtomicInteger();
+    private final int maxPooled;
+
+    AesGcmEngine(int maxPooled) {
+        this.maxPooled = maxPooled;
+    }
+
+    AesGcmEngine() {
+        this(Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    /**
+     * Encrypts UTF-8 plaintext into header || IV || ciphertext || tag naming keyId.
+     */
+    byte[] encrypt(SecretKey key, int keyId, String plaintext) throws GeneralSecurityException {
+        try (Session session = session()) {
+            return session.encrypt(key, keyId, plaintext);
+        }
+    }
+
+    /**
+     * Decrypts a value produced by encrypt (headered) or by the pre-header format.
+     * Returns null when the payload is too short to hold an IV and tag.
+     */
+    String decrypt(SecretKey key, byte[] sealed, boolean headered) throws GeneralSecurityException {
+        try (Session session = session()) {
+            return session.decrypt(key, sealed, headered);
+        }
+    }
+
+    /**
+     * Reads the key id from the header; NO_HEADER when the value does not start with the v1 header.
+     * Only the format byte is checked, so about 1 in 256 legacy IVs look headered; callers must fall back to
+     * the legacy layout when the key id is unknown or a headered decrypt fails.
+     */
+    static int keyId(byte[] sealed) {
+        if (sealed == null || sealed.length < HEADER_LENGTH_BYTES || sealed[0] != FORMAT_V1) {
+            return NO_HEADER;
+        }
+        return sealed[1] & 0xFF;
+    }
+
+    /**
+     * Borrows one pooled slot for a run of operations (e.g. a whole result set). Not thread-safe; close to return it.
+     */
+    Session session() throws GeneralSecurityException {
+        return new Session(acquire());
+    }
+
+    private Slot acquire() throws GeneralSecurityException {
+        Slot slot = pool.poll();
+        if (slot != null) {
+            pooled.decrementAndGet();
+            return slot;
+        }
+        return new Slot(Cipher.getInstance(TRANSFORMATION));
+    }
+
+    private void release(Slot slot) {
+        if (pooled.incrementAndGet() <= maxPooled) {
+            pool.offer(slot);
+        } else {
+            pooled.decrementAndGet();
+        }
+    }
+
+    /**
+     * Exclusive use of one slot; cipher setup and buffers are amortised across every call made through it.
+     */
+    final class Session implements AutoCloseable {
+
+        private Slot slot;
+
+        private Session(Slot slot) {
+            this.slot = slot;
+        }
+
+        byte[] encrypt(SecretKey key, int keyId, String plaintext) throws GeneralSecurityException {
+            if (keyId < 0 || keyId > MAX_KEY_ID) {
+                throw new IllegalArgumentException("Key id must fit in one byte: " + keyId);
+            }
+            byte[] input = plaintext.getBytes(StandardCharsets.UTF_8);
+            int ivOffset = HEADER_LENGTH_BYTES;
+            int bodyOffset = ivOffset + GCM_IV_LENGTH_BYTES;
+            byte[] sealed = new byte[bodyOffset + input.length + GCM_TAG_LENGTH_BYTES];
+            sealed[0] = FORMAT_V1;
+            sealed[1] = (byte) keyId;
+            RANDOM.nextBytes(slot.iv);
+            System.arraycopy(slot.iv, 0, sealed, ivOffset, GCM_IV_LENGTH_BYTES);
+            slot.cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(GCM_TAG_LENGTH_BITS, sealed, ivOffset, GCM_IV_LENGTH_BYTES));
+            slot.cipher.updateAAD(sealed, 0, HEADER_LENGTH_BYTES);
+            slot.cipher.doFinal(input, 0, input.length, sealed, bodyOffset);
+            return sealed;
+        }
+
+        String decrypt(SecretKey key, byte[] sealed, boolean headered) throws GeneralSecurityException {
+            int ivOffset = headered ? HEADER_LENGTH_BYTES : 0;
+            int bodyOffset = ivOffset + GCM_IV_LENGTH_BYTES;
+            if (sealed.length <= bodyOffset) {
+                return null;
+            }
+            slot.cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(GCM_TAG_LENGTH_BITS, sealed, ivOffset, GCM_IV_LENGTH_BYTES));
+            if (headered) {
+                slot.cipher.updateAAD(sealed, 0, HEADER_LENGTH_BYTES);
+            }
+            byte[] out = slot.output(sealed.length);
+            int plainLength = slot.cipher.doFinal(sealed, bodyOffset, sealed.length - bodyOffset, out, 0);
+            String plaintext = new String(out, 0, plainLength, StandardCharsets.UTF_8);
+            Arrays.fill(out, 0, plainLength, (byte) 0);
+            return plaintext;
+        }
+
+        @Override
+        public void close() {
+            if (slot != null) {
+                release(slot);
+                slot = null;
+            }
+        }
+    }
+
+    /**
+     * One pooled cipher plus the scratch buffers it reuses between calls. Owned by a single caller at a time.
+     */
+    private static final class Slot {
+
+        private final Cipher cipher;
+        private final byte[] iv = new byte[GCM_IV_LENGTH_BYTES];
+        private byte[] output = new byte[INITIAL_BUFFER_BYTES];
+
+        private Slot(Cipher cipher) {
+            this.cipher = cipher;
+        }
+
+        private byte[] output(int minLength) {
+            if (output.length < minLength) {
+                output = new byte[Math.max(minLength, output.length * 2)];
+            }
+            return output;
+        }
+    }
+}
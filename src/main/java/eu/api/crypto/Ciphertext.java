@@ -0,0 +1,73 @@
+package eu.api.crypto;
+
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Raw encrypted field value (header || IV || ciphertext || tag), stored as binary behind an
+ * {@link EncryptedString}. Immutable; equality is by content.
+ */
+public final class Ciphertext {
+
+    private final byte[] bytes;
+
+    private Ciphertext(byte[] bytes) {
+        this.bytes = bytes;
+    }
+
+    public static Ciphertext of(byte[] bytes) {
+        return bytes == null ? null : new Ciphertext(bytes.clone());
+    }
+
+    /**
+     * Takes ownership of the array without copying; for arrays nobody else holds a reference to.
+     */
+    static Ciphertext wrap(byte[] bytes) {
+        return bytes == null ? null : new Ciphertext(bytes);
+    }
+
+    /**
+     * Reads a value from the Base64 text columns used before binary storage. The decoded bytes are the same
+     * layout, so no decryption is needed. Returns null when blank or not Base64 (never decryptable anyway).
+     */
+    public static Ciphertext fromLegacyText(String base64) {
+        if (base64 == null || base64.isBlank()) {
+            return null;
+        }
+        try {
+            return new Ciphertext(Base64.getDecoder().decode(base64));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public byte[] bytes() {
+        return bytes.clone();
+    }
+
+    /**
+     * Backing array, not copied; callers must not modify it.
+     */
+    byte[] raw() {
+        return bytes;
+    }
+
+    public int length() {
+        return bytes.length;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof Ciphertext other && Arrays.equals(bytes, other.bytes));
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(bytes);
+    }
+
+    @Override
+    public String toString() {
+        return "Ciphertext[" + bytes.length + " bytes]";
+    }
+}
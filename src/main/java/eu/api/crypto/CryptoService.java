@@ -1,18 +1,42 @@
 package eu.api.crypto;
 
+import java.util.List;
+import java.util.UUID;
+
 /**
  * Application-level encryption for sensitive fields (e.g. workplace).
- * AES-GCM; key from env (CRYPTO_MASTER_KEY base64).
+ * AES-GCM with a per-user data key (envelope encryption, see {@link DataKeyService});
+ * data keys are wrapped by the master key from env (CRYPTO_MASTER_KEY base64).
+ * Values are {@link Ciphertext} and stored as binary columns.
  */
 public interface CryptoService {
 
     /**
-     * Encrypts plaintext. Returns null if input is null; empty string encrypted for storage.
+     * Encrypts plaintext under the user's data key. Returns null if input is null.
+     */
+    Ciphertext encrypt(UUID userId, String plaintext);
+
+    /**
+     * Decrypts ciphertext produced by encrypt. Returns null if input is null or cannot be decrypted.
+     * Values under older data key versions, without a version header, or written before envelope
+     * encryption (directly under a master key) are still readable.
+     */
+    String decrypt(UUID userId, Ciphertext ciphertext);
+
+    /**
+     * Encrypts every element with one cipher setup per batch. Result has the same size and order; nulls stay null.
+     */
+    List<Ciphertext> encryptAll(UUID userId, List<String> plaintexts);
+
+    /**
+     * Decrypts every element with one cipher setup per batch. Result has the same size and order;
+     * null or undecryptable elements map to null. Large batches are spread across cores.
      */
-    String encrypt(String plaintext);
+    List<String> decryptAll(UUID userId, List<Ciphertext> ciphertexts);
 
     /**
-     * Decrypts ciphertext produced by encrypt. Returns null if input is null or empty.
+     * Moves a stored value to the user's current data key version. Returns the input unchanged when it
+     * already names that version (or is null), and null when it cannot be decrypted with any known key.
      */
-    String decrypt(String ciphertext);
+    Ciphertext reencrypt(UUID userId, Ciphertext ciphertext);
 }
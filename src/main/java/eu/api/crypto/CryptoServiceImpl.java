@@ -1,64 +1,38 @@
 package eu.api.crypto;
 
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import javax.crypto.Cipher;
 import javax.crypto.SecretKey;
-import javax.crypto.spec.GCMParameterSpec;
-import javax.crypto.spec.SecretKeySpec;
-import java.nio.charset.StandardCharsets;
-import java.security.SecureRandom;
-import java.util.Base64;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
 
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class CryptoServiceImpl implements CryptoService {
 
-    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
-    private static final int GCM_TAG_LENGTH_BITS = 128;
-    private static final int GCM_IV_LENGTH_BYTES = 12;
-    private static final int AES_KEY_LENGTH_BYTES = 32;
+    private static final int PARALLEL_BATCH_THRESHOLD = 512;
+    private static final Duration RELOAD_INTERVAL = Duration.ofMinutes(1);
+    private static final int PARALLEL_CHUNK_SIZE = 128;
 
-    private final SecretKey key;
-
-    public CryptoServiceImpl(@Value("${crypto.master-key-base64:}") String masterKeyBase64) {
-        if (masterKeyBase64 == null || masterKeyBase64.isBlank()) {
-            log.warn("CRYPTO_MASTER_KEY not set; using placeholder key. Set CRYPTO_MASTER_KEY in production.");
-            byte[] placeholder = new byte[AES_KEY_LENGTH_BYTES];
-            new SecureRandom().nextBytes(placeholder);
-            this.key = new SecretKeySpec(placeholder, "AES");
-        } else {
-            byte[] decoded = Base64.getDecoder().decode(masterKeyBase64.trim());
-            if (decoded.length < AES_KEY_LENGTH_BYTES) {
-                throw new IllegalStateException("CRYPTO_MASTER_KEY must be base64-encoded at least 32 bytes (256 bits)");
-            }
-            byte[] keyBytes = decoded.length == AES_KEY_LENGTH_BYTES
-                    ? decoded
-                    : java.util.Arrays.copyOf(decoded, AES_KEY_LENGTH_BYTES);
-            this.key = new SecretKeySpec(keyBytes, "AES");
-        }
-    }
+    private final MasterKeyProvider masterKeyProvider;
+    private final DataKeyService dataKeyService;
+    private final AesGcmEngine engine = new AesGcmEngine();
 
     @Override
-    public String encrypt(String plaintext) {
+    public Ciphertext encrypt(UUID userId, String plaintext) {
         if (plaintext == null) {
             return null;
         }
-        if (plaintext.isEmpty()) {
-            return "";
-        }
         try {
-            byte[] iv = new byte[GCM_IV_LENGTH_BYTES];
-            new SecureRandom().nextBytes(iv);
-            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
-            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(GCM_TAG_LENGTH_BITS, iv));
-            byte[] ciphertext = cipher.doFinal(plaintext.getBytes(StandardCharsets.UTF_8));
-            byte[] combined = new byte[iv.length + ciphertext.length];
-            System.arraycopy(iv, 0, combined, 0, iv.length);
-            System.arraycopy(ciphertext, 0, combined, iv.length, ciphertext.length);
-            return Base64.getEncoder().encodeToString(combined);
+            DataKeyRing ring = dataKeyService.keyRing(userId);
+            return Ciphertext.wrap(engine.encrypt(ring.current(), ring.currentVersion(), plaintext));
         } catch (Exception e) {
             log.error("Encryption failed", e);
             throw new IllegalStateException("Encryption failed", e);
@@ -66,26 +40,145 @@ public class CryptoServiceImpl implements CryptoService {
     }
 
     @Override
-    public String decrypt(String ciphertext) {
-        if (ciphertext == null || ciphertext.isBlank()) {
+    public String decrypt(UUID userId, Ciphertext ciphertext) {
+        if (ciphertext == null) {
             return null;
         }
-        try {
-            byte[] combined = Base64.getDecoder().decode(ciphertext);
-            if (combined.length <= GCM_IV_LENGTH_BYTES) {
-                return null;
+        try (AesGcmEngine.Session session = engine.session()) {
+            return decryptInSession(session, userId, dataKeyService.keyRing(userId), ciphertext);
+        } catch (Exception e) {
+            log.error("Could not open crypto session", e);
+            throw new IllegalStateException("Decryption failed", e);
+        }
+    }
+
+    @Override
+    public List<Ciphertext> encryptAll(UUID userId, List<String> plaintexts) {
+        if (plaintexts == null || plaintexts.isEmpty()) {
+            return List.of();
+        }
+        DataKeyRing ring = dataKeyService.keyRing(userId);
+        return transformAll(plaintexts, new Ciphertext[plaintexts.size()],
+                (in, out, from, to) -> encryptChunk(ring, in, out, from, to));
+    }
+
+    @Override
+    public List<String> decryptAll(UUID userId, List<Ciphertext> ciphertexts) {
+        if (ciphertexts == null || ciphertexts.isEmpty()) {
+            return List.of();
+        }
+        DataKeyRing ring = dataKeyService.keyRing(userId);
+        return transformAll(ciphertexts, new String[ciphertexts.size()],
+                (in, out, from, to) -> decryptChunk(userId, ring, in, out, from, to));
+    }
+
+    @Override
+    public Ciphertext reencrypt(UUID userId, Ciphertext ciphertext) {
+        if (ciphertext == null) {
+            return null;
+        }
+        DataKeyRing ring = dataKeyService.keyRing(userId);
+        if (AesGcmEngine.keyId(ciphertext.raw()) == ring.currentVersion()) {
+            return ciphertext;
+        }
+        try (AesGcmEngine.Session session = engine.session()) {
+            String plaintext = decryptInSession(session, userId, ring, ciphertext);
+            return plaintext == null ? null : Ciphertext.wrap(session.encrypt(ring.current(), ring.currentVersion(), plaintext));
+        } catch (Exception e) {
+            log.error("Re-encryption failed", e);
+            throw new IllegalStateException("Re-encryption failed", e);
+        }
+    }
+
+    /**
+     * Runs the chunk function over the whole list; batches above the threshold are split into chunks
+     * processed in parallel, each chunk borrowing a single engine session.
+     */
+    private <I, O> List<O> transformAll(List<I> values, O[] out, ChunkFunction<I, O> chunkFunction) {
+        if (values.size() < PARALLEL_BATCH_THRESHOLD) {
+            chunkFunction.apply(values, out, 0, values.size());
+        } else {
+            int chunks = (values.size() + PARALLEL_CHUNK_SIZE - 1) / PARALLEL_CHUNK_SIZE;
+            IntStream.range(0, chunks).parallel().forEach(chunk -> {
+                int from = chunk * PARALLEL_CHUNK_SIZE;
+                chunkFunction.apply(values, out, from, Math.min(from + PARALLEL_CHUNK_SIZE, values.size()));
+            });
+        }
+        return Arrays.asList(out);
+    }
+
+    private void encryptChunk(DataKeyRing ring, List<String> plaintexts, Ciphertext[] out, int from, int to) {
+        try (AesGcmEngine.Session session = engine.session()) {
+            for (int i = from; i < to; i++) {
+                String plaintext = plaintexts.get(i);
+                out[i] = plaintext == null ? null
+                        : Ciphertext.wrap(session.encrypt(ring.current(), ring.currentVersion(), plaintext));
             }
-            byte[] iv = new byte[GCM_IV_LENGTH_BYTES];
-            byte[] encrypted = new byte[combined.length - GCM_IV_LENGTH_BYTES];
-            System.arraycopy(combined, 0, iv, 0, iv.length);
-            System.arraycopy(combined, iv.length, encrypted, 0, encrypted.length);
-            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
-            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(GCM_TAG_LENGTH_BITS, iv));
-            byte[] plaintext = cipher.doFinal(encrypted);
-            return new String(plaintext, StandardCharsets.UTF_8);
         } catch (Exception e) {
-            log.debug("Decryption failed (wrong key or tampered data)");
+            log.error("Encryption failed", e);
+            throw new IllegalStateException("Encryption failed", e);
+        }
+    }
+
+    private void decryptChunk(UUID userId, DataKeyRing ring, List<Ciphertext> ciphertexts, String[] out, int from, int to) {
+        try (AesGcmEngine.Session session = engine.session()) {
+            for (int i = from; i < to; i++) {
+                out[i] = decryptInSession(session, userId, ring, ciphertexts.get(i));
+            }
+        } catch (Exception e) {
+            log.error("Could not open crypto session", e);
+            throw new IllegalStateException("Decryption failed", e);
+        }
+    }
+
+    /**
+     * Headered values go straight to the key version they name; an unknown version newer than the ring
+     * reloads it (see {@link DataKeyRing#mayReloadFor}). Values without a header (or whose IV happened to look
+     * like one) try every data key version, then the master keys for values written before envelope
+     * encryption. GCM authentication makes a wrong-key attempt fail cleanly.
+     */
+    private String decryptInSession(AesGcmEngine.Session session, UUID userId, DataKeyRing ring, Ciphertext ciphertext) {
+        if (ciphertext == null) {
             return null;
         }
+        byte[] sealed = ciphertext.raw();
+        int keyId = AesGcmEngine.keyId(sealed);
+        if (keyId != AesGcmEngine.NO_HEADER) {
+            SecretKey key = ring.byVersion(keyId);
+            if (key == null && ring.mayReloadFor(keyId, RELOAD_INTERVAL, Instant.now())) {
+                key = dataKeyService.reload(userId).byVersion(keyId);
+            }
+            if (key != null) {
+                try {
+                    return session.decrypt(key, sealed, true);
+                } catch (Exception ignored) {
+                    // legacy IV that starts like a header; fall through
+                }
+            }
+        }
+        String plaintext = tryKeys(session, ring.all(), sealed);
+        if (plaintext == null) {
+            plaintext = tryKeys(session, masterKeyProvider.all(), sealed);
+        }
+        if (plaintext == null) {
+            log.debug("Decryption failed (wrong key or tampered data)");
+        }
+        return plaintext;
+    }
+
+    private static String tryKeys(AesGcmEngine.Session session, Iterable<SecretKey> keys, byte[] sealed) {
+        for (SecretKey key : keys) {
+            try {
+                return session.decrypt(key, sealed, false);
+            } catch (Exception ignored) {
+                // try the next key
+            }
+        }
+        return null;
+    }
+
+    @FunctionalInterface
+    private interface ChunkFunction<I, O> {
+        void apply(List<I> in, O[] out, int from, int to);
     }
 }
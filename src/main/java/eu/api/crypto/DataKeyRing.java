@@ -0,0 +1,51 @@
+package eu.api.crypto;
+
+import javax.crypto.SecretKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * All data key versions of one user. New values are encrypted under {@link #currentVersion()};
+ * older versions stay readable until the re-encryption job has moved every field forward.
+ * reloadedAt is set on rings read again because a value named a version they lacked (null otherwise).
+ */
+public record DataKeyRing(int currentVersion, Map<Integer, SecretKey> keys, Instant reloadedAt) {
+
+    public DataKeyRing {
+        keys = Map.copyOf(keys);
+    }
+
+    public DataKeyRing(int currentVersion, Map<Integer, SecretKey> keys) {
+        this(currentVersion, keys, null);
+    }
+
+    public DataKeyRing reloaded(Instant at) {
+        return new DataKeyRing(currentVersion, keys, at);
+    }
+
+    /**
+     * Whether a value naming version may have been written under a key created since this ring was read:
+     * only versions above the newest one held can appear later, and a ring that was itself reloaded for that
+     * reason is read again at most once per interval, so a legacy value whose IV looks like such a header
+     * does not cost a key lookup on every read.
+     */
+    public boolean mayReloadFor(int version, Duration interval, Instant now) {
+        return version > currentVersion && (reloadedAt == null || reloadedAt.plus(interval).isBefore(now));
+    }
+
+    public SecretKey current() {
+        return keys.get(currentVersion);
+    }
+
+    /**
+     * Returns the key for a version, or null when this ring does not hold it.
+     */
+    public SecretKey byVersion(int version) {
+        return keys.get(version);
+    }
+
+    public Iterable<SecretKey> all() {
+        return keys.values();
+    }
+}
@@ -0,0 +1,46 @@
+package eu.api.crypto;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Removes the unique constraint on user_data_keys.user_id alone, left behind by databases created before data
+ * keys were versioned; ddl-auto=update adds the (user_id, key_version) constraint but never drops old ones.
+ * PostgreSQL only and idempotent, so every replica runs it on start and no manual step is needed.
+ */
+@Slf4j
+@Component
+public class DataKeySchemaMigration {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DataKeySchemaMigration(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(product)) {
+            return;
+        }
+        List<String> legacy = jdbcTemplate.queryForList("""
+                SELECT con.conname FROM pg_constraint con
+                JOIN pg_class c ON c.oid = con.conrelid
+                JOIN pg_namespace n ON n.oid = c.relnamespace
+                JOIN pg_attribute a ON a.attrelid = c.oid AND a.attnum = con.conkey[1]
+                WHERE c.relname = 'user_data_keys' AND n.nspname = current_schema() AND con.contype = 'u'
+                AND cardinality(con.conkey) = 1 AND a.attname = 'user_id'""", String.class);
+        for (String name : legacy) {
+            jdbcTemplate.execute("ALTER TABLE user_data_keys DROP CONSTRAINT IF EXISTS \"" + name.replace("\"", "\"\"") + "\"");
+            log.info("Dropped legacy unique constraint {} on user_data_keys.user_id", name);
+        }
+    }
+}
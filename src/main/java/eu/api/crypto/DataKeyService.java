@@ -0,0 +1,29 @@
+package eu.api.crypto;
+
+import java.util.UUID;
+
+/**
+ * Envelope encryption: each user's sensitive fields are encrypted with a per-user data key,
+ * stored wrapped by the master key in user_data_keys. Unwrapped keys are cached in memory.
+ * A user can hold several key versions; the newest encrypts, older ones stay readable until
+ * the re-encryption job has moved every field forward.
+ */
+public interface DataKeyService {
+
+    /**
+     * Returns the user's key ring, creating the target version (crypto.data-key-version) when the
+     * user has no key at that version yet. Served from a bounded, TTL-evicting cache after the first unwrap.
+     */
+    DataKeyRing keyRing(UUID userId);
+
+    /**
+     * Drops the cached ring and reads it again, e.g. when a value names a version another node created.
+     */
+    DataKeyRing reload(UUID userId);
+
+    /**
+     * Rewraps up to batchSize data keys still wrapped by a retired master key under the current one.
+     * Returns the number of keys rewrapped; 0 when nothing is left.
+     */
+    int rewrapBatch(int batchSize);
+}
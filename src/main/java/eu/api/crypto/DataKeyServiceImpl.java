@@ -0,0 +1,165 @@
+package eu.api.crypto;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import eu.api.entity.UserDataKeyEntity;
+import eu.api.repository.UserDataKeyRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+@Slf4j
+@Service
+public class DataKeyServiceImpl implements DataKeyService {
+
+    private static final String WRAP_TRANSFORMATION = "AESWrap";
+    private static final int DATA_KEY_BITS = 256;
+
+    private final UserDataKeyRepository userDataKeyRepository;
+    private final MasterKeyProvider masterKeyProvider;
+    private final TransactionTemplate requiresNew;
+    private final Cache<UUID, DataKeyRing> cache;
+    private final int targetVersion;
+
+    public DataKeyServiceImpl(UserDataKeyRepository userDataKeyRepository,
+                              MasterKeyProvider masterKeyProvider,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${crypto.data-key-version:1}") int targetVersion,
+                              @Value("${crypto.data-key-cache.max-size:10000}") long maxSize,
+                              @Value("${crypto.data-key-cache.ttl-minutes:30}") long ttlMinutes) {
+        if (targetVersion < 1 || targetVersion > AesGcmEngine.MAX_KEY_ID) {
+            throw new IllegalStateException("CRYPTO_DATA_KEY_VERSION must be between 1 and " + AesGcmEngine.MAX_KEY_ID);
+        }
+        this.userDataKeyRepository = userDataKeyRepository;
+        this.masterKeyProvider = masterKeyProvider;
+        this.targetVersion = targetVersion;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(Duration.ofMinutes(ttlMinutes))
+                .build();
+    }
+
+    @Override
+    public DataKeyRing keyRing(UUID userId) {
+        return cache.get(userId, this::loadOrCreate);
+    }
+
+    @Override
+    public DataKeyRing reload(UUID userId) {
+        DataKeyRing ring = loadOrCreate(userId).reloaded(Instant.now());
+        cache.put(userId, ring);
+        return ring;
+    }
+
+    @Override
+    public int rewrapBatch(int batchSize) {
+        Set<Integer> retiredIds = masterKeyProvider.retiredIds();
+        if (retiredIds.isEmpty()) {
+            return 0;
+        }
+        Integer rewrapped = requiresNew.execute(status -> {
+            List<UserDataKeyEntity> stale = userDataKeyRepository.findByMasterKeyIdIn(retiredIds, PageRequest.of(0, batchSize));
+            for (UserDataKeyEntity entity : stale) {
+                SecretKey dataKey = unwrap(entity);
+                entity.setWrappedKey(wrap(dataKey));
+                entity.setMasterKeyId(masterKeyProvider.currentId());
+            }
+            userDataKeyRepository.saveAll(stale);
+            return stale.size();
+        });
+        return rewrapped != null ? rewrapped : 0;
+    }
+
+    /**
+     * Runs in its own transaction so a concurrent insert on another node (unique user_id, key_version)
+     * does not poison the caller's transaction; on conflict the winner's key is read back.
+     */
+    private DataKeyRing loadOrCreate(UUID userId) {
+        try {
+            return requiresNew.execute(status -> load(userId, true));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Data key created concurrently; reloading");
+            return requiresNew.execute(status -> load(userId, false));
+        }
+    }
+
+    /**
+     * The newest stored version is current, so a node still configured with an older target never
+     * writes under a version that another node has already rotated past.
+     */
+    private DataKeyRing load(UUID userId, boolean createMissing) {
+        Map<Integer, SecretKey> keys = new HashMap<>();
+        int newest = 0;
+        for (UserDataKeyEntity entity : userDataKeyRepository.findByUserId(userId)) {
+            keys.put(entity.getKeyVersion(), unwrap(entity));
+            newest = Math.max(newest, entity.getKeyVersion());
+        }
+        if (newest < targetVersion && createMissing) {
+            keys.put(targetVersion, create(userId, targetVersion));
+            newest = targetVersion;
+        }
+        if (keys.isEmpty()) {
+            throw new IllegalStateException("Data key missing after concurrent create");
+        }
+        return new DataKeyRing(newest, keys);
+    }
+
+    private SecretKey create(UUID userId, int version) {
+        try {
+            KeyGenerator generator = KeyGenerator.getInstance("AES");
+            generator.init(DATA_KEY_BITS);
+            SecretKey dataKey = generator.generateKey();
+            userDataKeyRepository.saveAndFlush(UserDataKeyEntity.builder()
+                    .userId(userId)
+                    .keyVersion(version)
+                    .wrappedKey(wrap(dataKey))
+                    .masterKeyId(masterKeyProvider.currentId())
+                    .build());
+            return dataKey;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Data key generation failed", e);
+        }
+    }
+
+    private String wrap(SecretKey dataKey) {
+        try {
+            Cipher cipher = Cipher.getInstance(WRAP_TRANSFORMATION);
+            cipher.init(Cipher.WRAP_MODE, masterKeyProvider.current());
+            return Base64.getEncoder().encodeToString(cipher.wrap(dataKey));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Data key wrap failed", e);
+        }
+    }
+
+    private SecretKey unwrap(UserDataKeyEntity entity) {
+        SecretKey masterKey = masterKeyProvider.byId(entity.getMasterKeyId())
+                .orElseThrow(() -> new IllegalStateException("Unknown master key id " + entity.getMasterKeyId()));
+        try {
+            Cipher cipher = Cipher.getInstance(WRAP_TRANSFORMATION);
+            cipher.init(Cipher.UNWRAP_MODE, masterKey);
+            return (SecretKey) cipher.unwrap(Base64.getDecoder().decode(entity.getWrappedKey()), "AES", Cipher.SECRET_KEY);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Data key unwrap failed", e);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package eu.api.crypto;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an {@link EncryptedString} entity field. {@link EncryptedFieldListener} binds loaded values to the
+ * owning user's key so they decrypt on first access, and encrypts newly assigned values before insert/update.
+ * The entity class must register the listener with {@code @EntityListeners(EncryptedFieldListener.class)}.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface Encrypted {
+
+    /**
+     * Name of the entity field holding the owning user's id (the data key to use).
+     */
+    String owner() default "userId";
+}
@@ -0,0 +1,128 @@
+package eu.api.crypto;
+
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * JPA listener for entities with {@link Encrypted} fields. On load it binds each value to the owning user
+ * (no decryption happens until the value is read); before insert/update it encrypts values assigned with
+ * {@link EncryptedString#of(String)}, all fields of the entity in one batch. Instantiated by Hibernate through
+ * Spring's bean container while the EntityManagerFactory is being built, so CryptoService (which itself needs
+ * a repository) is looked up on first use.
+ */
+public class EncryptedFieldListener {
+
+    private static final ClassValue<List<EncryptedField>> FIELDS = new ClassValue<>() {
+        @Override
+        protected List<EncryptedField> computeValue(Class<?> type) {
+            return scan(type);
+        }
+    };
+
+    private final ObjectProvider<CryptoService> cryptoService;
+
+    public EncryptedFieldListener(ObjectProvider<CryptoService> cryptoService) {
+        this.cryptoService = cryptoService;
+    }
+
+    @PostLoad
+    public void bind(Object entity) {
+        CryptoService crypto = cryptoService.getObject();
+        for (EncryptedField field : FIELDS.get(entity.getClass())) {
+            EncryptedString value = field.value(entity);
+            if (value != null) {
+                value.bind(crypto, field.owner(entity));
+            }
+        }
+    }
+
+    @PrePersist
+    @PreUpdate
+    public void seal(Object entity) {
+        List<EncryptedString> pending = null;
+        UUID owner = null;
+        for (EncryptedField field : FIELDS.get(entity.getClass())) {
+            EncryptedString value = field.value(entity);
+            if (value == null || value.isSealed()) {
+                continue;
+            }
+            if (pending == null) {
+                pending = new ArrayList<>();
+                owner = field.owner(entity);
+                if (owner == null) {
+                    throw new IllegalStateException("Cannot encrypt " + field.field().getName() + " of "
+                            + entity.getClass().getSimpleName() + ": owner is null");
+                }
+            }
+            pending.add(value);
+        }
+        if (pending == null) {
+            return;
+        }
+        CryptoService crypto = cryptoService.getObject();
+        List<Ciphertext> sealed = crypto.encryptAll(owner,
+                pending.stream().map(EncryptedString::plaintext).toList());
+        for (int i = 0; i < pending.size(); i++) {
+            pending.get(i).seal(sealed.get(i));
+            pending.get(i).bind(crypto, owner);
+        }
+    }
+
+    private static List<EncryptedField> scan(Class<?> type) {
+        List<EncryptedField> fields = new ArrayList<>();
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                Encrypted encrypted = field.getAnnotation(Encrypted.class);
+                if (encrypted == null) {
+                    continue;
+                }
+                if (field.getType() != EncryptedString.class) {
+                    throw new IllegalStateException("@Encrypted field " + c.getSimpleName() + "." + field.getName()
+                            + " must be of type EncryptedString");
+                }
+                field.setAccessible(true);
+                Field owner = findField(type, encrypted.owner());
+                owner.setAccessible(true);
+                fields.add(new EncryptedField(field, owner));
+            }
+        }
+        return List.copyOf(fields);
+    }
+
+    private static Field findField(Class<?> type, String name) {
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            try {
+                return c.getDeclaredField(name);
+            } catch (NoSuchFieldException ignored) {
+                // keep looking in the superclass
+            }
+        }
+        throw new IllegalStateException("@Encrypted owner field '" + name + "' not found on " + type.getSimpleName());
+    }
+
+    private record EncryptedField(Field field, Field ownerField) {
+
+        EncryptedString value(Object entity) {
+            try {
+                return (EncryptedString) field.get(entity);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        UUID owner(Object entity) {
+            try {
+                return (UUID) ownerField.get(entity);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
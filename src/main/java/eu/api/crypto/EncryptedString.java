@@ -0,0 +1,146 @@
+package eu.api.crypto;
+
+import org.hibernate.annotations.Immutable;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Value of an {@link Encrypted} entity field. Loaded values hold only their {@link Ciphertext} and are
+ * decrypted on the first {@link #get()}, at most once per entity load; a request that never reads the
+ * field does no crypto work. New values are created from plaintext with {@link #of(String)} and encrypted
+ * by {@link EncryptedFieldListener} when the entity is flushed.
+ * <p>
+ * Treated as immutable by Hibernate: assign a new instance to change a field. Not thread-safe, like the
+ * entity that holds it.
+ */
+@Immutable
+public final class EncryptedString {
+
+    private Ciphertext ciphertext;
+    private String plaintext;
+    private boolean revealed;
+    private CryptoService cryptoService;
+    private UUID owner;
+
+    private EncryptedString(Ciphertext ciphertext, String plaintext, boolean revealed) {
+        this.ciphertext = ciphertext;
+        this.plaintext = plaintext;
+        this.revealed = revealed;
+    }
+
+    /**
+     * New value to be encrypted on flush. Returns null for null input.
+     */
+    public static EncryptedString of(String plaintext) {
+        return plaintext == null ? null : new EncryptedString(null, plaintext, true);
+    }
+
+    /**
+     * Value read from a column; decryptable once {@link EncryptedFieldListener} has bound it to its owner.
+     */
+    static EncryptedString stored(Ciphertext ciphertext) {
+        return ciphertext == null ? null : new EncryptedString(ciphertext, null, false);
+    }
+
+    /**
+     * The binary column wins; until the migration reaches a row its value is still in the legacy text column.
+     */
+    public static EncryptedString orLegacy(EncryptedString binary, EncryptedString legacy) {
+        return binary != null ? binary : legacy;
+    }
+
+    /**
+     * Null-safe {@link #get()}.
+     */
+    public static String reveal(EncryptedString value) {
+        return value == null ? null : value.get();
+    }
+
+    /**
+     * Reveals every element, decrypting the ones not yet revealed with one batch call per owner.
+     * Result has the same size and order; null elements map to null.
+     */
+    public static List<String> revealAll(List<EncryptedString> values) {
+        Map<UUID, List<EncryptedString>> pending = new LinkedHashMap<>();
+        for (EncryptedString value : values) {
+            if (value != null && !value.revealed) {
+                value.requireBound();
+                pending.computeIfAbsent(value.owner, k -> new ArrayList<>()).add(value);
+            }
+        }
+        pending.forEach((owner, batch) -> {
+            List<String> plaintexts = batch.get(0).cryptoService.decryptAll(owner,
+                    batch.stream().map(v -> v.ciphertext).toList());
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).reveal(plaintexts.get(i));
+            }
+        });
+        List<String> out = new ArrayList<>(values.size());
+        for (EncryptedString value : values) {
+            out.add(value == null ? null : value.plaintext);
+        }
+        return out;
+    }
+
+    /**
+     * Plaintext, decrypted on first call. Null when the stored value cannot be decrypted.
+     */
+    public String get() {
+        if (!revealed) {
+            requireBound();
+            reveal(cryptoService.decrypt(owner, ciphertext));
+        }
+        return plaintext;
+    }
+
+    public boolean isRevealed() {
+        return revealed;
+    }
+
+    boolean isSealed() {
+        return ciphertext != null;
+    }
+
+    /**
+     * Stored form; only available once loaded or encrypted.
+     */
+    Ciphertext ciphertext() {
+        if (ciphertext == null) {
+            throw new IllegalStateException("Encrypted value was not encrypted before flush; is EncryptedFieldListener registered on the entity?");
+        }
+        return ciphertext;
+    }
+
+    void bind(CryptoService cryptoService, UUID owner) {
+        this.cryptoService = cryptoService;
+        this.owner = owner;
+    }
+
+    void seal(Ciphertext ciphertext) {
+        this.ciphertext = ciphertext;
+    }
+
+    String plaintext() {
+        return plaintext;
+    }
+
+    private void reveal(String plaintext) {
+        this.plaintext = plaintext;
+        this.revealed = true;
+    }
+
+    private void requireBound() {
+        if (cryptoService == null) {
+            throw new IllegalStateException("Encrypted value is not bound to an owner; is EncryptedFieldListener registered on the entity?");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "EncryptedString[" + (ciphertext == null ? "unsealed" : ciphertext) + "]";
+    }
+}
@@ -0,0 +1,22 @@
+package eu.api.crypto;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Maps {@link EncryptedString} to a binary column holding its {@link Ciphertext}. Reading a row does no
+ * decryption; {@link EncryptedFieldListener} binds the value so it decrypts when first read.
+ */
+@Converter
+public class EncryptedStringConverter implements AttributeConverter<EncryptedString, byte[]> {
+
+    @Override
+    public byte[] convertToDatabaseColumn(EncryptedString attribute) {
+        return attribute == null ? null : attribute.ciphertext().raw();
+    }
+
+    @Override
+    public EncryptedString convertToEntityAttribute(byte[] dbData) {
+        return EncryptedString.stored(Ciphertext.wrap(dbData));
+    }
+}
@@ -0,0 +1,285 @@
+package eu.api.crypto;
+
+import eu.api.entity.ReencryptionProgressEntity;
+import eu.api.repository.ReencryptionProgressRepository;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Moves every encrypted field to the current data key version, in the headered format and in its binary
+ * (*_ct) column, while the application keeps serving traffic. This also migrates values still in the
+ * legacy Base64 text columns: the decoded bytes are the same layout, so those rows only need the move
+ * (and a re-encryption if their key version is behind).
+ * Tables are walked in keyset-paginated chunks ordered by id; each chunk is written back with JDBC batch
+ * updates that only succeed if the row still holds the value that was read, so a concurrent user edit
+ * always wins. The last id of each committed chunk is stored in reencryption_progress, so a stopped run
+ * resumes where it left off. Throughput is capped at crypto.reencrypt.rows-per-second.
+ * Every replica runs the schedule, so each table is worked on under a lease in its progress row: a replica
+ * skips tables another one holds, and a lease left by a crashed replica expires shortly after its run budget.
+ */
+@Slf4j
+@Component
+public class FieldReencryptor {
+
+    static final List<Target> TARGETS = List.of(
+            new Target("user_profile", List.of("workplace")),
+            new Target("health_info", List.of("medical_notes")),
+            new Target("medications", List.of("notes")),
+            new Target("allergies", List.of("notes")),
+            new Target("addresses", List.of("street", "number", "zip")));
+
+    /**
+     * Bumped whenever the storage layout changes, so completed passes run again after the upgrade.
+     */
+    static final int STORAGE_FORMAT = 2;
+
+    private static final String METRIC_VALUES = "crypto.reencrypt.values";
+    private static final String METRIC_REMAINING = "crypto.reencrypt.targets.remaining";
+    private static final Duration LEASE_MARGIN = Duration.ofMinutes(5);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CryptoService cryptoService;
+    private final ReencryptionProgressRepository progressRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int targetVersion;
+    private final int chunkSize;
+    private final Bucket throttle;
+    private final AtomicInteger remainingTargets = new AtomicInteger(TARGETS.size());
+    private final UUID instanceId = UUID.randomUUID();
+
+    public FieldReencryptor(JdbcTemplate jdbcTemplate,
+                            CryptoService cryptoService,
+                            ReencryptionProgressRepository progressRepository,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${crypto.data-key-version:1}") int targetVersion,
+                            @Value("${crypto.reencrypt.chunk-size:200}") int chunkSize,
+                            @Value("${crypto.reencrypt.rows-per-second:500}") int rowsPerSecond) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cryptoService = cryptoService;
+        this.progressRepository = progressRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.targetVersion = targetVersion;
+        this.chunkSize = Math.min(chunkSize, rowsPerSecond);
+        this.throttle = Bucket.builder()
+                .addLimit(Bandwidth.builder().capacity(rowsPerSecond).refillGreedy(rowsPerSecond, Duration.ofSeconds(1)).build())
+                .build();
+        meterRegistry.gauge(METRIC_REMAINING, remainingTargets);
+    }
+
+    /**
+     * Works through the tables until all are on the target version or the budget is spent.
+     * Returns true when nothing is left to re-encrypt.
+     */
+    public boolean run(Duration budget) {
+        Instant deadline = Instant.now().plus(budget);
+        int remaining = 0;
+        for (Target target : TARGETS) {
+            if (!runTarget(target, deadline)) {
+                remaining++;
+            }
+        }
+        remainingTargets.set(remaining);
+        return remaining == 0;
+    }
+
+    private boolean runTarget(Target target, Instant deadline) {
+        if (progressFor(target).getCompletedAt() != null) {
+            return true;
+        }
+        Integer claimed = transactionTemplate.execute(status -> progressRepository.claimLease(
+                target.table(), instanceId, deadline.plus(LEASE_MARGIN), Instant.now()));
+        if (claimed == null || claimed == 0) {
+            log.debug("Field re-encryption: {} is being worked on by another replica", target.table());
+            return false;
+        }
+        try {
+            return work(target, progressFor(target), deadline);
+        } finally {
+            transactionTemplate.executeWithoutResult(status -> progressRepository.releaseLease(target.table(), instanceId));
+        }
+    }
+
+    private boolean work(Target target, ReencryptionProgressEntity progress, Instant deadline) {
+        if (progress.getCompletedAt() != null) {
+            return true;
+        }
+        while (Instant.now().isBefore(deadline)) {
+            List<Row> rows = fetch(target, progress.getLastId());
+            if (rows.isEmpty()) {
+                progress.setCompletedAt(Instant.now());
+                progressRepository.save(progress);
+                log.info("Field re-encryption: {} is on data key version {} ({} rows rewritten)",
+                        target.table(), targetVersion, progress.getRowsRewritten());
+                return true;
+            }
+            try {
+                throttle.asBlocking().consume(rows.size());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            List<FieldUpdates> updates = reencrypt(target, rows);
+            ReencryptionProgressEntity current = progress;
+            progress = transactionTemplate.execute(status -> {
+                int rewritten = write(target, updates);
+                current.setLastId(rows.get(rows.size() - 1).id());
+                current.setRowsRewritten(current.getRowsRewritten() + rewritten);
+                return progressRepository.save(current);
+            });
+        }
+        log.info("Field re-encryption: {} paused at id {}; resumes on next run", target.table(), progress.getLastId());
+        return false;
+    }
+
+    private ReencryptionProgressEntity progressFor(Target target) {
+        ReencryptionProgressEntity progress = progressRepository.findByTarget(target.table())
+                .orElseGet(() -> ReencryptionProgressEntity.builder()
+                        .target(target.table())
+                        .keyVersion(targetVersion)
+                        .storageFormat(STORAGE_FORMAT)
+                        .build());
+        if (progress.getKeyVersion() != targetVersion || !Objects.equals(progress.getStorageFormat(), STORAGE_FORMAT)) {
+            progress.setKeyVersion(targetVersion);
+            progress.setStorageFormat(STORAGE_FORMAT);
+            progress.setLastId(null);
+            progress.setRowsRewritten(0L);
+            progress.setCompletedAt(null);
+        }
+        if (progress.getId() != null) {
+            return progress;
+        }
+        try {
+            return progressRepository.save(progress);
+        } catch (DataIntegrityViolationException e) {
+            return progressFor(target);
+        }
+    }
+
+    private List<Row> fetch(Target target, UUID afterId) {
+        StringBuilder columns = new StringBuilder();
+        for (String field : target.fields()) {
+            columns.append(", ").append(field).append("_ct, ").append(field);
+        }
+        int width = target.fields().size();
+        String select = "SELECT id, user_id" + columns + " FROM " + target.table();
+        String sql = afterId == null
+                ? select + " ORDER BY id LIMIT ?"
+                : select + " WHERE id > ? ORDER BY id LIMIT ?";
+        Object[] args = afterId == null ? new Object[]{chunkSize} : new Object[]{afterId, chunkSize};
+        return jdbcTemplate.query(sql, (rs, rowNum) -> {
+            Ciphertext[] binary = new Ciphertext[width];
+            String[] legacy = new String[width];
+            for (int i = 0; i < width; i++) {
+                binary[i] = Ciphertext.wrap(rs.getBytes(3 + 2 * i));
+                legacy[i] = rs.getString(4 + 2 * i);
+            }
+            return new Row(rs.getObject("id", UUID.class), rs.getObject("user_id", UUID.class), binary, legacy);
+        }, args);
+    }
+
+    /**
+     * Crypto work happens outside the write transaction. Per field, returns update arguments for rows whose
+     * binary column is set (guarded on that value) and for rows still on the legacy text column.
+     */
+    private List<FieldUpdates> reencrypt(Target target, List<Row> rows) {
+        List<FieldUpdates> updates = new ArrayList<>(target.fields().size());
+        int current = 0;
+        int failed = 0;
+        for (int field = 0; field < target.fields().size(); field++) {
+            FieldUpdates fieldUpdates = new FieldUpdates(new ArrayList<>(), new ArrayList<>());
+            for (Row row : rows) {
+                Ciphertext binary = row.binary()[field];
+                String legacy = row.legacy()[field];
+                if (binary == null && legacy == null) {
+                    continue;
+                }
+                Ciphertext stored = binary != null ? binary : Ciphertext.fromLegacyText(legacy);
+                Ciphertext moved = stored == null ? null : cryptoService.reencrypt(row.userId(), stored);
+                if (moved == null && (binary != null || !legacy.isBlank())) {
+                    failed++;
+                } else if (binary != null && moved == binary) {
+                    current++;
+                } else if (binary != null) {
+                    fieldUpdates.binary().add(new Object[]{moved.raw(), row.id(), binary.raw()});
+                } else {
+                    fieldUpdates.legacy().add(new Object[]{moved == null ? null : moved.raw(), row.id(), legacy});
+                }
+            }
+            updates.add(fieldUpdates);
+        }
+        count(target, "current", current);
+        if (failed > 0) {
+            log.warn("Field re-encryption: {} values in {} could not be decrypted and were left as is", failed, target.table());
+            count(target, "failed", failed);
+        }
+        return updates;
+    }
+
+    private int write(Target target, List<FieldUpdates> updates) {
+        int rewritten = 0;
+        int conflicts = 0;
+        for (int field = 0; field < updates.size(); field++) {
+            String legacyColumn = target.fields().get(field);
+            String binaryColumn = legacyColumn + "_ct";
+            String set = "UPDATE " + target.table() + " SET " + binaryColumn + " = ?, " + legacyColumn + " = NULL WHERE id = ? AND ";
+            FieldUpdates fieldUpdates = updates.get(field);
+            List<int[]> results = new ArrayList<>(2);
+            if (!fieldUpdates.binary().isEmpty()) {
+                results.add(jdbcTemplate.batchUpdate(set + binaryColumn + " = ?", fieldUpdates.binary()));
+            }
+            if (!fieldUpdates.legacy().isEmpty()) {
+                results.add(jdbcTemplate.batchUpdate(
+                        set + binaryColumn + " IS NULL AND " + legacyColumn + " = ?", fieldUpdates.legacy()));
+            }
+            for (int[] batch : results) {
+                for (int updated : batch) {
+                    if (updated == 0) {
+                        conflicts++;
+                    } else {
+                        rewritten++;
+                    }
+                }
+            }
+        }
+        count(target, "rewritten", rewritten);
+        count(target, "conflict", conflicts);
+        return rewritten;
+    }
+
+    private void count(Target target, String outcome, int amount) {
+        if (amount > 0) {
+            meterRegistry.counter(METRIC_VALUES, "table", target.table(), "outcome", outcome).increment(amount);
+        }
+    }
+
+    /**
+     * Each field is stored in "field_ct" (binary) with "field" as its legacy Base64 text column.
+     */
+    record Target(String table, List<String> fields) {
+    }
+
+    private record Row(UUID id, UUID userId, Ciphertext[] binary, String[] legacy) {
+    }
+
+    private record FieldUpdates(List<Object[]> binary, List<Object[]> legacy) {
+    }
+}
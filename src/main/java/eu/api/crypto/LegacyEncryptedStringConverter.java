@@ -0,0 +1,24 @@
+package eu.api.crypto;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.Base64;
+
+/**
+ * Maps {@link EncryptedString} to the Base64 text columns used before binary storage. Blank or malformed
+ * values read as null, as {@link Ciphertext#fromLegacyText(String)} does.
+ */
+@Converter
+public class LegacyEncryptedStringConverter implements AttributeConverter<EncryptedString, String> {
+
+    @Override
+    public String convertToDatabaseColumn(EncryptedString attribute) {
+        return attribute == null ? null : Base64.getEncoder().encodeToString(attribute.ciphertext().raw());
+    }
+
+    @Override
+    public EncryptedString convertToEntityAttribute(String dbData) {
+        return EncryptedString.stored(Ciphertext.fromLegacyText(dbData));
+    }
+}
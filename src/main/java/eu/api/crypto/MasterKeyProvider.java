@@ -0,0 +1,96 @@
+package eu.api.crypto;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Holds the master (key-encryption) keys. The current key wraps new per-user data keys;
+ * retired keys are kept only to unwrap rows that have not been rewrapped yet.
+ * Keys come from env: CRYPTO_MASTER_KEY (+ CRYPTO_MASTER_KEY_ID) and CRYPTO_RETIRED_MASTER_KEYS ("id:base64,...").
+ */
+@Slf4j
+@Component
+public class MasterKeyProvider {
+
+    private static final int AES_KEY_LENGTH_BYTES = 32;
+
+    private final int currentId;
+    private final Map<Integer, SecretKey> keys = new LinkedHashMap<>();
+
+    public MasterKeyProvider(@Value("${crypto.master-key-base64:}") String masterKeyBase64,
+                             @Value("${crypto.master-key-id:1}") int masterKeyId,
+                             @Value("${crypto.retired-master-keys:}") String retiredMasterKeys) {
+        this.currentId = masterKeyId;
+        keys.put(masterKeyId, parseCurrent(masterKeyBase64));
+        if (retiredMasterKeys != null && !retiredMasterKeys.isBlank()) {
+            for (String entry : retiredMasterKeys.trim().split("\\s*,\\s*")) {
+                int separator = entry.indexOf(':');
+                if (separator <= 0) {
+                    throw new IllegalStateException("CRYPTO_RETIRED_MASTER_KEYS entries must be id:base64");
+                }
+                int id = Integer.parseInt(entry.substring(0, separator));
+                if (id != masterKeyId) {
+                    keys.put(id, toKey(entry.substring(separator + 1)));
+                }
+            }
+        }
+    }
+
+    public int currentId() {
+        return currentId;
+    }
+
+    public SecretKey current() {
+        return keys.get(currentId);
+    }
+
+    public Optional<SecretKey> byId(int id) {
+        return Optional.ofNullable(keys.get(id));
+    }
+
+    public Set<Integer> retiredIds() {
+        Set<Integer> retired = new LinkedHashSet<>(keys.keySet());
+        retired.remove(currentId);
+        return retired;
+    }
+
+    /**
+     * Current key first, then retired keys. Used to read fields written before envelope encryption.
+     */
+    public Iterable<SecretKey> all() {
+        return keys.values();
+    }
+
+    private SecretKey parseCurrent(String masterKeyBase64) {
+        if (masterKeyBase64 == null || masterKeyBase64.isBlank()) {
+            log.warn("CRYPTO_MASTER_KEY not set; using placeholder key. Set CRYPTO_MASTER_KEY in production.");
+            byte[] placeholder = new byte[AES_KEY_LENGTH_BYTES];
+            new SecureRandom().nextBytes(placeholder);
+            return new SecretKeySpec(placeholder, "AES");
+        }
+        return toKey(masterKeyBase64);
+    }
+
+    private static SecretKey toKey(String base64) {
+        byte[] decoded = Base64.getDecoder().decode(base64.trim());
+        if (decoded.length < AES_KEY_LENGTH_BYTES) {
+            throw new IllegalStateException("CRYPTO_MASTER_KEY must be base64-encoded at least 32 bytes (256 bits)");
+        }
+        byte[] keyBytes = decoded.length == AES_KEY_LENGTH_BYTES
+                ? decoded
+                : Arrays.copyOf(decoded, AES_KEY_LENGTH_BYTES);
+        return new SecretKeySpec(keyBytes, "AES");
+    }
+}
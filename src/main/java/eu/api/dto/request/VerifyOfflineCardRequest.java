@@ -0,0 +1,17 @@
+package eu.api.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VerifyOfflineCardRequest {
+
+    @NotBlank(message = "Card is required")
+    private String card;
+}
@@ -0,0 +1,20 @@
+package eu.api.dto.response;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Getter
+@Builder
+public class AuditEventResponse {
+    private final UUID id;
+    private final String resourceType;
+    private final String action;
+    private final UUID resourceId;
+    /** First occurrence; for coalesced reads, lastOccurredAt and count cover the rest. */
+    private final Instant occurredAt;
+    private final Instant lastOccurredAt;
+    private final int count;
+}
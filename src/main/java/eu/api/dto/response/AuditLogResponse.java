@@ -0,0 +1,14 @@
+package eu.api.dto.response;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@Builder
+public class AuditLogResponse {
+    private final List<AuditEventResponse> items;
+    /** Pass as ?cursor= to get the next (older) page; absent on the last page. */
+    private final String nextCursor;
+}
@@ -1,5 +1,6 @@
 package eu.api.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Builder;
 import lombok.Getter;
 
@@ -15,4 +16,25 @@ public class ExportDataResponse {
     private final List<EmergencyContactResponse> emergencyContacts;
     private final List<AddressResponse> addresses;
     private final String exportedAt;
+    /** False when a section is missing; each missing section is listed in failedSections. */
+    private final boolean complete;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final List<SectionFailure> failedSections;
+
+    public enum FailureReason {
+        /** Still loading when the export deadline passed. */
+        TIMEOUT,
+        ERROR
+    }
+
+    @Getter
+    public static class SectionFailure {
+        private final String section;
+        private final FailureReason reason;
+
+        public SectionFailure(String section, FailureReason reason) {
+            this.section = section;
+            this.reason = reason;
+        }
+    }
 }
@@ -0,0 +1,16 @@
+package eu.api.dto.response;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Instant;
+
+@Getter
+@Builder
+public class OfflineEmergencyCardResponse {
+    /** "EC1:" + base45 text, meant to be rendered as an alphanumeric-mode QR code. */
+    private final String card;
+    private final String keyId;
+    private final Instant issuedAt;
+    private final Instant expiresAt;
+}
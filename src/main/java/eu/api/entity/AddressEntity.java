@@ -1,5 +1,10 @@
 package eu.api.entity;
 
+import eu.api.crypto.Encrypted;
+import eu.api.crypto.EncryptedFieldListener;
+import eu.api.crypto.EncryptedString;
+import eu.api.crypto.EncryptedStringConverter;
+import eu.api.crypto.LegacyEncryptedStringConverter;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.Where;
@@ -9,6 +14,7 @@ import java.util.UUID;
 @Entity
 @Table(name = "addresses", indexes = {@Index(name = "idx_addresses_user_id", columnList = "user_id")})
 @Where(clause = "deleted_at IS NULL")
+@EntityListeners(EncryptedFieldListener.class)
 @Getter
 @Setter
 @Builder
@@ -26,11 +32,15 @@ public class AddressEntity extends BaseEntity {
     @Builder.Default
     private Boolean isPrimary = false;
 
-    @Column(length = 1024)
-    private String street;
+    @Encrypted
+    @Convert(converter = EncryptedStringConverter.class)
+    @Column(name = "street_ct", length = 1024)
+    private EncryptedString street;
 
-    @Column(length = 128)
-    private String number;
+    @Encrypted
+    @Convert(converter = EncryptedStringConverter.class)
+    @Column(name = "number_ct", length = 128)
+    private EncryptedString number;
 
     @Column(length = 128)
     private String city;
@@ -38,9 +48,31 @@ public class AddressEntity extends BaseEntity {
     @Column(length = 128)
     private String state;
 
-    @Column(length = 128)
-    private String zip;
+    @Encrypted
+    @Convert(converter = EncryptedStringConverter.class)
+    @Column(name = "zip_ct", length = 128)
+    private EncryptedString zip;
 
     @Column(length = 128)
     private String country;
+
+    /*
+     * Base64 ciphertext written before binary storage. Read through EncryptedString.orLegacy until
+     * FieldReencryptor has moved the row into the *_ct columns and cleared these.
+     */
+
+    @Encrypted
+    @Convert(converter = LegacyEncryptedStringConverter.class)
+    @Column(name = "street", length = 1024)
+    private EncryptedString legacyStreet;
+
+    @Encrypted
+    @Convert(converter = LegacyEncryptedStringConverter.class)
+    @Column(name = "number", length = 128)
+    private EncryptedString legacyNumber;
+
+    @Encrypted
+    @Convert(converter = LegacyEncryptedStringConverter.class)
+    @Column(name = "zip", length = 128)
+    private EncryptedString legacyZip;
 }
@@ -1,5 +1,10 @@
 package eu.api.entity;
 
+import eu.api.crypto.Encrypted;
+import eu.api.crypto.EncryptedFieldListener;
+import eu.api.crypto.EncryptedString;
+import eu.api.crypto.EncryptedStringConverter;
+import eu.api.crypto.LegacyEncryptedStringConverter;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.Where;
@@ -9,6 +14,7 @@ import java.util.UUID;
 @Entity
 @Table(name = "allergies", indexes = {@Index(name = "idx_allergies_user_id", columnList = "user_id")})
 @Where(clause = "deleted_at IS NULL")
+@EntityListeners(EncryptedFieldListener.class)
 @Getter
 @Setter
 @Builder
@@ -25,6 +31,13 @@ public class AllergyEntity extends BaseEntity {
     @Column(length = 32)
     private String severity;
 
-    @Column(length = 2048)
-    private String notes;
+    @Encrypted
+    @Convert(converter = EncryptedStringConverter.class)
+    @Column(name = "notes_ct", length = 2048)
+    private EncryptedString notes;
+
+    @Encrypted
+    @Convert(converter = LegacyEncryptedStringConverter.class)
+    @Column(name = "notes", length = 2048)
+    private EncryptedString legacyNotes;
 }
@@ -0,0 +1,54 @@
+package eu.api.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Number of audit events per user, resource type and action on one UTC day. Kept after the raw events have
+ * been dropped by retention, for long-term reporting.
+ */
+@Entity
+@Table(name = "audit_event_daily_counts")
+@IdClass(AuditDailyCountEntity.Key.class)
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditDailyCountEntity {
+
+    @Id
+    @Column(name = "event_day")
+    private LocalDate eventDay;
+
+    @Id
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @Id
+    @Column(name = "resource_type", length = 64)
+    private String resourceType;
+
+    @Id
+    @Column(name = "action", length = 32)
+    private String action;
+
+    @Column(name = "event_count", nullable = false)
+    private long eventCount;
+
+    @Getter
+    @Setter
+    @EqualsAndHashCode
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private LocalDate eventDay;
+        private UUID userId;
+        private String resourceType;
+        private String action;
+    }
+}
@@ -3,17 +3,19 @@ package eu.api.entity;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.time.Instant;
 import java.util.UUID;
 
 /**
  * Audit event: who did what on which resource type (and optional resource id).
  * Never stores sensitive values — only resource type, action, user id, resource id.
+ * Repeated READs may be merged into one row: createdAt is then the first occurrence, lastOccurredAt the last
+ * and eventCount how many there were. Every other action is one row per event.
+ * On PostgreSQL the table is partitioned by month and its indexes are created by
+ * AuditPartitionManager, not by Hibernate.
  */
 @Entity
-@Table(name = "audit_events", indexes = {
-        @Index(name = "idx_audit_events_user_id", columnList = "user_id"),
-        @Index(name = "idx_audit_events_created_at", columnList = "created_at")
-})
+@Table(name = "audit_events")
 @Getter
 @Setter
 @Builder
@@ -32,4 +34,10 @@ public class AuditEventEntity extends BaseEntity {
 
     @Column(name = "resource_id")
     private UUID resourceId;
+
+    @Column(name = "event_count", nullable = false, columnDefinition = "integer default 1")
+    private int eventCount;
+
+    @Column(name = "last_occurred_at")
+    private Instant lastOccurredAt;
 }
@@ -0,0 +1,34 @@
+package eu.api.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Pre-rendered JSON of a user's public emergency card, exactly as GET /api/v1/emergency/{token} returns it.
+ * Deleted in the transaction that changes any of its sources and rebuilt after that transaction commits.
+ */
+@Entity
+@Table(name = "emergency_snapshots")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmergencySnapshotEntity {
+
+    @Id
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @JdbcTypeCode(SqlTypes.VARBINARY)
+    @Column(nullable = false, length = 1_048_576)
+    private byte[] payload;
+
+    @Column(name = "built_at", nullable = false)
+    private Instant builtAt;
+}
@@ -9,7 +9,8 @@ import java.util.UUID;
 @Entity
 @Table(name = "emergency_tokens", indexes = {
         @Index(name = "idx_emergency_tokens_user_id", columnList = "user_id"),
-        @Index(name = "idx_emergency_tokens_token", columnList = "token", unique = true)
+        @Index(name = "idx_emergency_tokens_token", columnList = "token", unique = true),
+        @Index(name = "idx_emergency_tokens_updated_at", columnList = "updated_at")
 }, uniqueConstraints = @UniqueConstraint(columnNames = "user_id"))
 @Where(clause = "deleted_at IS NULL")
 @Getter
@@ -1,5 +1,10 @@
 package eu.api.entity;
 
+import eu.api.crypto.Encrypted;
+import eu.api.crypto.EncryptedFieldListener;
+import eu.api.crypto.EncryptedString;
+import eu.api.crypto.EncryptedStringConverter;
+import eu.api.crypto.LegacyEncryptedStringConverter;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.Where;
@@ -9,6 +14,7 @@ import java.util.UUID;
 @Entity
 @Table(name = "health_info", indexes = {@Index(name = "idx_health_info_user_id", columnList = "user_id")}, uniqueConstraints = @UniqueConstraint(columnNames = "user_id"))
 @Where(clause = "deleted_at IS NULL")
+@EntityListeners(EncryptedFieldListener.class)
 @Getter
 @Setter
 @Builder
@@ -22,6 +28,13 @@ public class HealthInfoEntity extends BaseEntity {
     @Column(name = "blood_type", nullable = false, length = 16)
     private String bloodType;
 
+    @Encrypted
+    @Convert(converter = EncryptedStringConverter.class)
+    @Column(name = "medical_notes_ct", length = 2048)
+    private EncryptedString medicalNotes;
+
+    @Encrypted
+    @Convert(converter = LegacyEncryptedStringConverter.class)
     @Column(name = "medical_notes", length = 2048)
-    private String medicalNotes;
+    private EncryptedString legacyMedicalNotes;
 }
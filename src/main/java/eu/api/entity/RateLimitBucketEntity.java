@@ -0,0 +1,31 @@
+package eu.api.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Token-bucket state shared by all API replicas when rate-limit.mode is distributed. Rows are only
+ * changed through compare-and-set on version (see RateLimitBucketRepository), never by dirty checking.
+ */
+@Entity
+@Table(name = "rate_limit_buckets")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RateLimitBucketEntity {
+
+    @Id
+    @Column(name = "bucket_key", length = 128)
+    private String bucketKey;
+
+    @Column(nullable = false)
+    private double tokens;
+
+    @Column(name = "refilled_at_ms", nullable = false)
+    private long refilledAtMs;
+
+    @Column(nullable = false)
+    private long version;
+}
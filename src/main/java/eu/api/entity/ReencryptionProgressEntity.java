@@ -0,0 +1,47 @@
+package eu.api.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Resume point of the field re-encryption job for one table: the last row id it moved to
+ * keyVersion and storageFormat. A pass is restarted from the beginning when either changes.
+ * leaseOwner/leasedUntil mark the replica currently working on the table.
+ */
+@Entity
+@Table(name = "reencryption_progress", uniqueConstraints = @UniqueConstraint(columnNames = "target"))
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReencryptionProgressEntity extends BaseEntity {
+
+    @Column(nullable = false, length = 64)
+    private String target;
+
+    @Column(name = "key_version", nullable = false)
+    private Integer keyVersion;
+
+    @Column(name = "storage_format")
+    private Integer storageFormat;
+
+    @Column(name = "last_id")
+    private UUID lastId;
+
+    @Column(name = "rows_rewritten", nullable = false)
+    @Builder.Default
+    private Long rowsRewritten = 0L;
+
+    @Column(name = "completed_at")
+    private Instant completedAt;
+
+    @Column(name = "lease_owner")
+    private UUID leaseOwner;
+
+    @Column(name = "leased_until")
+    private Instant leasedUntil;
+}
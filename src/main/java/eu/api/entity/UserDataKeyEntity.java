@@ -0,0 +1,38 @@
+package eu.api.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Where;
+
+import java.util.UUID;
+
+/**
+ * Per-user AES data key, wrapped (AES-KW) by the master key identified by masterKeyId.
+ * One row per key version; the version is written into the header of every value it encrypts.
+ * Never stores the key in clear.
+ */
+@Entity
+@Table(name = "user_data_keys", indexes = {
+        @Index(name = "idx_user_data_keys_master_key_id", columnList = "master_key_id")
+}, uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "key_version"}))
+@Where(clause = "deleted_at IS NULL")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserDataKeyEntity extends BaseEntity {
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "key_version", nullable = false)
+    @Builder.Default
+    private Integer keyVersion = 1;
+
+    @Column(name = "wrapped_key", nullable = false, length = 128)
+    private String wrappedKey;
+
+    @Column(name = "master_key_id", nullable = false)
+    private Integer masterKeyId;
+}
@@ -2,6 +2,7 @@ package eu.api.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.Where;
 
 import java.util.UUID;
@@ -25,4 +26,12 @@ public class UserEntity extends BaseEntity {
     @Column(nullable = false, length = 32)
     @Builder.Default
     private String status = "ACTIVE";
+
+    /**
+     * Bumped by every write to the user's own data; source of the ETags on the /me and emergency GETs.
+     */
+    @Column(name = "data_version", nullable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private long dataVersion = 0L;
 }
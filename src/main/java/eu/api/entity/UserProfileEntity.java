@@ -1,5 +1,10 @@
 package eu.api.entity;
 
+import eu.api.crypto.Encrypted;
+import eu.api.crypto.EncryptedFieldListener;
+import eu.api.crypto.EncryptedString;
+import eu.api.crypto.EncryptedStringConverter;
+import eu.api.crypto.LegacyEncryptedStringConverter;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.Where;
@@ -10,6 +15,7 @@ import java.util.UUID;
 @Entity
 @Table(name = "user_profile", indexes = {@Index(name = "idx_user_profile_user_id", columnList = "user_id")}, uniqueConstraints = @UniqueConstraint(columnNames = "user_id"))
 @Where(clause = "deleted_at IS NULL")
+@EntityListeners(EncryptedFieldListener.class)
 @Getter
 @Setter
 @Builder
@@ -29,6 +35,13 @@ public class UserProfileEntity extends BaseEntity {
     @Column(length = 64)
     private String phone;
 
-    @Column(length = 255)
-    private String workplace;
+    @Encrypted
+    @Convert(converter = EncryptedStringConverter.class)
+    @Column(name = "workplace_ct", length = 255)
+    private EncryptedString workplace;
+
+    @Encrypted
+    @Convert(converter = LegacyEncryptedStringConverter.class)
+    @Column(name = "workplace", length = 255)
+    private EncryptedString legacyWorkplace;
 }
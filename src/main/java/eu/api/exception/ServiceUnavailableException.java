@@ -0,0 +1,10 @@
+package eu.api.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class ServiceUnavailableException extends ApiException {
+
+    public ServiceUnavailableException(String message) {
+        super("SERVICE_BUSY", message, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+}
@@ -0,0 +1,11 @@
+package eu.api.offlinecard;
+
+/**
+ * The card is malformed, expired, signed by an unknown key or has been tampered with.
+ */
+public class InvalidOfflineCardException extends RuntimeException {
+
+    public InvalidOfflineCardException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,89 @@
+package eu.api.offlinecard;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.time.Instant;
+import java.util.zip.Deflater;
+
+/**
+ * Encoder for self-contained emergency cards that a scanner can check offline with {@link OfflineCardVerifier}.
+ * Like everything in this package it depends on the JDK only, so scanner apps can copy the package as is.
+ * <p>
+ * Text form: "EC1:" + Base45(bytes), sized for a QR code in alphanumeric mode. Byte layout:
+ * <pre>
+ *   [0]      format version (1)
+ *   [1]      flags; bit 0 = body is raw DEFLATE
+ *   [2..5]   issued at, unsigned epoch seconds
+ *   [6..9]   expires at, unsigned epoch seconds
+ *   [10]     key id length n, then n bytes of UTF-8 key id
+ *   ...      body: EmergencyPublicResponse JSON
+ *   last 64  ES256 signature (r || s) over everything before it
+ * </pre>
+ * The signature covers the compressed body, so a verifier rejects forged input before inflating anything.
+ */
+public final class OfflineCard {
+
+    public static final String PREFIX = "EC1:";
+    /** Alphanumeric capacity of the largest QR code (version 40, error correction L). */
+    public static final int MAX_QR_CHARS = 4296;
+
+    static final int VERSION = 1;
+    static final int FLAG_DEFLATED = 1;
+    static final int HEADER_BYTES = 11;
+    static final int SIGNATURE_BYTES = 64;
+    static final String SIGNATURE_ALGORITHM = "SHA256withECDSAinP1363Format";
+
+    private OfflineCard() {
+    }
+
+    /**
+     * Signs the card JSON with an EC P-256 key; the body is deflated when that makes it smaller.
+     */
+    public static String encode(String keyId, Instant issuedAt, Instant expiresAt, byte[] cardJson, PrivateKey key) {
+        byte[] kid = keyId.getBytes(StandardCharsets.UTF_8);
+        if (kid.length > 255) {
+            throw new IllegalArgumentException("Key id longer than 255 bytes");
+        }
+        byte[] deflated = deflate(cardJson);
+        boolean compress = deflated.length < cardJson.length;
+        byte[] body = compress ? deflated : cardJson;
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + kid.length + body.length + SIGNATURE_BYTES);
+        buffer.put((byte) VERSION)
+                .put((byte) (compress ? FLAG_DEFLATED : 0))
+                .putInt((int) issuedAt.getEpochSecond())
+                .putInt((int) expiresAt.getEpochSecond())
+                .put((byte) kid.length)
+                .put(kid)
+                .put(body);
+        try {
+            Signature signature = Signature.getInstance(SIGNATURE_ALGORITHM);
+            signature.initSign(key);
+            signature.update(buffer.array(), 0, buffer.position());
+            buffer.put(signature.sign());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Offline card could not be signed", e);
+        }
+        return PREFIX + Base45.encode(buffer.array());
+    }
+
+    private static byte[] deflate(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION, true);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length);
+            byte[] chunk = new byte[512];
+            while (!deflater.finished()) {
+                out.write(chunk, 0, deflater.deflate(chunk));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+}
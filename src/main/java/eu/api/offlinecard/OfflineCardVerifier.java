@@ -0,0 +1,145 @@
+package eu.api.offlinecard;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPublicKeySpec;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Checks an {@link OfflineCard} against a set of trusted public keys, with no network access. Scanners load
+ * the keys once (GET /api/v1/emergency/offline/keys, a JWK Set; see {@link #p256Key(String, String)}) and can
+ * then verify any card on the device. Thread-safe.
+ */
+public final class OfflineCardVerifier {
+
+    /** Larger inflated bodies are rejected; a real card is a few hundred bytes. */
+    private static final int MAX_CARD_JSON_BYTES = 16 * 1024;
+
+    private final Map<String, PublicKey> trustedKeys;
+    private final Clock clock;
+
+    public OfflineCardVerifier(Map<String, PublicKey> trustedKeys) {
+        this(trustedKeys, Clock.systemUTC());
+    }
+
+    public OfflineCardVerifier(Map<String, PublicKey> trustedKeys, Clock clock) {
+        this.trustedKeys = Map.copyOf(trustedKeys);
+        this.clock = clock;
+    }
+
+    /**
+     * @throws InvalidOfflineCardException if the card cannot be trusted
+     */
+    public VerifiedCard verify(String card) {
+        if (card == null || !card.startsWith(OfflineCard.PREFIX) || card.length() > OfflineCard.MAX_QR_CHARS) {
+            throw new InvalidOfflineCardException("Not an offline emergency card");
+        }
+        byte[] bytes;
+        try {
+            bytes = Base45.decode(card.substring(OfflineCard.PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidOfflineCardException("Offline card is not valid base45");
+        }
+        if (bytes.length < OfflineCard.HEADER_BYTES + OfflineCard.SIGNATURE_BYTES
+                || bytes[0] != OfflineCard.VERSION) {
+            throw new InvalidOfflineCardException("Unsupported offline card format");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int flags = buffer.get(1);
+        Instant issuedAt = Instant.ofEpochSecond(Integer.toUnsignedLong(buffer.getInt(2)));
+        Instant expiresAt = Instant.ofEpochSecond(Integer.toUnsignedLong(buffer.getInt(6)));
+        int kidLength = buffer.get(10) & 0xff;
+        int bodyStart = OfflineCard.HEADER_BYTES + kidLength;
+        int signatureStart = bytes.length - OfflineCard.SIGNATURE_BYTES;
+        if (bodyStart > signatureStart) {
+            throw new InvalidOfflineCardException("Unsupported offline card format");
+        }
+        String keyId = new String(bytes, OfflineCard.HEADER_BYTES, kidLength, StandardCharsets.UTF_8);
+        PublicKey key = trustedKeys.get(keyId);
+        if (key == null) {
+            throw new InvalidOfflineCardException("Offline card signed by an unknown key");
+        }
+        if (!signatureValid(key, bytes, signatureStart)) {
+            throw new InvalidOfflineCardException("Offline card signature is invalid");
+        }
+        if (!clock.instant().isBefore(expiresAt)) {
+            throw new InvalidOfflineCardException("Offline card has expired");
+        }
+        byte[] body = Arrays.copyOfRange(bytes, bodyStart, signatureStart);
+        byte[] json = (flags & OfflineCard.FLAG_DEFLATED) != 0 ? inflate(body) : body;
+        return new VerifiedCard(keyId, issuedAt, expiresAt, json);
+    }
+
+    /**
+     * EC P-256 public key from the x and y members of a JWK (base64url, no padding).
+     */
+    public static PublicKey p256Key(String x, String y) {
+        try {
+            AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+            parameters.init(new ECGenParameterSpec("secp256r1"));
+            ECParameterSpec spec = parameters.getParameterSpec(ECParameterSpec.class);
+            ECPoint point = new ECPoint(new BigInteger(1, Base64.getUrlDecoder().decode(x)),
+                    new BigInteger(1, Base64.getUrlDecoder().decode(y)));
+            return KeyFactory.getInstance("EC").generatePublic(new ECPublicKeySpec(point, spec));
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Not a P-256 public key", e);
+        }
+    }
+
+    private static boolean signatureValid(PublicKey key, byte[] bytes, int signatureStart) {
+        try {
+            Signature signature = Signature.getInstance(OfflineCard.SIGNATURE_ALGORITHM);
+            signature.initVerify(key);
+            signature.update(bytes, 0, signatureStart);
+            return signature.verify(bytes, signatureStart, OfflineCard.SIGNATURE_BYTES);
+        } catch (GeneralSecurityException e) {
+            return false;
+        }
+    }
+
+    private static byte[] inflate(byte[] body) {
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(body);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(body.length * 3);
+            byte[] chunk = new byte[512];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(chunk);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new InvalidOfflineCardException("Offline card body is truncated");
+                }
+                out.write(chunk, 0, n);
+                if (out.size() > MAX_CARD_JSON_BYTES) {
+                    throw new InvalidOfflineCardException("Offline card body is too large");
+                }
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new InvalidOfflineCardException("Offline card body is corrupt");
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * A card whose signature and expiry checked out; cardJson is the EmergencyPublicResponse JSON.
+     */
+    public record VerifiedCard(String keyId, Instant issuedAt, Instant expiresAt, byte[] cardJson) {
+    }
+}
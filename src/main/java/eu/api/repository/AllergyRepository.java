@@ -1,14 +1,27 @@
 package eu.api.repository;
 
 import eu.api.entity.AllergyEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface AllergyRepository extends JpaRepository<AllergyEntity, UUID> {
 
     List<AllergyEntity> findByUserIdOrderByCreatedAtAsc(UUID userId);
+
+    long countByUserId(UUID userId);
+
+    /**
+     * Same rows and order as the list query, read in fetch-size batches; must be consumed inside a transaction
+     * and closed.
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "100"))
+    Stream<AllergyEntity> streamByUserIdOrderByCreatedAtAsc(UUID userId);
 }
@@ -0,0 +1,34 @@
+package eu.api.repository;
+
+import eu.api.entity.AuditDailyCountEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Optional;
+
+@Repository
+public interface AuditDailyCountRepository extends JpaRepository<AuditDailyCountEntity, AuditDailyCountEntity.Key> {
+
+    @Query("SELECT MAX(c.eventDay) FROM AuditDailyCountEntity c")
+    Optional<LocalDate> findLastDay();
+
+    /**
+     * Counts the events in [from, to) into rows for day, in the database. Touches only the partition(s)
+     * holding that range. Rows already counted (by another replica running the same schedule) are left as
+     * they are instead of failing the run.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO audit_event_daily_counts (event_day, user_id, resource_type, action, event_count)
+            SELECT CAST(:day AS DATE), user_id, resource_type, action, SUM(event_count)
+            FROM audit_events
+            WHERE created_at >= :from AND created_at < :to AND deleted_at IS NULL
+            GROUP BY user_id, resource_type, action
+            ON CONFLICT DO NOTHING
+            """, nativeQuery = true)
+    int rollUp(LocalDate day, Instant from, Instant to);
+}
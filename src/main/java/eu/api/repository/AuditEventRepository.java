@@ -1,11 +1,43 @@
 package eu.api.repository;
 
 import eu.api.entity.AuditEventEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface AuditEventRepository extends JpaRepository<AuditEventEntity, UUID> {
+
+    @Query("SELECT MIN(e.createdAt) FROM AuditEventEntity e")
+    Optional<Instant> findOldestCreatedAt();
+
+    /**
+     * The user's events strictly older than (afterCreatedAt, afterId), newest first. resourceType and action
+     * are optional filters (null = any). Forward-only and read in fetch-size batches; must be consumed inside
+     * a transaction and closed.
+     */
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "201"),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(value = """
+            SELECT * FROM audit_events
+            WHERE user_id = :userId
+              AND (created_at, id) < (:afterCreatedAt, :afterId)
+              AND (CAST(:resourceType AS VARCHAR) IS NULL OR resource_type = :resourceType)
+              AND (CAST(:action AS VARCHAR) IS NULL OR action = :action)
+              AND deleted_at IS NULL
+            ORDER BY created_at DESC, id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    Stream<AuditEventEntity> streamPage(UUID userId, String resourceType, String action, Instant afterCreatedAt,
+                                        UUID afterId, int limit);
 }
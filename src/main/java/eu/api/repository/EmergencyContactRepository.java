@@ -1,14 +1,25 @@
 package eu.api.repository;
 
 import eu.api.entity.EmergencyContactEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface EmergencyContactRepository extends JpaRepository<EmergencyContactEntity, UUID> {
 
     List<EmergencyContactEntity> findByUserIdOrderByPriorityAsc(UUID userId);
+
+    /**
+     * Same rows and order as the list query, read in fetch-size batches; must be consumed inside a transaction
+     * and closed.
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "100"))
+    Stream<EmergencyContactEntity> streamByUserIdOrderByPriorityAsc(UUID userId);
 }
@@ -0,0 +1,26 @@
+package eu.api.repository;
+
+import eu.api.entity.EmergencySnapshotEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface EmergencySnapshotRepository extends JpaRepository<EmergencySnapshotEntity, UUID> {
+
+    /**
+     * Stored card for an active token: one lookup on the unique token index plus one primary-key probe.
+     * Empty when the token is unknown or inactive, or when the card has not been built yet.
+     */
+    @Query("SELECT s.payload FROM EmergencySnapshotEntity s, EmergencyTokenEntity t "
+            + "WHERE t.token = :token AND t.active = TRUE AND s.userId = t.userId")
+    List<byte[]> findPayloadByToken(String token);
+
+    @Modifying
+    @Query("DELETE FROM EmergencySnapshotEntity s WHERE s.userId = :userId")
+    int deleteByUserId(UUID userId);
+}
@@ -1,16 +1,89 @@
 package eu.api.repository;
 
 import eu.api.entity.EmergencyTokenEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface EmergencyTokenRepository extends JpaRepository<EmergencyTokenEntity, UUID> {
 
+    int CARD_TOKEN = 0;
+    int CARD_PROFILE = 1;
+    int CARD_HEALTH = 2;
+    int CARD_ALLERGY = 3;
+    int CARD_MEDICATION = 4;
+    int CARD_CONTACT = 5;
+
     Optional<EmergencyTokenEntity> findByUserId(UUID userId);
 
     Optional<EmergencyTokenEntity> findByTokenAndActiveTrue(String token);
+
+    long countByActiveTrue();
+
+    /**
+     * All active tokens, read in batches; must be consumed inside a transaction and closed.
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT t.token FROM EmergencyTokenEntity t WHERE t.active = true")
+    Stream<String> streamActiveTokens();
+
+    @Query("SELECT t.token FROM EmergencyTokenEntity t WHERE t.active = true AND t.updatedAt >= :since")
+    List<String> findActiveTokensUpdatedSince(Instant since);
+
+    /**
+     * Everything the public emergency card shows, in one round trip: one row per item, tagged by kind
+     * (CARD_*), already in display order. No rows at all means the token is unknown or inactive.
+     * Only plaintext columns are read, so no entity is hydrated and nothing is decrypted.
+     */
+    @Query(value = """
+            WITH t AS (
+                SELECT user_id FROM emergency_tokens
+                WHERE token = :token AND active = TRUE AND deleted_at IS NULL
+            )
+            SELECT 0 AS kind, CAST(NULL AS VARCHAR(255)) AS name, CAST(NULL AS VARCHAR(128)) AS detail,
+                   CAST(NULL AS VARCHAR(128)) AS extra, 0 AS priority, CAST(NULL AS TIMESTAMP WITH TIME ZONE) AS created_at
+            FROM t
+            UNION ALL
+            SELECT 1, p.full_name, p.phone, NULL, 0, p.created_at
+            FROM user_profile p JOIN t ON p.user_id = t.user_id WHERE p.deleted_at IS NULL
+            UNION ALL
+            SELECT 2, h.blood_type, NULL, NULL, 0, h.created_at
+            FROM health_info h JOIN t ON h.user_id = t.user_id WHERE h.deleted_at IS NULL
+            UNION ALL
+            SELECT 3, a.name, a.severity, NULL, 0, a.created_at
+            FROM allergies a JOIN t ON a.user_id = t.user_id WHERE a.deleted_at IS NULL
+            UNION ALL
+            SELECT 4, m.name, m.dosage, m.frequency, 0, m.created_at
+            FROM medications m JOIN t ON m.user_id = t.user_id WHERE m.deleted_at IS NULL
+            UNION ALL
+            SELECT 5, c.name, c.relationship, c.phone, c.priority, c.created_at
+            FROM emergency_contacts c JOIN t ON c.user_id = t.user_id WHERE c.deleted_at IS NULL
+            ORDER BY kind, priority, created_at
+            """, nativeQuery = true)
+    List<EmergencyCardRow> findEmergencyCard(String token);
+
+    /**
+     * One row of {@link #findEmergencyCard(String)}; what name/detail/extra hold depends on kind.
+     */
+    interface EmergencyCardRow {
+        int getKind();
+
+        String getName();
+
+        String getDetail();
+
+        String getExtra();
+
+        int getPriority();
+    }
 }
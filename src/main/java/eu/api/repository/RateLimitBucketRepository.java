@@ -0,0 +1,39 @@
+package eu.api.repository;
+
+import eu.api.entity.RateLimitBucketEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface RateLimitBucketRepository extends JpaRepository<RateLimitBucketEntity, String> {
+
+    /**
+     * Creates the bucket; fails with DataIntegrityViolationException when another replica created it first.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO rate_limit_buckets (bucket_key, tokens, refilled_at_ms, version) "
+            + "VALUES (:bucketKey, :tokens, :refilledAtMs, 0)", nativeQuery = true)
+    int insert(String bucketKey, double tokens, long refilledAtMs);
+
+    /**
+     * Stores the new state only if nobody changed the row since it was read at expectedVersion.
+     * Returns 1 on success, 0 when the caller lost the race and must re-read.
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE RateLimitBucketEntity b SET b.tokens = :tokens, b.refilledAtMs = :refilledAtMs, "
+            + "b.version = b.version + 1 WHERE b.bucketKey = :bucketKey AND b.version = :expectedVersion")
+    int compareAndSet(String bucketKey, long expectedVersion, double tokens, long refilledAtMs);
+
+    /**
+     * Deletes buckets untouched since the given time; they would be full again, same as a missing row.
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RateLimitBucketEntity b WHERE b.refilledAtMs < :beforeMs")
+    int deleteIdleBefore(long beforeMs);
+}
@@ -0,0 +1,31 @@
+package eu.api.repository;
+
+import eu.api.entity.ReencryptionProgressEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface ReencryptionProgressRepository extends JpaRepository<ReencryptionProgressEntity, UUID> {
+
+    Optional<ReencryptionProgressEntity> findByTarget(String target);
+
+    /**
+     * Takes the target's lease for owner until the given time if it is free, expired or already owner's;
+     * returns 0 if another replica holds it.
+     */
+    @Modifying
+    @Query("UPDATE ReencryptionProgressEntity p SET p.leaseOwner = :owner, p.leasedUntil = :until "
+            + "WHERE p.target = :target AND (p.leasedUntil IS NULL OR p.leasedUntil < :now OR p.leaseOwner = :owner)")
+    int claimLease(String target, UUID owner, Instant until, Instant now);
+
+    @Modifying
+    @Query("UPDATE ReencryptionProgressEntity p SET p.leaseOwner = NULL, p.leasedUntil = NULL "
+            + "WHERE p.target = :target AND p.leaseOwner = :owner")
+    int releaseLease(String target, UUID owner);
+}
@@ -0,0 +1,18 @@
+package eu.api.repository;
+
+import eu.api.entity.UserDataKeyEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface UserDataKeyRepository extends JpaRepository<UserDataKeyEntity, UUID> {
+
+    List<UserDataKeyEntity> findByUserId(UUID userId);
+
+    List<UserDataKeyEntity> findByMasterKeyIdIn(Collection<Integer> masterKeyIds, Pageable pageable);
+}
@@ -1,9 +1,14 @@
 package eu.api.repository;
 
 import eu.api.entity.UserEntity;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -11,4 +16,33 @@ import java.util.UUID;
 public interface UserRepository extends JpaRepository<UserEntity, UUID> {
 
     Optional<UserEntity> findByEmail(String email);
+
+    /**
+     * Loads the user with a row lock held until the transaction ends; serialises per-user derived-data rebuilds.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM UserEntity u WHERE u.id = :id")
+    Optional<UserEntity> lockById(UUID id);
+
+    /**
+     * Also takes the user's row lock until the transaction ends, like {@link #lockById(UUID)}.
+     */
+    @Modifying
+    @Query("UPDATE UserEntity u SET u.dataVersion = u.dataVersion + 1 WHERE u.id = :id")
+    int incrementDataVersion(UUID id);
+
+    /**
+     * Replaces the password hash only while it is still expectedHash; returns 0 if it changed meanwhile.
+     */
+    @Modifying
+    @Query("UPDATE UserEntity u SET u.passwordHash = :newHash, u.updatedAt = :now "
+            + "WHERE u.id = :id AND u.passwordHash = :expectedHash")
+    int updatePasswordHash(UUID id, String expectedHash, String newHash, Instant now);
+
+    @Query("SELECT u.dataVersion FROM UserEntity u WHERE u.id = :id")
+    Optional<Long> findDataVersion(UUID id);
+
+    @Query("SELECT u.dataVersion FROM UserEntity u, EmergencyTokenEntity t "
+            + "WHERE t.token = :token AND t.active = TRUE AND u.id = t.userId")
+    Optional<Long> findDataVersionByEmergencyToken(String token);
 }
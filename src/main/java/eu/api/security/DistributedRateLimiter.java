@@ -0,0 +1,146 @@
+package eu.api.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import eu.api.entity.RateLimitBucketEntity;
+import eu.api.repository.RateLimitBucketRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Rate limits shared by all replicas (rate-limit.mode=distributed): one token bucket per policy and client key
+ * in the rate_limit_buckets table, refilled continuously at the policy's requests-per-minute and updated by
+ * compare-and-set on a version column, so concurrent replicas never hand out the same token twice.
+ * <p>
+ * Each replica leases up to lease-size tokens per database round trip and spends them locally for at most
+ * lease-ttl; unspent tokens are simply lost, which only makes the limit stricter. A rejected client is not
+ * looked up again until its next token is due, so a flood from one address costs one query per refill.
+ * Bucket time comes from each replica's wall clock, which is assumed to be NTP-synchronised.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "rate-limit.mode", havingValue = "distributed")
+public class DistributedRateLimiter {
+
+    private static final Duration REFILL_INTERVAL = Duration.ofMinutes(1);
+    private static final int MAX_CAS_ATTEMPTS = 5;
+
+    private final RateLimitBucketRepository repository;
+    private final int leaseSize;
+    private final long leaseTtlNanos;
+    private final Cache<String, Lease> leases;
+    private final Counter databaseRoundTrips;
+    private final Counter contentionRejects;
+
+    public DistributedRateLimiter(RateLimitBucketRepository repository,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${rate-limit.max-clients:100000}") long maxClients,
+                                  @Value("${rate-limit.distributed.lease-size:3}") int leaseSize,
+                                  @Value("${rate-limit.distributed.lease-ttl-ms:10000}") long leaseTtlMs) {
+        this.repository = repository;
+        this.leaseSize = Math.max(1, leaseSize);
+        this.leaseTtlNanos = Duration.ofMillis(leaseTtlMs).toNanos();
+        this.leases = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(REFILL_INTERVAL)
+                .scheduler(Scheduler.systemScheduler())
+                .build();
+        this.databaseRoundTrips = Counter.builder("rate-limit.distributed.acquire")
+                .description("Token leases fetched from the shared bucket table")
+                .register(meterRegistry);
+        this.contentionRejects = Counter.builder("rate-limit.distributed.contention")
+                .description("Requests rejected after losing every compare-and-set attempt")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes one token from the bucket with this key; false when the shared bucket is empty.
+     */
+    public boolean tryConsume(String bucketKey, int requestsPerMinute) {
+        Lease lease = leases.get(bucketKey, k -> new Lease());
+        synchronized (lease) {
+            long now = System.nanoTime();
+            if (now - lease.blockedUntilNanos < 0) {
+                return false;
+            }
+            if (lease.tokens > 0 && now - lease.expiresAtNanos < 0) {
+                lease.tokens--;
+                return true;
+            }
+            Grant grant = acquire(bucketKey, leaseSize, requestsPerMinute);
+            if (grant.tokens() == 0) {
+                lease.tokens = 0;
+                lease.blockedUntilNanos = now + Duration.ofMillis(grant.retryAfterMs()).toNanos();
+                return false;
+            }
+            lease.tokens = grant.tokens() - 1;
+            lease.expiresAtNanos = now + leaseTtlNanos;
+            return true;
+        }
+    }
+
+    /**
+     * Takes up to max whole tokens from the shared bucket for this key.
+     */
+    Grant acquire(String bucketKey, int max, int requestsPerMinute) {
+        double capacity = requestsPerMinute;
+        double tokensPerMs = requestsPerMinute / (double) REFILL_INTERVAL.toMillis();
+        databaseRoundTrips.increment();
+        for (int attempt = 0; attempt < MAX_CAS_ATTEMPTS; attempt++) {
+            long nowMs = System.currentTimeMillis();
+            Optional<RateLimitBucketEntity> row = repository.findById(bucketKey);
+            if (row.isEmpty()) {
+                int granted = (int) Math.min(max, capacity);
+                try {
+                    repository.insert(bucketKey, capacity - granted, nowMs);
+                    return new Grant(granted, 0);
+                } catch (DataIntegrityViolationException e) {
+                    continue;
+                }
+            }
+            RateLimitBucketEntity bucket = row.get();
+            long elapsedMs = Math.max(0, nowMs - bucket.getRefilledAtMs());
+            double available = Math.min(capacity, bucket.getTokens() + elapsedMs * tokensPerMs);
+            int granted = (int) Math.min(max, Math.floor(available));
+            if (granted == 0) {
+                return new Grant(0, (long) Math.ceil((1 - available) / tokensPerMs));
+            }
+            if (repository.compareAndSet(bucketKey, bucket.getVersion(), available - granted, nowMs) == 1) {
+                return new Grant(granted, 0);
+            }
+        }
+        contentionRejects.increment();
+        log.debug("Rate limit bucket update lost {} compare-and-set races", MAX_CAS_ATTEMPTS);
+        return new Grant(0, 0);
+    }
+
+    /**
+     * Drops rows that have been idle for a full refill interval; their buckets would be full anyway.
+     */
+    @Scheduled(fixedDelayString = "${rate-limit.distributed.cleanup-interval-ms:300000}")
+    public void deleteIdleBuckets() {
+        int deleted = repository.deleteIdleBefore(System.currentTimeMillis() - REFILL_INTERVAL.toMillis());
+        if (deleted > 0) {
+            log.debug("Rate limit cleanup: deleted {} idle buckets", deleted);
+        }
+    }
+
+    record Grant(int tokens, long retryAfterMs) {
+    }
+
+    private static final class Lease {
+        private int tokens;
+        private long expiresAtNanos = System.nanoTime();
+        private long blockedUntilNanos = expiresAtNanos;
+    }
+}
@@ -0,0 +1,261 @@
+package eu.api.security;
+
+import eu.api.config.SchedulingConfig;
+import eu.api.repository.EmergencyTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+/**
+ * Answers "could this emergency token exist?" without the database, so scanners probing
+ * /api/v1/emergency/{random} never reach Postgres. A token must first have the exact shape the server issues
+ * (32 random bytes, base64url without padding), then hit a Bloom filter of all active tokens. The filter has no
+ * false negatives for tokens it has seen; a false positive (about emergency-token.filter.false-positive-rate)
+ * only costs the ordinary lookup.
+ * <p>
+ * Tokens issued on this replica are added as they are created. Tokens issued elsewhere are picked up by a
+ * periodic sync of recently updated rows (with an overlap for clock skew and slow commits), and the whole filter
+ * is rebuilt from scratch daily to shed regenerated tokens; both run on their own scheduler, so long jobs
+ * elsewhere cannot delay the sync. Until the first build finishes every well-formed token passes. Filter
+ * positions use a per-process random seed, so a false positive found on one replica or after a restart cannot
+ * be replayed.
+ */
+@Slf4j
+@Component
+public class EmergencyTokenFilter {
+
+    static final int TOKEN_BYTES = 32;
+    private static final int TOKEN_LENGTH = 43;
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+
+    private final EmergencyTokenRepository repository;
+    private final long expectedTokens;
+    private final double falsePositiveRate;
+    private final Clock clock;
+    private final long seed = new SecureRandom().nextLong();
+    private final Counter malformed;
+    private final Counter unknown;
+
+    private volatile BloomFilter current;
+    private volatile BloomFilter next;
+    private volatile Instant syncedFrom;
+
+    @Autowired
+    public EmergencyTokenFilter(EmergencyTokenRepository repository,
+                                MeterRegistry meterRegistry,
+                                @Value("${emergency-token.filter.expected-tokens:1000000}") long expectedTokens,
+                                @Value("${emergency-token.filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this(repository, meterRegistry, expectedTokens, falsePositiveRate, Clock.systemUTC());
+    }
+
+    EmergencyTokenFilter(EmergencyTokenRepository repository, MeterRegistry meterRegistry, long expectedTokens,
+                         double falsePositiveRate, Clock clock) {
+        this.repository = repository;
+        this.expectedTokens = Math.max(1_000, expectedTokens);
+        this.falsePositiveRate = falsePositiveRate;
+        this.clock = clock;
+        this.malformed = Counter.builder("emergency.token.rejected").tag("reason", "malformed")
+                .description("Emergency lookups rejected without a database query").register(meterRegistry);
+        this.unknown = Counter.builder("emergency.token.rejected").tag("reason", "unknown")
+                .description("Emergency lookups rejected without a database query").register(meterRegistry);
+    }
+
+    /**
+     * False only if the token is certainly not an active emergency token.
+     */
+    public boolean mightBeActive(String token) {
+        byte[] bytes = decode(token);
+        if (bytes == null) {
+            malformed.increment();
+            return false;
+        }
+        BloomFilter filter = current;
+        if (filter != null && !filter.mightContain(bytes, seed)) {
+            unknown.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Call when a token is issued; adding a token that later fails to commit is harmless.
+     */
+    public void add(String token) {
+        byte[] bytes = decode(token);
+        if (bytes == null) {
+            return;
+        }
+        BloomFilter filter = current;
+        if (filter != null) {
+            filter.put(bytes, seed);
+        }
+        BloomFilter building = next;
+        if (building != null) {
+            building.put(bytes, seed);
+        }
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${emergency-token.filter.rebuild-interval-ms:86400000}",
+            scheduler = SchedulingConfig.EMERGENCY_TOKEN_SCHEDULER)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        Instant started = clock.instant();
+        long size = Math.max(expectedTokens, 2 * repository.countByActiveTrue());
+        BloomFilter building = BloomFilter.create(size, falsePositiveRate);
+        next = building;
+        long count = 0;
+        try (Stream<String> tokens = repository.streamActiveTokens()) {
+            for (Iterator<String> it = tokens.iterator(); it.hasNext(); ) {
+                byte[] bytes = decode(it.next());
+                if (bytes != null) {
+                    building.put(bytes, seed);
+                    count++;
+                }
+            }
+        } finally {
+            next = null;
+        }
+        current = building;
+        syncedFrom = started.minus(SYNC_OVERLAP);
+        log.info("Emergency token filter rebuilt with {} tokens ({} bits)", count, building.bitSize());
+    }
+
+    /**
+     * Adds tokens issued or re-activated on other replicas since the previous sync.
+     */
+    @Scheduled(fixedDelayString = "${emergency-token.filter.sync-interval-ms:10000}",
+            scheduler = SchedulingConfig.EMERGENCY_TOKEN_SCHEDULER)
+    @Transactional(readOnly = true)
+    public void sync() {
+        Instant from = syncedFrom;
+        BloomFilter filter = current;
+        if (from == null || filter == null) {
+            return;
+        }
+        Instant started = clock.instant();
+        for (String token : repository.findActiveTokensUpdatedSince(from)) {
+            byte[] bytes = decode(token);
+            if (bytes != null) {
+                filter.put(bytes, seed);
+            }
+        }
+        syncedFrom = started.minus(SYNC_OVERLAP);
+    }
+
+    /**
+     * The raw token bytes, or null when the string is not something this server could have issued.
+     */
+    static byte[] decode(String token) {
+        if (token == null || token.length() != TOKEN_LENGTH) {
+            return null;
+        }
+        for (int i = 0; i < TOKEN_LENGTH; i++) {
+            char c = token.charAt(i);
+            boolean valid = (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_';
+            if (!valid) {
+                return null;
+            }
+        }
+        try {
+            byte[] bytes = Base64.getUrlDecoder().decode(token);
+            return bytes.length == TOKEN_BYTES ? bytes : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Fixed-size Bloom filter over 32-byte tokens. Bits are set with compare-and-set, so puts and lookups may
+     * run concurrently without locking; the k positions come from double hashing two seeded 64-bit mixes.
+     */
+    static final class BloomFilter {
+
+        private final AtomicLongArray words;
+        private final long bits;
+        private final int hashes;
+
+        private BloomFilter(long bits, int hashes) {
+            this.words = new AtomicLongArray((int) ((bits + 63) / 64));
+            this.bits = (long) words.length() * 64;
+            this.hashes = hashes;
+        }
+
+        static BloomFilter create(long expectedInsertions, double falsePositiveRate) {
+            double ln2 = Math.log(2);
+            long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (ln2 * ln2));
+            bits = Math.min(bits, (long) Integer.MAX_VALUE * 64);
+            int hashes = Math.max(1, (int) Math.round((double) bits / expectedInsertions * ln2));
+            return new BloomFilter(bits, hashes);
+        }
+
+        long bitSize() {
+            return bits;
+        }
+
+        void put(byte[] token, long seed) {
+            long h1 = hash1(token, seed);
+            long h2 = hash2(token, seed);
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bits);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long old;
+                do {
+                    old = words.get(word);
+                    if ((old & mask) != 0) {
+                        break;
+                    }
+                } while (!words.compareAndSet(word, old, old | mask));
+            }
+        }
+
+        boolean mightContain(byte[] token, long seed) {
+            long h1 = hash1(token, seed);
+            long h2 = hash2(token, seed);
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bits);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static long hash1(byte[] token, long seed) {
+            ByteBuffer buffer = ByteBuffer.wrap(token).order(ByteOrder.LITTLE_ENDIAN);
+            return mix(mix(buffer.getLong(0) ^ seed) ^ buffer.getLong(16));
+        }
+
+        private static long hash2(byte[] token, long seed) {
+            ByteBuffer buffer = ByteBuffer.wrap(token).order(ByteOrder.LITTLE_ENDIAN);
+            return mix(mix(buffer.getLong(8) + seed) ^ buffer.getLong(24)) | 1L;
+        }
+
+        /** MurmurHash3 64-bit finaliser. */
+        private static long mix(long h) {
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
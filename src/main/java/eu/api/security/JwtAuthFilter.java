@@ -23,7 +23,8 @@ import java.util.Optional;
 import java.util.UUID;
 
 /**
- * Extracts Bearer token from Authorization header, verifies via JwtService,
+ * Extracts Bearer token from Authorization header, verifies via JwtService (through
+ * {@link VerifiedTokenCache}, so repeated tokens are not re-verified),
  * and sets SecurityContext with AuthPrincipal for user context propagation.
  */
 @Slf4j
@@ -35,7 +36,7 @@ public class JwtAuthFilter extends OncePerRequestFilter {
     private static final String BEARER_PREFIX = "Bearer ";
     private static final String TRACE_ID_ATTRIBUTE = "traceId";
 
-    private final JwtService jwtService;
+    private final VerifiedTokenCache verifiedTokenCache;
     private final ObjectMapper objectMapper;
 
     @Override
@@ -53,7 +54,7 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             return;
         }
         try {
-            UUID userId = jwtService.verifyAccessToken(token);
+            UUID userId = verifiedTokenCache.verify(token).userId();
             AuthPrincipal principal = AuthPrincipal.of(userId);
             UsernamePasswordAuthenticationToken authentication =
                     new UsernamePasswordAuthenticationToken(principal, null, Collections.emptyList());
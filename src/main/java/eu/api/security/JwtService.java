@@ -9,9 +9,23 @@ public interface JwtService {
      */
     String createAccessToken(UUID userId, String email);
 
+    /**
+     * Verifies the access token and returns the user id and expiry.
+     * @throws io.jsonwebtoken.JwtException if token is invalid or expired
+     */
+    VerifiedToken verify(String token);
+
     /**
      * Verifies the access token and returns the user id.
      * @throws io.jsonwebtoken.JwtException if token is invalid or expired
      */
-    UUID verifyAccessToken(String token);
+    default UUID verifyAccessToken(String token) {
+        return verify(token).userId();
+    }
+
+    /**
+     * Re-reads the secret file (jwt.secret-file) and, if its content changed, signs with it from now on while
+     * still accepting tokens signed with the secret it replaces. Returns whether the secret was rotated.
+     */
+    boolean reloadSecret();
 }
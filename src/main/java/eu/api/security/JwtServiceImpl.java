@@ -3,17 +3,37 @@ package eu.api.security;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Header;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.ProtectedHeader;
+import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.Key;
+import java.security.PublicKey;
 import java.util.Date;
 import java.util.UUID;
 
+/**
+ * Access tokens, HS256 by default or ES256 with a kid header when jwt.algorithm is ES256 (see
+ * {@link JwtSigningKeys}; other services then verify against /.well-known/jwks.json instead of sharing the
+ * secret). The HMAC key and the (thread-safe, immutable) parsers are built once and swapped atomically by
+ * {@link #rotateSecret(String)}, which {@link #reloadSecret()} calls when the file named by JWT_SECRET_FILE
+ * changes (e.g. a mounted Kubernetes secret); after a rotation, tokens signed with the previous secret stay
+ * valid until they expire. JWT_PREVIOUS_SECRET does the same across a restart with a new JWT_SECRET. In ES256
+ * mode, HMAC tokens issued before the switch are accepted until JWT_ACCEPT_HMAC is turned off.
+ */
 @Slf4j
 @Service
 public class JwtServiceImpl implements JwtService {
@@ -21,46 +41,68 @@ public class JwtServiceImpl implements JwtService {
     private static final String CLAIM_USER_ID = "userId";
     private static final String CLAIM_EMAIL = "email";
 
-    @Value("${jwt.secret}")
-    private String secret;
+    private final JwtSigningKeys asymmetricKeys;
+    private final String issuer;
+    private final int accessTtlMinutes;
+    private final boolean acceptHmac;
+    private final Path secretFile;
+    private volatile SigningKeys keys;
+    private String currentSecret;
 
-    @Value("${jwt.issuer}")
-    private String issuer;
-
-    @Value("${jwt.access-ttl-minutes:15}")
-    private int accessTtlMinutes;
+    public JwtServiceImpl(JwtSigningKeys asymmetricKeys,
+                          @Value("${jwt.secret}") String secret,
+                          @Value("${jwt.secret-file:}") String secretFile,
+                          @Value("${jwt.previous-secret:}") String previousSecret,
+                          @Value("${jwt.issuer}") String issuer,
+                          @Value("${jwt.access-ttl-minutes:15}") int accessTtlMinutes,
+                          @Value("${jwt.accept-hmac:true}") boolean acceptHmac) {
+        this.asymmetricKeys = asymmetricKeys;
+        this.issuer = issuer;
+        this.accessTtlMinutes = accessTtlMinutes;
+        this.acceptHmac = acceptHmac || !asymmetricKeys.isEnabled();
+        this.secretFile = secretFile == null || secretFile.isBlank() ? null : Path.of(secretFile);
+        if (this.secretFile != null) {
+            try {
+                secret = readSecretFile();
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot read JWT_SECRET_FILE " + secretFile, e);
+            }
+        }
+        JwtParser previousParser = previousSecret == null || previousSecret.isBlank()
+                ? null
+                : build(previousSecret, null).parser();
+        this.keys = build(secret, previousParser);
+        this.currentSecret = secret;
+    }
 
     @Override
     public String createAccessToken(UUID userId, String email) {
-        SecretKey key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
         long now = System.currentTimeMillis();
         Date expiry = new Date(now + accessTtlMinutes * 60_000L);
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
                 .subject(userId.toString())
                 .claim(CLAIM_USER_ID, userId.toString())
                 .claim(CLAIM_EMAIL, email != null ? email : "")
                 .issuer(issuer)
                 .issuedAt(new Date(now))
-                .expiration(expiry)
-                .signWith(key)
-                .compact();
+                .expiration(expiry);
+        if (asymmetricKeys.isEnabled()) {
+            return builder.header().keyId(asymmetricKeys.currentKeyId()).and()
+                    .signWith(asymmetricKeys.signingKey(), Jwts.SIG.ES256)
+                    .compact();
+        }
+        return builder.signWith(keys.key()).compact();
     }
 
     @Override
-    public UUID verifyAccessToken(String token) {
+    public VerifiedToken verify(String token) {
         try {
-            SecretKey key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
-            Claims claims = Jwts.parser()
-                    .verifyWith(key)
-                    .requireIssuer(issuer)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
+            Claims claims = parse(keys, token);
             String userId = claims.get(CLAIM_USER_ID, String.class);
             if (userId == null) {
                 userId = claims.getSubject();
             }
-            return UUID.fromString(userId);
+            return new VerifiedToken(UUID.fromString(userId), claims.getExpiration().toInstant());
         } catch (ExpiredJwtException e) {
             log.debug("Access token expired");
             throw e;
@@ -69,4 +111,78 @@ public class JwtServiceImpl implements JwtService {
             throw e;
         }
     }
+
+    /**
+     * Switches signing to a new secret without a restart. The secret in use until now keeps verifying
+     * tokens it signed; the one before it is dropped.
+     */
+    public synchronized void rotateSecret(String newSecret) {
+        keys = build(newSecret, keys.parser());
+        currentSecret = newSecret;
+        log.info("JWT signing secret rotated");
+    }
+
+    @Override
+    public synchronized boolean reloadSecret() {
+        if (secretFile == null) {
+            return false;
+        }
+        String secret;
+        try {
+            secret = readSecretFile();
+        } catch (IOException e) {
+            log.warn("Could not re-read JWT_SECRET_FILE, keeping the current secret: {}", e.getMessage());
+            return false;
+        }
+        if (secret.isEmpty() || secret.equals(currentSecret)) {
+            return false;
+        }
+        rotateSecret(secret);
+        return true;
+    }
+
+    private String readSecretFile() throws IOException {
+        return Files.readString(secretFile, StandardCharsets.UTF_8).trim();
+    }
+
+    private static Claims parse(SigningKeys keys, String token) {
+        try {
+            return keys.parser().parseSignedClaims(token).getPayload();
+        } catch (SignatureException e) {
+            if (keys.previousParser() == null) {
+                throw e;
+            }
+            return keys.previousParser().parseSignedClaims(token).getPayload();
+        }
+    }
+
+    private SigningKeys build(String secret, JwtParser previousParser) {
+        SecretKey key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        JwtParser parser = Jwts.parser()
+                .keyLocator(header -> locate(header, key))
+                .requireIssuer(issuer)
+                .build();
+        return new SigningKeys(key, parser, previousParser);
+    }
+
+    /**
+     * Only ES256 tokens carry a kid; the parser still checks that the key type matches the alg header.
+     */
+    private Key locate(Header header, SecretKey hmacKey) {
+        String keyId = header instanceof ProtectedHeader protectedHeader ? protectedHeader.getKeyId() : null;
+        if (keyId != null) {
+            PublicKey publicKey = asymmetricKeys.publicKey(keyId);
+            if (publicKey == null) {
+                throw new UnsupportedJwtException("Unknown signing key id");
+            }
+            return publicKey;
+        }
+        if (!acceptHmac) {
+            throw new UnsupportedJwtException("HMAC-signed access tokens are no longer accepted");
+        }
+        return hmacKey;
+    }
+
+    private record SigningKeys(SecretKey key, JwtParser parser, JwtParser previousParser) {
+    }
 }
@@ -0,0 +1,190 @@
+package eu.api.security;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ES256 key material for access tokens when jwt.algorithm is ES256. The current key pair signs (its id goes
+ * into the kid header); the other public keys are only published and accepted, which is how a rollover
+ * overlaps: publish the next key in JWT_VERIFICATION_KEYS before switching to it, and keep the previous one
+ * there until its tokens have expired. The JWKS document is built once, since the keys only change on restart.
+ * Keys come from env: JWT_SIGNING_KEY (PKCS#8) + JWT_SIGNING_PUBLIC_KEY (X.509) + JWT_SIGNING_KEY_ID, and
+ * JWT_VERIFICATION_KEYS ("kid:base64,..."), all base64 DER.
+ */
+@Slf4j
+@Component
+public class JwtSigningKeys {
+
+    public static final String ES256 = "ES256";
+    private static final String HS256 = "HS256";
+    private static final int P256_COORDINATE_BYTES = 32;
+
+    private final boolean enabled;
+    private final String currentKeyId;
+    private final PrivateKey signingKey;
+    private final Map<String, PublicKey> publicKeys = new LinkedHashMap<>();
+    private final byte[] jwks;
+
+    public JwtSigningKeys(@Value("${jwt.algorithm:HS256}") String algorithm,
+                          @Value("${jwt.signing-key-id:1}") String signingKeyId,
+                          @Value("${jwt.signing-key:}") String signingKey,
+                          @Value("${jwt.signing-public-key:}") String signingPublicKey,
+                          @Value("${jwt.verification-keys:}") String verificationKeys) {
+        if (HS256.equalsIgnoreCase(algorithm)) {
+            this.enabled = false;
+            this.currentKeyId = null;
+            this.signingKey = null;
+        } else if (ES256.equalsIgnoreCase(algorithm)) {
+            this.enabled = true;
+            this.currentKeyId = signingKeyId;
+            KeyPair current = parseCurrent(signingKey, signingPublicKey);
+            this.signingKey = current.getPrivate();
+            publicKeys.put(signingKeyId, current.getPublic());
+            if (verificationKeys != null && !verificationKeys.isBlank()) {
+                for (String entry : verificationKeys.trim().split("\\s*,\\s*")) {
+                    int separator = entry.indexOf(':');
+                    if (separator <= 0) {
+                        throw new IllegalStateException("JWT_VERIFICATION_KEYS entries must be kid:base64");
+                    }
+                    publicKeys.putIfAbsent(entry.substring(0, separator), toPublicKey(entry.substring(separator + 1)));
+                }
+            }
+        } else {
+            throw new IllegalStateException("jwt.algorithm must be HS256 or ES256, was " + algorithm);
+        }
+        this.jwks = buildJwks();
+    }
+
+    /**
+     * Disabled instance (HS256 only), for code that builds JwtServiceImpl by hand.
+     */
+    public static JwtSigningKeys hmacOnly() {
+        return new JwtSigningKeys(HS256, null, null, null, null);
+    }
+
+    /**
+     * True when access tokens are signed with ES256.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String currentKeyId() {
+        return currentKeyId;
+    }
+
+    public PrivateKey signingKey() {
+        return signingKey;
+    }
+
+    /**
+     * Returns the published key with this id, or null when unknown.
+     */
+    public PublicKey publicKey(String keyId) {
+        return publicKeys.get(keyId);
+    }
+
+    /**
+     * Ids of every published key, current one first.
+     */
+    public Set<String> keyIds() {
+        return Collections.unmodifiableSet(publicKeys.keySet());
+    }
+
+    /**
+     * RFC 7517 JWK Set with every published key; {"keys":[]} when disabled. Callers must not modify the array.
+     */
+    public byte[] jwks() {
+        return jwks;
+    }
+
+    private KeyPair parseCurrent(String privateBase64, String publicBase64) {
+        if (privateBase64 == null || privateBase64.isBlank()) {
+            log.warn("JWT_SIGNING_KEY not set; using an ephemeral ES256 key. Tokens will not survive a restart.");
+            try {
+                KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+                generator.initialize(new ECGenParameterSpec("secp256r1"));
+                return generator.generateKeyPair();
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        if (publicBase64 == null || publicBase64.isBlank()) {
+            throw new IllegalStateException("JWT_SIGNING_PUBLIC_KEY must be set together with JWT_SIGNING_KEY");
+        }
+        try {
+            PrivateKey privateKey = KeyFactory.getInstance("EC")
+                    .generatePrivate(new PKCS8EncodedKeySpec(Base64.getDecoder().decode(privateBase64.trim())));
+            return new KeyPair(toPublicKey(publicBase64), privateKey);
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalStateException("JWT_SIGNING_KEY must be a base64 PKCS#8 EC P-256 private key", e);
+        }
+    }
+
+    private static PublicKey toPublicKey(String base64) {
+        try {
+            PublicKey key = KeyFactory.getInstance("EC")
+                    .generatePublic(new X509EncodedKeySpec(Base64.getDecoder().decode(base64.trim())));
+            if (((ECPublicKey) key).getParams().getCurve().getField().getFieldSize() != 256) {
+                throw new IllegalStateException("JWT public keys must be on curve P-256");
+            }
+            return key;
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalStateException("JWT public keys must be base64 X.509 EC P-256 keys", e);
+        }
+    }
+
+    private byte[] buildJwks() {
+        List<Map<String, String>> keys = new ArrayList<>(publicKeys.size());
+        publicKeys.forEach((kid, key) -> {
+            ECPublicKey ec = (ECPublicKey) key;
+            Map<String, String> jwk = new LinkedHashMap<>();
+            jwk.put("kty", "EC");
+            jwk.put("crv", "P-256");
+            jwk.put("kid", kid);
+            jwk.put("use", "sig");
+            jwk.put("alg", ES256);
+            jwk.put("x", coordinate(ec.getW().getAffineX()));
+            jwk.put("y", coordinate(ec.getW().getAffineY()));
+            keys.add(jwk);
+        });
+        try {
+            return new ObjectMapper().writeValueAsBytes(Map.of("keys", keys));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Fixed-length unsigned big-endian, base64url without padding (RFC 7518 section 6.2.1.2).
+     */
+    private static String coordinate(BigInteger value) {
+        byte[] raw = value.toByteArray();
+        byte[] fixed = new byte[P256_COORDINATE_BYTES];
+        int length = Math.min(raw.length, P256_COORDINATE_BYTES);
+        System.arraycopy(raw, raw.length - length, fixed, P256_COORDINATE_BYTES - length, length);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(fixed);
+    }
+}
@@ -0,0 +1,103 @@
+package eu.api.security;
+
+import eu.api.offlinecard.OfflineCard;
+import eu.api.offlinecard.OfflineCardVerifier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Signs offline emergency cards ({@link OfflineCard}) with an ES256 key of their own, separate from the access
+ * token key: printed cards live for weeks, so their key rotates on a different schedule. Rollover works as for
+ * JWT keys: keep the previous public key in OFFLINE_CARD_VERIFICATION_KEYS until the last card it signed has
+ * expired. The key set is published as a JWK Set for scanners.
+ */
+@Slf4j
+@Component
+public class OfflineCardSigner {
+
+    private final JwtSigningKeys keys;
+    private final Duration ttl;
+    private final Clock clock;
+    private final OfflineCardVerifier verifier;
+
+    @Autowired
+    public OfflineCardSigner(@Value("${emergency-card.offline.key-id:card-1}") String keyId,
+                             @Value("${emergency-card.offline.signing-key:}") String signingKey,
+                             @Value("${emergency-card.offline.signing-public-key:}") String signingPublicKey,
+                             @Value("${emergency-card.offline.verification-keys:}") String verificationKeys,
+                             @Value("${emergency-card.offline.ttl-days:30}") long ttlDays) {
+        this(keys(keyId, signingKey, signingPublicKey, verificationKeys), Duration.ofDays(ttlDays), Clock.systemUTC());
+    }
+
+    OfflineCardSigner(JwtSigningKeys keys, Duration ttl, Clock clock) {
+        this.keys = keys;
+        this.ttl = ttl;
+        this.clock = clock;
+        this.verifier = new OfflineCardVerifier(publishedKeys(keys), clock);
+    }
+
+    public SignedCard sign(byte[] cardJson) {
+        Instant issuedAt = clock.instant().truncatedTo(ChronoUnit.SECONDS);
+        Instant expiresAt = issuedAt.plus(ttl);
+        String card = OfflineCard.encode(keys.currentKeyId(), issuedAt, expiresAt, cardJson, keys.signingKey());
+        return new SignedCard(card, keys.currentKeyId(), issuedAt, expiresAt);
+    }
+
+    public OfflineCardVerifier verifier() {
+        return verifier;
+    }
+
+    /**
+     * JWK Set of every key cards may be signed with. Callers must not modify the array.
+     */
+    public byte[] jwks() {
+        return keys.jwks();
+    }
+
+    private static Map<String, PublicKey> publishedKeys(JwtSigningKeys keys) {
+        Map<String, PublicKey> published = new LinkedHashMap<>();
+        for (String kid : keys.keyIds()) {
+            published.put(kid, keys.publicKey(kid));
+        }
+        return published;
+    }
+
+    private static JwtSigningKeys keys(String keyId, String signingKey, String signingPublicKey, String verificationKeys) {
+        if (signingKey == null || signingKey.isBlank()) {
+            log.warn("OFFLINE_CARD_SIGNING_KEY not set; using an ephemeral key. Issued offline cards will not verify after a restart.");
+            KeyPair pair = generate();
+            Base64.Encoder base64 = Base64.getEncoder();
+            signingKey = base64.encodeToString(pair.getPrivate().getEncoded());
+            signingPublicKey = base64.encodeToString(pair.getPublic().getEncoded());
+        }
+        return new JwtSigningKeys(JwtSigningKeys.ES256, keyId, signingKey, signingPublicKey, verificationKeys);
+    }
+
+    private static KeyPair generate() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(new ECGenParameterSpec("secp256r1"));
+            return generator.generateKeyPair();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public record SignedCard(String card, String keyId, Instant issuedAt, Instant expiresAt) {
+    }
+}
@@ -1,18 +1,114 @@
 package eu.api.security;
 
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import eu.api.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Password hashing with the encoder from {@link eu.api.config.PasswordEncoderConfig}, on a dedicated pool sized to the CPU, so a login/register burst cannot occupy every request thread.
+ * At most password-hashing.queue-capacity calls wait for a worker; beyond that, or when a call has waited
+ * longer than password-hashing.max-wait-ms, the request fails fast with 503 instead of piling up.
+ * Metrics: password.hashing.duration{operation} (time on the worker), password.hashing.queue.wait,
+ * password.hashing.queue.depth and password.hashing.rejected.
+ */
+@Slf4j
 @Component
 public class PasswordHasher {
 
-    private final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
+    private static final String BUSY_MESSAGE = "Too many sign-in requests; try again shortly";
+
+    private final PasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+    private final long maxWaitMillis;
+    private final MeterRegistry meterRegistry;
+    private final Timer queueWait;
+
+    public PasswordHasher(PasswordEncoder encoder,
+                          MeterRegistry meterRegistry,
+                          @Value("${password-hashing.threads:0}") int threads,
+                          @Value("${password-hashing.queue-capacity:64}") int queueCapacity,
+                          @Value("${password-hashing.max-wait-ms:5000}") long maxWaitMillis) {
+        this.encoder = encoder;
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.maxWaitMillis = maxWaitMillis;
+        this.meterRegistry = meterRegistry;
+        this.queueWait = meterRegistry.timer("password.hashing.queue.wait");
+        meterRegistry.gauge("password.hashing.queue.depth", executor, e -> e.getQueue().size());
+    }
 
     public String hash(String rawPassword) {
-        return encoder.encode(rawPassword);
+        return run("hash", () -> encoder.encode(rawPassword));
     }
 
     public boolean matches(String rawPassword, String encodedPassword) {
-        return encoder.matches(rawPassword, encodedPassword);
+        return run("matches", () -> encoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * True when the stored hash uses another algorithm or weaker parameters than new hashes would.
+     * Only parses the hash, so it runs on the caller's thread.
+     */
+    public boolean needsRehash(String encodedPassword) {
+        return encoder.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T run(String operation, Callable<T> work) {
+        Timer duration = meterRegistry.timer("password.hashing.duration", "operation", operation);
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                queueWait.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                return duration.recordCallable(work);
+            });
+        } catch (RejectedExecutionException e) {
+            meterRegistry.counter("password.hashing.rejected", "reason", "queue_full").increment();
+            throw new ServiceUnavailableException(BUSY_MESSAGE);
+        }
+        try {
+            return future.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            meterRegistry.counter("password.hashing.rejected", "reason", "timeout").increment();
+            throw new ServiceUnavailableException(BUSY_MESSAGE);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException(BUSY_MESSAGE);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
     }
 }
@@ -0,0 +1,243 @@
+package eu.api.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import com.github.benmanes.caffeine.cache.Ticker;
+import eu.api.dto.response.ErrorResponse;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Applies the per-route policies from {@link RateLimitProperties}. Path patterns are parsed once at startup;
+ * per request the path is split once and matched against the compiled patterns, and requests no policy covers
+ * pass straight through. Each matching policy charges its own bucket, keyed by client IP, user id or path token.
+ * Returns 429 Too Many Requests with JSON body when a limit is exceeded.
+ * <p>
+ * Buckets live in a Caffeine cache capped at rate-limit.max-clients, so a flood of distinct (or spoofed
+ * X-Forwarded-For) keys evicts the least valuable entries instead of growing the heap. A bucket idle for one
+ * refill interval is full again, so dropping it then loses nothing. Expired entries are removed by Caffeine's
+ * scheduler on a pool thread, a few at a time, not by sweeping the map on the request path.
+ * <p>
+ * With rate-limit.mode=distributed the limits are enforced across replicas by {@link DistributedRateLimiter}
+ * instead, and the local buckets are unused.
+ */
+@Slf4j
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String TRACE_ID_ATTRIBUTE = "traceId";
+    private static final String TOKEN_VARIABLE = "token";
+    private static final int MAX_IP_LENGTH = 45;
+    private static final Duration REFILL_INTERVAL = Duration.ofMinutes(1);
+
+    private final ObjectMapper objectMapper;
+    private final List<CompiledPolicy> policies;
+    private final Cache<String, Bucket> buckets;
+    private final DistributedRateLimiter distributedLimiter;
+
+    @Autowired
+    public RateLimitFilter(ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry,
+                           RateLimitProperties properties,
+                           ObjectProvider<DistributedRateLimiter> distributedLimiter,
+                           @Value("${rate-limit.max-clients:100000}") long maxClients) {
+        this(objectMapper, meterRegistry, properties.getPolicies(), maxClients, Ticker.systemTicker(),
+                ForkJoinPool.commonPool(), distributedLimiter.getIfAvailable());
+        CaffeineCacheMetrics.monitor(meterRegistry, buckets, "rate-limit.buckets");
+    }
+
+    RateLimitFilter(ObjectMapper objectMapper, MeterRegistry meterRegistry, List<RateLimitProperties.Policy> policies,
+                    long maxClients, Ticker ticker, Executor maintenanceExecutor,
+                    DistributedRateLimiter distributedLimiter) {
+        this.objectMapper = objectMapper;
+        this.distributedLimiter = distributedLimiter;
+        this.policies = compile(policies, meterRegistry);
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(REFILL_INTERVAL)
+                .ticker(ticker)
+                .executor(maintenanceExecutor)
+                .scheduler(Scheduler.systemScheduler())
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        for (Match match : matching(request)) {
+            CompiledPolicy policy = match.policy();
+            String bucketKey = policy.name() + ":" + resolveKey(policy.key(), request, match.variables());
+            if (!tryConsume(bucketKey, policy.requestsPerMinute())) {
+                policy.rejected().increment();
+                log.warn("Rate limit exceeded for policy {}", policy.name());
+                writeRateLimitResponse(request, response);
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private List<Match> matching(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        if (uri == null || policies.isEmpty()) {
+            return List.of();
+        }
+        PathContainer path = PathContainer.parsePath(uri);
+        List<Match> matches = null;
+        for (CompiledPolicy policy : policies) {
+            PathPattern.PathMatchInfo info = policy.pattern().matchAndExtract(path);
+            if (info != null) {
+                if (matches == null) {
+                    matches = new ArrayList<>(2);
+                }
+                matches.add(new Match(policy, info.getUriVariables()));
+            }
+        }
+        return matches == null ? List.of() : matches;
+    }
+
+    private boolean tryConsume(String bucketKey, int requestsPerMinute) {
+        if (distributedLimiter != null) {
+            return distributedLimiter.tryConsume(bucketKey, requestsPerMinute);
+        }
+        return buckets.get(bucketKey, k -> createBucket(requestsPerMinute)).tryConsume(1);
+    }
+
+    private static Bucket createBucket(int requestsPerMinute) {
+        Bandwidth limit = Bandwidth.builder()
+                .capacity(requestsPerMinute)
+                .refillIntervally(requestsPerMinute, REFILL_INTERVAL)
+                .build();
+        return Bucket.builder()
+                .addLimit(limit)
+                .build();
+    }
+
+    /**
+     * Approximate number of client buckets currently held.
+     */
+    long trackedClients() {
+        buckets.cleanUp();
+        return buckets.estimatedSize();
+    }
+
+    private String resolveKey(RateLimitProperties.KeyType type, HttpServletRequest request,
+                              Map<String, String> variables) {
+        return switch (type) {
+            case IP -> resolveClientIp(request);
+            case USER -> {
+                Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+                yield authentication != null && authentication.getPrincipal() instanceof AuthPrincipal principal
+                        ? principal.getUserId().toString()
+                        : resolveClientIp(request);
+            }
+            case TOKEN -> digest(variables.getOrDefault(TOKEN_VARIABLE, ""));
+        };
+    }
+
+    /**
+     * Tokens are secrets and client-controlled in length, so buckets are keyed by their SHA-256 instead.
+     */
+    private static String digest(String value) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private String resolveClientIp(HttpServletRequest request) {
+        String forwarded = request.getHeader("X-Forwarded-For");
+        if (forwarded != null && !forwarded.isBlank()) {
+            String ip = forwarded.split(",")[0].trim();
+            return ip.length() <= MAX_IP_LENGTH ? ip : digest(ip);
+        }
+        return request.getRemoteAddr() != null ? request.getRemoteAddr() : "unknown";
+    }
+
+    private void writeRateLimitResponse(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String traceId = request.getAttribute(TRACE_ID_ATTRIBUTE) != null
+                ? request.getAttribute(TRACE_ID_ATTRIBUTE).toString()
+                : null;
+        ErrorResponse body = ErrorResponse.builder()
+                .code("RATE_LIMIT_EXCEEDED")
+                .message("Too many requests. Try again later.")
+                .traceId(traceId)
+                .build();
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    private static List<CompiledPolicy> compile(List<RateLimitProperties.Policy> policies, MeterRegistry meterRegistry) {
+        PathPatternParser parser = new PathPatternParser();
+        Set<String> names = new HashSet<>();
+        List<CompiledPolicy> compiled = new ArrayList<>(policies.size());
+        for (RateLimitProperties.Policy policy : policies) {
+            if (policy.getName() == null || policy.getPath() == null || !names.add(policy.getName())) {
+                throw new IllegalStateException("rate-limit.policies entries need a unique name and a path");
+            }
+            if (policy.getRequestsPerMinute() <= 0) {
+                throw new IllegalStateException("rate-limit policy " + policy.getName() + " needs requests-per-minute > 0");
+            }
+            PathPattern pattern = parser.parse(policy.getPath());
+            if (policy.getKey() == RateLimitProperties.KeyType.TOKEN && !policy.getPath().contains("{" + TOKEN_VARIABLE + "}")) {
+                throw new IllegalStateException("rate-limit policy " + policy.getName() + " keys by token but its path has no {token}");
+            }
+            Counter rejected = Counter.builder("rate-limit.rejected")
+                    .tag("policy", policy.getName())
+                    .description("Requests answered with 429")
+                    .register(meterRegistry);
+            compiled.add(new CompiledPolicy(policy.getName(), pattern, policy.getKey(), policy.getRequestsPerMinute(), rejected));
+        }
+        return List.copyOf(compiled);
+    }
+
+    private record CompiledPolicy(String name, PathPattern pattern, RateLimitProperties.KeyType key,
+                                  int requestsPerMinute, Counter rejected) {
+    }
+
+    private record Match(CompiledPolicy policy, Map<String, String> variables) {
+    }
+}
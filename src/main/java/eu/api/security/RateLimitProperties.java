@@ -0,0 +1,46 @@
+package eu.api.security;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rate-limit policies bound from rate-limit.policies. Every policy whose path pattern matches a request
+ * charges its own budget; the request is rejected as soon as one of them is exhausted.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    private List<Policy> policies = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Policy {
+
+        /** Name used in bucket keys and metrics; must be unique. */
+        private String name;
+
+        /** Spring PathPattern, e.g. /api/v1/emergency/{token}. */
+        private String path;
+
+        private KeyType key = KeyType.IP;
+
+        private int requestsPerMinute = 60;
+    }
+
+    public enum KeyType {
+        /** Client IP (first X-Forwarded-For entry, else the remote address). */
+        IP,
+        /** Authenticated user id; falls back to the IP for anonymous requests. */
+        USER,
+        /** The {token} variable of the path pattern. */
+        TOKEN
+    }
+}
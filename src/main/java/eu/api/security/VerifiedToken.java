@@ -0,0 +1,10 @@
+package eu.api.security;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Result of verifying an access token: the user it was issued to and its exp claim.
+ */
+public record VerifiedToken(UUID userId, Instant expiresAt) {
+}
@@ -0,0 +1,106 @@
+package eu.api.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Remembers access tokens that already passed {@link JwtService#verify(String)}, so a client re-sending the
+ * same token skips JSON parsing and the signature check. Keyed by the token's SHA-256 (the raw token is not
+ * kept); each entry expires at the token's exp claim and is re-checked against the wall clock on every hit.
+ * Lookups never block: concurrent misses for one token just verify it twice. Invalid tokens are not cached.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private static final MessageDigest SHA_256_PROTOTYPE = sha256();
+
+    private final JwtService jwtService;
+    private final Clock clock;
+    private final Cache<ByteBuffer, VerifiedToken> cache;
+
+    @Autowired
+    public VerifiedTokenCache(JwtService jwtService,
+                              MeterRegistry meterRegistry,
+                              @Value("${jwt.verified-cache.max-size:50000}") long maxSize) {
+        this(jwtService, maxSize, Clock.systemUTC(), Ticker.systemTicker());
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.verified-tokens");
+    }
+
+    VerifiedTokenCache(JwtService jwtService, long maxSize, Clock clock, Ticker ticker) {
+        this.jwtService = jwtService;
+        this.clock = clock;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilTokenExpiry(clock))
+                .ticker(ticker)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Same contract as {@link JwtService#verify(String)}.
+     * @throws io.jsonwebtoken.JwtException if token is invalid or expired
+     */
+    public VerifiedToken verify(String token) {
+        ByteBuffer key = digest(token);
+        VerifiedToken cached = cache.getIfPresent(key);
+        if (cached != null && cached.expiresAt().isAfter(clock.instant())) {
+            return cached;
+        }
+        VerifiedToken verified = jwtService.verify(token);
+        cache.put(key, verified);
+        return verified;
+    }
+
+    private static ByteBuffer digest(String token) {
+        try {
+            MessageDigest sha256 = (MessageDigest) SHA_256_PROTOTYPE.clone();
+            return ByteBuffer.wrap(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (CloneNotSupportedException e) {
+            return ByteBuffer.wrap(sha256().digest(token.getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Entry lifetime is the time left until the token's exp; already-expired tokens are evicted immediately.
+     */
+    private record UntilTokenExpiry(Clock clock) implements Expiry<ByteBuffer, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(ByteBuffer key, VerifiedToken value, long currentTime) {
+            return Math.max(0, Duration.between(clock.instant(), value.expiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -6,11 +6,17 @@ import eu.api.dto.response.AddressResponse;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface AddressService {
 
     List<AddressResponse> list(UUID userId);
 
+    /**
+     * Same items as {@link #list}, handed to sink one at a time without holding them all in memory.
+     */
+    void stream(UUID userId, Consumer<? super AddressResponse> sink);
+
     AddressResponse create(UUID userId, CreateAddressRequest request);
 
     AddressResponse update(UUID userId, UUID addressId, UpdateAddressRequest request);
@@ -6,11 +6,17 @@ import eu.api.dto.response.AllergyListItemResponse;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface AllergyService {
 
     List<AllergyListItemResponse> list(UUID userId, boolean includeNotes);
 
+    /**
+     * Same items as {@link #list}, handed to sink one at a time without holding them all in memory.
+     */
+    void stream(UUID userId, boolean includeNotes, Consumer<? super AllergyListItemResponse> sink);
+
     AllergyListItemResponse create(UUID userId, CreateAllergyRequest request);
 
     AllergyListItemResponse update(UUID userId, UUID allergyId, UpdateAllergyRequest request);
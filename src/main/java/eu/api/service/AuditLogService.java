@@ -0,0 +1,16 @@
+package eu.api.service;
+
+import eu.api.dto.response.AuditLogResponse;
+
+import java.util.UUID;
+
+/**
+ * The user's own audit trail, newest first.
+ */
+public interface AuditLogService {
+
+    /**
+     * resourceType, action and cursor are optional; cursor is the nextCursor of the previous page.
+     */
+    AuditLogResponse list(UUID userId, String resourceType, String action, String cursor, int limit);
+}
@@ -0,0 +1,21 @@
+package eu.api.service;
+
+import java.time.LocalDate;
+
+/**
+ * Daily rollup of audit events into audit_event_daily_counts and removal of expired raw events.
+ */
+public interface AuditRetentionService {
+
+    /**
+     * Rolls up every complete day not yet counted, up to and including the day before today (UTC).
+     * Returns the last day counted, or null when there was nothing to count.
+     */
+    LocalDate rollUp();
+
+    /**
+     * Makes sure upcoming partitions exist and drops the ones older than the retention window, but only
+     * once their days have been rolled up.
+     */
+    void maintainPartitions();
+}
@@ -11,5 +11,9 @@ import java.util.UUID;
  */
 public interface AuditService {
 
+    /**
+     * Returns without touching the database; the event is written shortly after in a batch, or dropped
+     * (and counted) if the buffer stays full.
+     */
     void record(UUID userId, AuditResourceType resourceType, AuditAction action, UUID resourceId);
 }
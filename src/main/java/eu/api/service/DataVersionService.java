@@ -0,0 +1,22 @@
+package eu.api.service;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Per-user counter of changes to the user's own data, used for ETags on the read endpoints.
+ */
+public interface DataVersionService {
+
+    /**
+     * Must be called inside the writing transaction; holds the user's row lock until it ends.
+     */
+    void increment(UUID userId);
+
+    Optional<Long> current(UUID userId);
+
+    /**
+     * Version of the user behind an active emergency token; empty for unknown or inactive tokens.
+     */
+    Optional<Long> currentForEmergencyToken(String token);
+}
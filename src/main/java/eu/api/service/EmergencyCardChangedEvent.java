@@ -0,0 +1,9 @@
+package eu.api.service;
+
+import java.util.UUID;
+
+/**
+ * Published inside a transaction that changed data shown on the user's public emergency card.
+ */
+public record EmergencyCardChangedEvent(UUID userId) {
+}
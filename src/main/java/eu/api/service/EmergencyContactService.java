@@ -6,11 +6,17 @@ import eu.api.dto.response.EmergencyContactResponse;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface EmergencyContactService {
 
     List<EmergencyContactResponse> list(UUID userId);
 
+    /**
+     * Same items as {@link #list}, handed to sink one at a time without holding them all in memory.
+     */
+    void stream(UUID userId, Consumer<? super EmergencyContactResponse> sink);
+
     EmergencyContactResponse create(UUID userId, CreateEmergencyContactRequest request);
 
     EmergencyContactResponse update(UUID userId, UUID contactId, UpdateEmergencyContactRequest request);
@@ -0,0 +1,18 @@
+package eu.api.service;
+
+import java.util.UUID;
+
+public interface EmergencySnapshotService {
+
+    /**
+     * JSON of the public emergency card for this token, built and stored on first use.
+     * @throws eu.api.exception.NotFoundException if the token is unknown or inactive
+     */
+    byte[] getCard(String token);
+
+    /**
+     * Must be called inside the transaction that changes card data: bumps the user's data version, drops the
+     * stored card so no reader sees it stale, and has it rebuilt once the transaction commits.
+     */
+    void markChanged(UUID userId);
+}
@@ -1,7 +1,7 @@
 package eu.api.service;
 
-import eu.api.dto.response.EmergencyPublicResponse;
 import eu.api.dto.response.EmergencyTokenResponse;
+import eu.api.dto.response.OfflineEmergencyCardResponse;
 
 import java.util.UUID;
 
@@ -11,5 +11,15 @@ public interface EmergencyTokenService {
 
     EmergencyTokenResponse regenerateToken(UUID userId);
 
-    EmergencyPublicResponse getEmergencyData(String token);
+    /**
+     * Signed copy of the user's public emergency card that scanners can read without calling the API.
+     * It keeps working until it expires, even if the token is regenerated or the data changes.
+     */
+    OfflineEmergencyCardResponse issueOfflineCard(UUID userId);
+
+    /**
+     * EmergencyPublicResponse JSON carried by a signed offline card.
+     * @throws eu.api.exception.ValidationException if the card is malformed, expired or not signed by us
+     */
+    byte[] verifyOfflineCard(String card);
 }
@@ -0,0 +1,27 @@
+package eu.api.service;
+
+import eu.api.dto.response.ExportDataResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.UUID;
+
+/**
+ * Everything stored about the user in one response (GET /me/export).
+ */
+public interface ExportService {
+
+    /**
+     * Fails only when the profile cannot be loaded; any other section that fails or misses the export deadline
+     * is left out and listed in {@link ExportDataResponse#getFailedSections()}, with complete = false.
+     */
+    ExportDataResponse exportAll(UUID userId);
+
+    /**
+     * The same document as {@link #exportAll}, written to out section by section as rows are read, so memory
+     * use does not grow with the amount of data. Sections are read one after another, each in its own
+     * transaction. Nothing can be reported once writing has started: a failure ends the document early, and
+     * only a complete document ends with "complete": true.
+     */
+    void streamAll(UUID userId, OutputStream out) throws IOException;
+}
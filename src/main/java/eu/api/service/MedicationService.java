@@ -6,11 +6,17 @@ import eu.api.dto.response.MedicationListItemResponse;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface MedicationService {
 
     List<MedicationListItemResponse> list(UUID userId, boolean includeNotes);
 
+    /**
+     * Same items as {@link #list}, handed to sink one at a time without holding them all in memory.
+     */
+    void stream(UUID userId, boolean includeNotes, Consumer<? super MedicationListItemResponse> sink);
+
     MedicationListItemResponse create(UUID userId, CreateMedicationRequest request);
 
     MedicationListItemResponse update(UUID userId, UUID medicationId, UpdateMedicationRequest request);
@@ -6,31 +6,42 @@ import eu.api.dto.response.AddressResponse;
 import eu.api.entity.AddressEntity;
 import eu.api.exception.ForbiddenException;
 import eu.api.exception.NotFoundException;
-import eu.api.crypto.CryptoService;
+import eu.api.crypto.EncryptedString;
 import eu.api.repository.AddressRepository;
 import eu.api.service.AddressService;
+import eu.api.service.DataVersionService;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
 public class AddressServiceImpl implements AddressService {
 
+    private static final int ENCRYPTED_FIELDS = 3;
+
     private final AddressRepository addressRepository;
-    private final CryptoService cryptoService;
+    private final DataVersionService dataVersionService;
+    private final EntityManager entityManager;
 
     @Override
     @Transactional(readOnly = true)
     public List<AddressResponse> list(UUID userId) {
-        return addressRepository.findByUserId(userId).stream()
-                .map(this::toResponse)
-                .toList();
+        return toResponses(addressRepository.findByUserId(userId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void stream(UUID userId, Consumer<? super AddressResponse> sink) {
+        EntityChunks.forEach(addressRepository.streamByUserId(userId), entityManager,
+                chunk -> toResponses(chunk).forEach(sink));
     }
 
     @Override
@@ -44,14 +55,15 @@ public class AddressServiceImpl implements AddressService {
                 .userId(userId)
                 .label(request.getLabel().trim().toUpperCase())
                 .isPrimary(primary)
-                .street(encryptOrNull(request.getStreet()))
-                .number(encryptOrNull(request.getNumber()))
+                .street(encryptedOrNull(request.getStreet()))
+                .number(encryptedOrNull(request.getNumber()))
                 .city(trimOrNull(request.getCity()))
                 .state(trimOrNull(request.getState()))
-                .zip(encryptOrNull(request.getZip()))
+                .zip(encryptedOrNull(request.getZip()))
                 .country(trimOrNull(request.getCountry()))
                 .build();
         entity = addressRepository.save(entity);
+        dataVersionService.increment(userId);
         return toResponse(entity);
     }
 
@@ -73,10 +85,12 @@ public class AddressServiceImpl implements AddressService {
             entity.setLabel(request.getLabel().trim().toUpperCase());
         }
         if (request.getStreet() != null) {
-            entity.setStreet(encryptOrNull(request.getStreet()));
+            entity.setStreet(encryptedOrNull(request.getStreet()));
+            entity.setLegacyStreet(null);
         }
         if (request.getNumber() != null) {
-            entity.setNumber(encryptOrNull(request.getNumber()));
+            entity.setNumber(encryptedOrNull(request.getNumber()));
+            entity.setLegacyNumber(null);
         }
         if (request.getCity() != null) {
             entity.setCity(trimOrNull(request.getCity()));
@@ -85,12 +99,14 @@ public class AddressServiceImpl implements AddressService {
             entity.setState(trimOrNull(request.getState()));
         }
         if (request.getZip() != null) {
-            entity.setZip(encryptOrNull(request.getZip()));
+            entity.setZip(encryptedOrNull(request.getZip()));
+            entity.setLegacyZip(null);
         }
         if (request.getCountry() != null) {
             entity.setCountry(trimOrNull(request.getCountry()));
         }
         entity = addressRepository.save(entity);
+        dataVersionService.increment(userId);
         return toResponse(entity);
     }
 
@@ -104,6 +120,7 @@ public class AddressServiceImpl implements AddressService {
         }
         entity.setDeletedAt(Instant.now());
         addressRepository.save(entity);
+        dataVersionService.increment(userId);
     }
 
     private void clearOtherPrimaries(UUID userId) {
@@ -115,30 +132,49 @@ public class AddressServiceImpl implements AddressService {
                 });
     }
 
+    private List<AddressResponse> toResponses(List<AddressEntity> entities) {
+        List<EncryptedString> encrypted = new ArrayList<>(entities.size() * ENCRYPTED_FIELDS);
+        for (AddressEntity entity : entities) {
+            encrypted.add(EncryptedString.orLegacy(entity.getStreet(), entity.getLegacyStreet()));
+            encrypted.add(EncryptedString.orLegacy(entity.getNumber(), entity.getLegacyNumber()));
+            encrypted.add(EncryptedString.orLegacy(entity.getZip(), entity.getLegacyZip()));
+        }
+        List<String> decrypted = EncryptedString.revealAll(encrypted);
+        List<AddressResponse> responses = new ArrayList<>(entities.size());
+        for (int i = 0; i < entities.size(); i++) {
+            int offset = i * ENCRYPTED_FIELDS;
+            responses.add(toResponse(entities.get(i),
+                    decrypted.get(offset), decrypted.get(offset + 1), decrypted.get(offset + 2)));
+        }
+        return responses;
+    }
+
     private AddressResponse toResponse(AddressEntity entity) {
+        return toResponse(entity,
+                EncryptedString.reveal(EncryptedString.orLegacy(entity.getStreet(), entity.getLegacyStreet())),
+                EncryptedString.reveal(EncryptedString.orLegacy(entity.getNumber(), entity.getLegacyNumber())),
+                EncryptedString.reveal(EncryptedString.orLegacy(entity.getZip(), entity.getLegacyZip())));
+    }
+
+    private AddressResponse toResponse(AddressEntity entity, String street, String number, String zip) {
         return AddressResponse.builder()
                 .id(entity.getId())
                 .label(entity.getLabel())
                 .isPrimary(Boolean.TRUE.equals(entity.getIsPrimary()))
-                .street(decryptOrNull(entity.getStreet()))
-                .number(decryptOrNull(entity.getNumber()))
+                .street(street)
+                .number(number)
                 .city(entity.getCity())
                 .state(entity.getState())
-                .zip(decryptOrNull(entity.getZip()))
+                .zip(zip)
                 .country(entity.getCountry())
                 .build();
     }
 
-    private String encryptOrNull(String plain) {
+    private EncryptedString encryptedOrNull(String plain) {
         if (plain == null || plain.trim().isEmpty()) {
             return null;
         }
-        return cryptoService.encrypt(plain.trim());
-    }
-
-    private String decryptOrNull(String encrypted) {
-        return Optional.ofNullable(encrypted).filter(s -> !s.isBlank())
-                .map(cryptoService::decrypt).orElse(null);
+        return EncryptedString.of(plain.trim());
     }
 
     private String trimOrNull(String s) {
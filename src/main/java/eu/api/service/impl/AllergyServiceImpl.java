@@ -9,53 +9,66 @@ import eu.api.dto.response.AllergyListItemResponse;
 import eu.api.entity.AllergyEntity;
 import eu.api.exception.ForbiddenException;
 import eu.api.exception.NotFoundException;
-import eu.api.crypto.CryptoService;
+import eu.api.crypto.EncryptedString;
 import eu.api.repository.AllergyRepository;
 import eu.api.service.AllergyService;
 import eu.api.service.AuditService;
+import eu.api.service.EmergencySnapshotService;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
 public class AllergyServiceImpl implements AllergyService {
 
     private final AllergyRepository allergyRepository;
-    private final CryptoService cryptoService;
     private final AuditService auditService;
+    private final EmergencySnapshotService emergencySnapshotService;
+    private final EntityManager entityManager;
 
     @Override
     @Transactional(readOnly = true)
     public List<AllergyListItemResponse> list(UUID userId, boolean includeNotes) {
-        List<AllergyListItemResponse> list = allergyRepository.findByUserIdOrderByCreatedAtAsc(userId).stream()
-                .map(e -> toItemResponse(e, includeNotes))
-                .toList();
+        List<AllergyListItemResponse> list =
+                toItemResponses(allergyRepository.findByUserIdOrderByCreatedAtAsc(userId), includeNotes);
         if (!list.isEmpty()) {
             auditService.record(userId, AuditResourceType.ALLERGY, AuditAction.READ, null);
         }
         return list;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void stream(UUID userId, boolean includeNotes, Consumer<? super AllergyListItemResponse> sink) {
+        int count = EntityChunks.forEach(allergyRepository.streamByUserIdOrderByCreatedAtAsc(userId), entityManager,
+                chunk -> toItemResponses(chunk, includeNotes).forEach(sink));
+        if (count > 0) {
+            auditService.record(userId, AuditResourceType.ALLERGY, AuditAction.READ, null);
+        }
+    }
+
     @Override
     @Transactional
     public AllergyListItemResponse create(UUID userId, CreateAllergyRequest request) {
         String severity = parseSeverity(request.getSeverity());
-        String notesEncrypted = encryptNotes(request.getNotes());
         AllergyEntity entity = AllergyEntity.builder()
                 .userId(userId)
                 .name(request.getName().trim())
                 .severity(severity)
-                .notes(notesEncrypted)
+                .notes(newNotes(request.getNotes()))
                 .build();
         entity = allergyRepository.save(entity);
+        emergencySnapshotService.markChanged(userId);
         auditService.record(userId, AuditResourceType.ALLERGY, AuditAction.CREATE, entity.getId());
-        return toItemResponse(entity, true);
+        return toItemResponse(entity, EncryptedString.reveal(notesOf(entity)));
     }
 
     @Override
@@ -73,11 +86,13 @@ public class AllergyServiceImpl implements AllergyService {
             entity.setSeverity(parseSeverity(request.getSeverity()));
         }
         if (request.getNotes() != null) {
-            entity.setNotes(encryptNotes(request.getNotes()));
+            entity.setNotes(newNotes(request.getNotes()));
+            entity.setLegacyNotes(null);
         }
         entity = allergyRepository.save(entity);
+        emergencySnapshotService.markChanged(userId);
         auditService.record(userId, AuditResourceType.ALLERGY, AuditAction.UPDATE, allergyId);
-        return toItemResponse(entity, true);
+        return toItemResponse(entity, EncryptedString.reveal(notesOf(entity)));
     }
 
     @Override
@@ -90,11 +105,23 @@ public class AllergyServiceImpl implements AllergyService {
         }
         entity.setDeletedAt(Instant.now());
         allergyRepository.save(entity);
+        emergencySnapshotService.markChanged(userId);
         auditService.record(userId, AuditResourceType.ALLERGY, AuditAction.DELETE, allergyId);
     }
 
-    private AllergyListItemResponse toItemResponse(AllergyEntity entity, boolean includeNotes) {
-        String notes = includeNotes ? decryptNotes(entity.getNotes()) : null;
+    private List<AllergyListItemResponse> toItemResponses(List<AllergyEntity> entities, boolean includeNotes) {
+        if (!includeNotes) {
+            return entities.stream().map(e -> toItemResponse(e, null)).toList();
+        }
+        List<String> notes = EncryptedString.revealAll(entities.stream().map(this::notesOf).toList());
+        List<AllergyListItemResponse> responses = new ArrayList<>(entities.size());
+        for (int i = 0; i < entities.size(); i++) {
+            responses.add(toItemResponse(entities.get(i), notes.get(i)));
+        }
+        return responses;
+    }
+
+    private AllergyListItemResponse toItemResponse(AllergyEntity entity, String notes) {
         return AllergyListItemResponse.builder()
                 .id(entity.getId())
                 .name(entity.getName())
@@ -114,15 +141,14 @@ public class AllergyServiceImpl implements AllergyService {
         }
     }
 
-    private String encryptNotes(String notes) {
+    private EncryptedString newNotes(String notes) {
         if (notes == null || notes.trim().isEmpty()) {
             return null;
         }
-        return cryptoService.encrypt(notes.trim());
+        return EncryptedString.of(notes.trim());
     }
 
-    private String decryptNotes(String encrypted) {
-        return Optional.ofNullable(encrypted).filter(s -> !s.isBlank())
-                .map(cryptoService::decrypt).orElse(null);
+    private EncryptedString notesOf(AllergyEntity entity) {
+        return EncryptedString.orLegacy(entity.getNotes(), entity.getLegacyNotes());
     }
 }
@@ -0,0 +1,116 @@
+package eu.api.service.impl;
+
+import eu.api.domain.AuditAction;
+import eu.api.domain.AuditResourceType;
+import eu.api.dto.response.AuditEventResponse;
+import eu.api.dto.response.AuditLogResponse;
+import eu.api.entity.AuditEventEntity;
+import eu.api.exception.ValidationException;
+import eu.api.repository.AuditEventRepository;
+import eu.api.service.AuditLogService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Keyset pagination on (created_at, id): each page seeks to the row after the cursor through the
+ * (user_id, created_at, id) index, so page 10 000 costs the same as page 1. The cursor is the position of the
+ * last row returned, base64url encoded; it carries no filters, so clients resend those with every page.
+ */
+@Service
+@RequiredArgsConstructor
+public class AuditLogServiceImpl implements AuditLogService {
+
+    public static final int MAX_LIMIT = 200;
+
+    /** Sorts after every real row, so the first page needs no separate query. */
+    private static final Instant FIRST_PAGE_CREATED_AT = Instant.parse("9999-12-31T00:00:00Z");
+    private static final UUID FIRST_PAGE_ID = new UUID(-1L, -1L);
+
+    private final AuditEventRepository auditEventRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public AuditLogResponse list(UUID userId, String resourceType, String action, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new ValidationException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        String type = resourceType == null ? null : parse(AuditResourceType.class, resourceType, "resourceType").name();
+        String act = action == null ? null : parse(AuditAction.class, action, "action").name();
+        Instant afterCreatedAt = FIRST_PAGE_CREATED_AT;
+        UUID afterId = FIRST_PAGE_ID;
+        if (cursor != null) {
+            Position position = decodeCursor(cursor);
+            afterCreatedAt = position.createdAt();
+            afterId = position.id();
+        }
+
+        List<AuditEventResponse> items = new ArrayList<>(limit);
+        boolean more = false;
+        AuditEventEntity last = null;
+        try (Stream<AuditEventEntity> rows = auditEventRepository.streamPage(userId, type, act, afterCreatedAt, afterId,
+                limit + 1)) {
+            for (Iterator<AuditEventEntity> it = rows.iterator(); it.hasNext(); ) {
+                AuditEventEntity row = it.next();
+                if (items.size() == limit) {
+                    more = true;
+                    break;
+                }
+                items.add(toResponse(row));
+                last = row;
+            }
+        }
+        return AuditLogResponse.builder()
+                .items(items)
+                .nextCursor(more ? encodeCursor(last.getCreatedAt(), last.getId()) : null)
+                .build();
+    }
+
+    private static AuditEventResponse toResponse(AuditEventEntity e) {
+        return AuditEventResponse.builder()
+                .id(e.getId())
+                .resourceType(e.getResourceType())
+                .action(e.getAction())
+                .resourceId(e.getResourceId())
+                .occurredAt(e.getCreatedAt())
+                .lastOccurredAt(e.getLastOccurredAt() != null ? e.getLastOccurredAt() : e.getCreatedAt())
+                .count(Math.max(1, e.getEventCount()))
+                .build();
+    }
+
+    private static <E extends Enum<E>> E parse(Class<E> type, String value, String field) {
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Invalid " + field + ": " + value);
+        }
+    }
+
+    private static String encodeCursor(Instant createdAt, UUID id) {
+        String position = createdAt + "," + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Position decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int comma = position.indexOf(',');
+            return new Position(Instant.parse(position.substring(0, comma)), UUID.fromString(position.substring(comma + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new ValidationException("Invalid cursor");
+        }
+    }
+
+    private record Position(Instant createdAt, UUID id) {
+    }
+}
@@ -0,0 +1,268 @@
+package eu.api.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Monthly range partitions of audit_events on PostgreSQL; a no-op on other databases (H2 in tests).
+ * <p>
+ * Hibernate creates audit_events as a plain table, so the first start on PostgreSQL converts it: the plain
+ * table is renamed and attached, as it is, as the partition holding everything before the month after next, and
+ * new months get their own partitions (audit_events_yYYYYmMM, UTC boundaries) created ahead of time. A
+ * DEFAULT partition catches rows outside every range so inserts never fail. Indexes are defined on the parent:
+ * B-tree on (user_id, created_at, id) for the keyset-paginated audit log, and BRIN on created_at, which stays
+ * tiny because rows arrive in time order. Expired months
+ * are removed with DROP TABLE, which frees the space at once and leaves nothing for vacuum.
+ */
+@Slf4j
+@Component
+public class AuditPartitionManager {
+
+    private static final String TABLE = "audit_events";
+    private static final String USER_INDEX_DDL =
+            "CREATE INDEX IF NOT EXISTS idx_audit_events_user_created_at ON audit_events (user_id, created_at, id)";
+    private static final Pattern PARTITION_NAME = Pattern.compile("audit_events_(upto_)?y(\\d{4})m(\\d{2})");
+    private static final Pattern BOUND_CONSTRAINT_NAME = Pattern.compile("audit_events_bound_y(\\d{4})m(\\d{2})");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int premakeMonths;
+    private volatile Boolean postgres;
+
+    public AuditPartitionManager(JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${audit.partitions.premake-months:2}") int premakeMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.premakeMonths = Math.max(1, premakeMonths);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        ensurePartitioned();
+        ensureIndexes();
+        createPartitions(YearMonth.now(ZoneOffset.UTC));
+    }
+
+    public boolean isSupported() {
+        Boolean supported = postgres;
+        if (supported == null) {
+            String product = jdbcTemplate.execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            supported = "PostgreSQL".equals(product);
+            postgres = supported;
+        }
+        return supported;
+    }
+
+    /**
+     * Converts audit_events to a partitioned table if it is not one yet; safe to call from every replica.
+     * The old rows are first covered by a validated CHECK constraint matching the range they will be attached
+     * with (see {@link #prepareAttach()}), so the ATTACH itself, which needs an ACCESS EXCLUSIVE lock, does
+     * not have to scan them.
+     */
+    public void ensurePartitioned() {
+        if (!isSupported()) {
+            return;
+        }
+        if (!"r".equals(relkind())) {
+            return;
+        }
+        prepareAttach();
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("SET LOCAL lock_timeout = '10s'");
+            jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock(hashtext('audit_events_partitioning'))", Object.class);
+            if ("p".equals(relkind())) {
+                return;
+            }
+            YearMonth bound = attachBound();
+            jdbcTemplate.execute("ALTER TABLE audit_events RENAME TO audit_events_plain");
+            jdbcTemplate.execute("ALTER INDEX IF EXISTS idx_audit_events_user_id RENAME TO idx_audit_events_plain_user_id");
+            jdbcTemplate.execute("ALTER INDEX IF EXISTS idx_audit_events_created_at RENAME TO idx_audit_events_plain_created_at");
+            jdbcTemplate.execute("""
+                    CREATE TABLE audit_events (LIKE audit_events_plain INCLUDING DEFAULTS,
+                        CONSTRAINT pk_audit_events PRIMARY KEY (id, created_at))
+                    PARTITION BY RANGE (created_at)""");
+            jdbcTemplate.execute(USER_INDEX_DDL);
+            jdbcTemplate.execute("CREATE INDEX idx_audit_events_created_at_brin ON audit_events USING BRIN (created_at)");
+
+            Timestamp newest = jdbcTemplate.queryForObject("SELECT MAX(created_at) FROM audit_events_plain", Timestamp.class);
+            if (newest == null) {
+                jdbcTemplate.execute("DROP TABLE audit_events_plain");
+            } else {
+                YearMonth upTo = bound != null
+                        ? bound
+                        : YearMonth.from(newest.toInstant().atOffset(ZoneOffset.UTC)).plusMonths(1);
+                String name = "audit_events_upto_" + suffix(upTo);
+                jdbcTemplate.execute("ALTER TABLE audit_events_plain RENAME TO " + name);
+                jdbcTemplate.execute("ALTER TABLE audit_events ATTACH PARTITION " + name
+                        + " FOR VALUES FROM (MINVALUE) TO ('" + start(upTo) + "')");
+            }
+            jdbcTemplate.execute("CREATE TABLE audit_events_default PARTITION OF audit_events DEFAULT");
+            log.info("audit_events converted to a partitioned table{}", newest == null ? "" : "; existing rows kept as one partition");
+        });
+    }
+
+    /**
+     * Adds CHECK (created_at < bound) NOT VALID to the plain table, under a lock held only for the catalog
+     * change, then validates it: VALIDATE CONSTRAINT scans the rows but only takes a SHARE UPDATE EXCLUSIVE
+     * lock, so inserts and reads go on meanwhile. The bound is two months ahead because the constraint
+     * already applies to new rows; a bound left too close by an earlier, interrupted start is replaced.
+     */
+    private void prepareAttach() {
+        YearMonth minimum = YearMonth.now(ZoneOffset.UTC).plusMonths(2);
+        YearMonth bound = transactionTemplate.execute(status -> {
+            jdbcTemplate.execute("SET LOCAL lock_timeout = '10s'");
+            jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock(hashtext('audit_events_partitioning'))", Object.class);
+            if (!"r".equals(relkind())) {
+                return null;
+            }
+            YearMonth existing = attachBound();
+            if (existing != null && !existing.isBefore(minimum)) {
+                return existing;
+            }
+            if (existing != null) {
+                jdbcTemplate.execute("ALTER TABLE audit_events DROP CONSTRAINT " + boundConstraint(existing));
+            }
+            jdbcTemplate.execute("ALTER TABLE audit_events ADD CONSTRAINT " + boundConstraint(minimum)
+                    + " CHECK (created_at < '" + start(minimum) + "') NOT VALID");
+            return minimum;
+        });
+        if (bound != null) {
+            jdbcTemplate.execute("ALTER TABLE audit_events VALIDATE CONSTRAINT " + boundConstraint(bound));
+        }
+    }
+
+    private String relkind() {
+        return jdbcTemplate.queryForObject("""
+                SELECT CAST(c.relkind AS TEXT) FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace
+                WHERE c.relname = ? AND n.nspname = current_schema()""", String.class, TABLE);
+    }
+
+    /**
+     * Month of the CHECK constraint added by {@link #prepareAttach()} to the plain audit_events, if any.
+     */
+    private YearMonth attachBound() {
+        List<String> names = jdbcTemplate.queryForList("""
+                SELECT con.conname FROM pg_constraint con JOIN pg_class c ON c.oid = con.conrelid
+                JOIN pg_namespace n ON n.oid = c.relnamespace
+                WHERE c.relname = ? AND n.nspname = current_schema() AND con.contype = 'c'""", String.class, TABLE);
+        for (String name : names) {
+            Matcher matcher = BOUND_CONSTRAINT_NAME.matcher(name);
+            if (matcher.matches()) {
+                return YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+            }
+        }
+        return null;
+    }
+
+    private static String boundConstraint(YearMonth month) {
+        return "audit_events_bound_" + suffix(month);
+    }
+
+    /**
+     * Brings indexes of an already partitioned table up to date; the composite index supersedes the one on
+     * user_id alone.
+     */
+    public void ensureIndexes() {
+        if (!isSupported()) {
+            return;
+        }
+        jdbcTemplate.execute(USER_INDEX_DDL);
+        jdbcTemplate.execute("DROP INDEX IF EXISTS idx_audit_events_user_id");
+    }
+
+    /**
+     * Creates the partitions for currentMonth and the audit.partitions.premake-months after it that do not
+     * exist yet.
+     */
+    public void createPartitions(YearMonth currentMonth) {
+        if (!isSupported()) {
+            return;
+        }
+        List<Partition> existing = partitions();
+        for (int i = 0; i <= premakeMonths; i++) {
+            YearMonth month = currentMonth.plusMonths(i);
+            boolean covered = existing.stream().anyMatch(p -> !p.upperBound().isBefore(month.plusMonths(1))
+                    && (p.month() == null || p.month().equals(month)));
+            if (covered) {
+                continue;
+            }
+            String name = "audit_events_" + suffix(month);
+            try {
+                jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + name + " PARTITION OF audit_events FOR VALUES FROM ('"
+                        + start(month) + "') TO ('" + start(month.plusMonths(1)) + "')");
+                log.info("Created audit partition {}", name);
+            } catch (DataAccessException e) {
+                log.error("Could not create audit partition {} (rows for that month in audit_events_default?)", name, e);
+            }
+        }
+    }
+
+    /**
+     * Drops every partition whose whole range ends on or before the given month; returns their names.
+     */
+    public List<String> dropPartitionsBefore(YearMonth month) {
+        if (!isSupported()) {
+            return List.of();
+        }
+        List<String> dropped = new ArrayList<>();
+        for (Partition partition : partitions()) {
+            if (!partition.upperBound().isAfter(month)) {
+                jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition.name());
+                dropped.add(partition.name());
+            }
+        }
+        return dropped;
+    }
+
+    private List<Partition> partitions() {
+        List<String> names = jdbcTemplate.queryForList("""
+                SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+                WHERE i.inhparent = CAST('audit_events' AS regclass)""", String.class);
+        List<Partition> partitions = new ArrayList<>();
+        for (String name : names) {
+            Matcher matcher = PARTITION_NAME.matcher(name);
+            if (!matcher.matches()) {
+                continue;
+            }
+            YearMonth month = YearMonth.of(Integer.parseInt(matcher.group(2)), Integer.parseInt(matcher.group(3)));
+            boolean upTo = matcher.group(1) != null;
+            partitions.add(new Partition(name, upTo ? null : month, upTo ? month : month.plusMonths(1)));
+        }
+        return partitions;
+    }
+
+    private static String suffix(YearMonth month) {
+        return String.format("y%04dm%02d", month.getYear(), month.getMonthValue());
+    }
+
+    private static String start(YearMonth month) {
+        return OffsetDateTime.of(LocalDate.of(month.getYear(), month.getMonth(), 1).atStartOfDay(), ZoneOffset.UTC)
+                .toString();
+    }
+
+    /**
+     * month is null for the partition holding everything before upperBound.
+     */
+    private record Partition(String name, YearMonth month, YearMonth upperBound) {
+    }
+}
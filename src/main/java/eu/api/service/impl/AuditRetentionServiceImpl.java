@@ -0,0 +1,101 @@
+package eu.api.service.impl;
+
+import eu.api.repository.AuditDailyCountRepository;
+import eu.api.repository.AuditEventRepository;
+import eu.api.service.AuditRetentionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Each UTC day is counted once, in its own transaction, so an interrupted run resumes at the first missing
+ * day; replicas running the schedule at the same time skip rows another one already counted. Raw events are only dropped for months whose days are all counted, so the per-day totals survive the
+ * events they summarise.
+ */
+@Slf4j
+@Service
+public class AuditRetentionServiceImpl implements AuditRetentionService {
+
+    private static final int MAX_DAYS_PER_RUN = 366;
+
+    private final AuditDailyCountRepository dailyCountRepository;
+    private final AuditEventRepository auditEventRepository;
+    private final AuditPartitionManager partitionManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int retentionMonths;
+    private final Clock clock;
+
+    @Autowired
+    public AuditRetentionServiceImpl(AuditDailyCountRepository dailyCountRepository,
+                                     AuditEventRepository auditEventRepository,
+                                     AuditPartitionManager partitionManager,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${audit.retention.months:24}") int retentionMonths) {
+        this(dailyCountRepository, auditEventRepository, partitionManager, transactionManager, retentionMonths,
+                Clock.systemUTC());
+    }
+
+    AuditRetentionServiceImpl(AuditDailyCountRepository dailyCountRepository,
+                              AuditEventRepository auditEventRepository,
+                              AuditPartitionManager partitionManager,
+                              PlatformTransactionManager transactionManager,
+                              int retentionMonths,
+                              Clock clock) {
+        this.dailyCountRepository = dailyCountRepository;
+        this.auditEventRepository = auditEventRepository;
+        this.partitionManager = partitionManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retentionMonths = Math.max(1, retentionMonths);
+        this.clock = clock;
+    }
+
+    @Override
+    public LocalDate rollUp() {
+        LocalDate yesterday = LocalDate.now(clock).minusDays(1);
+        LocalDate day = dailyCountRepository.findLastDay()
+                .map(last -> last.plusDays(1))
+                .or(() -> auditEventRepository.findOldestCreatedAt().map(oldest -> LocalDate.ofInstant(oldest, ZoneOffset.UTC)))
+                .orElse(null);
+        if (day == null || day.isAfter(yesterday)) {
+            return null;
+        }
+        LocalDate last = null;
+        for (int i = 0; i < MAX_DAYS_PER_RUN && !day.isAfter(yesterday); i++, day = day.plusDays(1)) {
+            LocalDate current = day;
+            Instant from = current.atStartOfDay(ZoneOffset.UTC).toInstant();
+            Instant to = current.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+            Integer rows = transactionTemplate.execute(status -> dailyCountRepository.rollUp(current, from, to));
+            log.debug("Audit rollup for {}: {} rows", current, rows);
+            last = current;
+        }
+        log.info("Audit rollup counted days up to {}", last);
+        return last;
+    }
+
+    @Override
+    public void maintainPartitions() {
+        YearMonth currentMonth = YearMonth.now(clock);
+        partitionManager.createPartitions(currentMonth);
+
+        YearMonth cutoff = currentMonth.minusMonths(retentionMonths);
+        LocalDate counted = dailyCountRepository.findLastDay().orElse(null);
+        if (counted == null || counted.isBefore(cutoff.atDay(1).minusDays(1))) {
+            log.warn("Audit rollup has not reached {}; keeping expired partitions for now", cutoff);
+            return;
+        }
+        List<String> dropped = partitionManager.dropPartitionsBefore(cutoff);
+        if (!dropped.isEmpty()) {
+            log.info("Dropped expired audit partitions {}", dropped);
+        }
+    }
+}
@@ -2,40 +2,267 @@ package eu.api.service.impl;
 
 import eu.api.domain.AuditAction;
 import eu.api.domain.AuditResourceType;
-import eu.api.entity.AuditEventEntity;
-import eu.api.repository.AuditEventRepository;
 import eu.api.service.AuditService;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Iterator;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Buffers audit events in a bounded queue that a single writer thread drains into audit_events with JDBC
+ * batch inserts, instead of one task, transaction and INSERT per event. A batch is written once it holds
+ * audit.writer.batch-size events or its oldest event has waited audit.writer.flush-interval-ms.
+ * <p>
+ * When the queue is full, record() waits up to audit.writer.max-block-ms for room (0 = never waits) and then
+ * drops the event, so a slow database can delay requests by at most that much. On shutdown the queue is
+ * drained before the data source closes.
+ * <p>
+ * READ events are coalesced first: the same user reading the same resource again within
+ * audit.coalesce.read-window-ms (counted from the first read) only bumps a counter, and the window is written
+ * as one row with event_count and the first and last timestamps. CREATE, UPDATE and DELETE are never merged.
+ * At most audit.writer.capacity windows are open at once; beyond that READs are queued one by one.
+ * <p>
+ * Metrics: audit.events.written (rows), audit.events.coalesced, audit.events.dropped{reason},
+ * audit.buffer.size and audit.flush.
+ */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class AuditServiceImpl implements AuditService {
 
-    private final AuditEventRepository auditEventRepository;
+    private static final String INSERT_SQL = """
+            INSERT INTO audit_events (id, user_id, resource_type, action, resource_id, created_at, updated_at,
+                                      last_occurred_at, event_count)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)""";
+    private static final long IDLE_POLL_MS = 250;
+    private static final long SHUTDOWN_TIMEOUT_MS = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BlockingQueue<AuditEvent> queue;
+    private final Map<ReadKey, ReadWindow> openReads = new ConcurrentHashMap<>();
+    private final int capacity;
+    private final long readWindowNanos;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final long maxBlockMs;
+    private final Counter written;
+    private final Counter coalesced;
+    private final Counter droppedFull;
+    private final Counter droppedFailed;
+    private final Counter droppedStopped;
+    private final Timer flushTimer;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public AuditServiceImpl(JdbcTemplate jdbcTemplate,
+                            MeterRegistry meterRegistry,
+                            @Value("${audit.writer.capacity:10000}") int capacity,
+                            @Value("${audit.writer.batch-size:500}") int batchSize,
+                            @Value("${audit.writer.flush-interval-ms:200}") long flushIntervalMs,
+                            @Value("${audit.writer.max-block-ms:0}") long maxBlockMs,
+                            @Value("${audit.coalesce.read-window-ms:60000}") long readWindowMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.capacity = capacity;
+        this.readWindowNanos = TimeUnit.MILLISECONDS.toNanos(readWindowMs);
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.maxBlockMs = maxBlockMs;
+        this.written = meterRegistry.counter("audit.events.written");
+        this.coalesced = meterRegistry.counter("audit.events.coalesced");
+        this.droppedFull = meterRegistry.counter("audit.events.dropped", "reason", "buffer-full");
+        this.droppedFailed = meterRegistry.counter("audit.events.dropped", "reason", "write-failed");
+        this.droppedStopped = meterRegistry.counter("audit.events.dropped", "reason", "shutdown");
+        this.flushTimer = meterRegistry.timer("audit.flush");
+        meterRegistry.gauge("audit.buffer.size", queue, BlockingQueue::size);
+        this.writer = new Thread(this::drainLoop, "audit-writer");
+        this.writer.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        writer.start();
+    }
 
     @Override
-    @Async
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void record(UUID userId, AuditResourceType resourceType, AuditAction action, UUID resourceId) {
+        Instant now = Instant.now();
+        if (!running) {
+            droppedStopped.increment();
+            return;
+        }
+        if (action == AuditAction.READ && readWindowNanos > 0
+                && coalesce(new ReadKey(userId, resourceType.name(), resourceId), now)) {
+            return;
+        }
+        AuditEvent event = new AuditEvent(UUID.randomUUID(), userId, resourceType.name(), action.name(), resourceId,
+                now, now, 1);
+        if (!enqueue(event)) {
+            droppedFull.increment();
+            log.warn("Audit buffer full; dropped event userId={} resourceType={} action={}", userId, resourceType, action);
+        }
+    }
+
+    /**
+     * Adds the read to its open window, opening one if there is room; false when the read must be queued alone.
+     */
+    private boolean coalesce(ReadKey key, Instant at) {
+        ReadWindow existing = openReads.get(key);
+        if (existing == null && openReads.size() >= capacity) {
+            return false;
+        }
+        openReads.compute(key, (k, open) -> {
+            if (open == null) {
+                return new ReadWindow(at, System.nanoTime() + readWindowNanos);
+            }
+            open.add(at);
+            coalesced.increment();
+            return open;
+        });
+        return true;
+    }
+
+    private boolean enqueue(AuditEvent event) {
+        if (maxBlockMs <= 0) {
+            return queue.offer(event);
+        }
+        try {
+            return queue.offer(event, maxBlockMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        writer.join(SHUTDOWN_TIMEOUT_MS);
+        if (!queue.isEmpty()) {
+            log.warn("Audit writer stopped with {} events unwritten", queue.size());
+        }
+    }
+
+    private void drainLoop() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty() || !openReads.isEmpty()) {
+            try {
+                AuditEvent first = running ? queue.poll(IDLE_POLL_MS, TimeUnit.MILLISECONDS) : queue.poll();
+                if (first != null) {
+                    batch.add(first);
+                    long deadline = System.nanoTime() + flushIntervalNanos;
+                    while (batch.size() < batchSize && running) {
+                        queue.drainTo(batch, batchSize - batch.size());
+                        long remaining = deadline - System.nanoTime();
+                        if (batch.size() >= batchSize || remaining <= 0) {
+                            break;
+                        }
+                        AuditEvent next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                        if (next != null) {
+                            batch.add(next);
+                        }
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            queue.drainTo(batch, batchSize - batch.size());
+            closeReadWindows(batch, !running);
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Moves windows that have run their course (all of them when closing down) into the batch, up to batchSize.
+     */
+    private void closeReadWindows(List<AuditEvent> batch, boolean all) {
+        long now = System.nanoTime();
+        Iterator<ReadKey> keys = openReads.keySet().iterator();
+        while (keys.hasNext() && batch.size() < batchSize) {
+            ReadKey key = keys.next();
+            ReadWindow[] closed = new ReadWindow[1];
+            openReads.computeIfPresent(key, (k, window) -> {
+                if (all || now - window.deadlineNanos >= 0) {
+                    closed[0] = window;
+                    return null;
+                }
+                return window;
+            });
+            ReadWindow window = closed[0];
+            if (window != null) {
+                batch.add(new AuditEvent(UUID.randomUUID(), key.userId(), key.resourceType(), AuditAction.READ.name(),
+                        key.resourceId(), window.first, window.last, window.count));
+            }
+        }
+    }
+
+    private void flush(List<AuditEvent> batch) {
         try {
-            AuditEventEntity entity = AuditEventEntity.builder()
-                    .userId(userId)
-                    .resourceType(resourceType.name())
-                    .action(action.name())
-                    .resourceId(resourceId)
-                    .build();
-            auditEventRepository.save(entity);
-        } catch (Exception e) {
-            log.warn("Failed to record audit event userId={} resourceType={} action={} error={}",
-                    userId, resourceType, action, e.getClass().getSimpleName());
+            flushTimer.record(() -> jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, event) -> {
+                Timestamp createdAt = Timestamp.from(event.createdAt());
+                ps.setObject(1, event.id());
+                ps.setObject(2, event.userId());
+                ps.setString(3, event.resourceType());
+                ps.setString(4, event.action());
+                ps.setObject(5, event.resourceId());
+                ps.setTimestamp(6, createdAt);
+                ps.setTimestamp(7, createdAt);
+                ps.setTimestamp(8, Timestamp.from(event.lastAt()));
+                ps.setInt(9, event.count());
+            }));
+            written.increment(batch.size());
+        } catch (RuntimeException e) {
+            droppedFailed.increment(batch.size());
+            log.warn("Failed to write {} audit events error={}", batch.size(), e.getClass().getSimpleName());
+        }
+    }
+
+    private record AuditEvent(UUID id, UUID userId, String resourceType, String action, UUID resourceId,
+                              Instant createdAt, Instant lastAt, int count) {
+    }
+
+    private record ReadKey(UUID userId, String resourceType, UUID resourceId) {
+    }
+
+    /**
+     * Mutated only inside ConcurrentHashMap.compute, which serialises access per key.
+     */
+    private static final class ReadWindow {
+
+        private final Instant first;
+        private final long deadlineNanos;
+        private Instant last;
+        private int count = 1;
+
+        private ReadWindow(Instant first, long deadlineNanos) {
+            this.first = first;
+            this.last = first;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        private void add(Instant at) {
+            last = at;
+            count++;
         }
     }
 }
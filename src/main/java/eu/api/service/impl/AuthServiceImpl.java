@@ -9,6 +9,7 @@ import eu.api.dto.response.RefreshResponse;
 import eu.api.entity.UserEntity;
 import eu.api.entity.UserProfileEntity;
 import eu.api.exception.ApiException;
+import eu.api.exception.ServiceUnavailableException;
 import eu.api.repository.ProfileRepository;
 import eu.api.repository.UserRepository;
 import eu.api.security.JwtService;
@@ -17,13 +18,16 @@ import eu.api.service.AuthService;
 import eu.api.service.RefreshTokenResult;
 import eu.api.service.RefreshTokenService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.Optional;
-import java.util.UUID;
+import java.time.Instant;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class AuthServiceImpl implements AuthService {
@@ -36,26 +40,31 @@ public class AuthServiceImpl implements AuthService {
     private final PasswordHasher passwordHasher;
     private final JwtService jwtService;
     private final RefreshTokenService refreshTokenService;
+    private final PlatformTransactionManager transactionManager;
 
+    /**
+     * The email check, hashing and the inserts run separately: hashing can wait on the bounded hashing pool
+     * for up to password-hashing.max-wait-ms, and no transaction or pooled connection is held meanwhile.
+     */
     @Override
-    @Transactional
     public AuthResponse register(RegisterRequest request) {
-        if (userRepository.findByEmail(request.getEmail().trim().toLowerCase()).isPresent()) {
+        String email = request.getEmail().trim().toLowerCase();
+        if (userRepository.findByEmail(email).isPresent()) {
             throw new ApiException("EMAIL_ALREADY_REGISTERED", EMAIL_ALREADY_REGISTERED, HttpStatus.CONFLICT);
         }
-        String email = request.getEmail().trim().toLowerCase();
         String passwordHash = passwordHasher.hash(request.getPassword());
-        UserEntity user = UserEntity.builder()
-                .email(email)
-                .passwordHash(passwordHash)
-                .status("ACTIVE")
-                .build();
-        user = userRepository.save(user);
-        UserProfileEntity profile = UserProfileEntity.builder()
-                .userId(user.getId())
-                .fullName(request.getFullName() != null ? request.getFullName().trim() : null)
-                .build();
-        profileRepository.save(profile);
+        UserEntity user = new TransactionTemplate(transactionManager).execute(status -> {
+            UserEntity saved = userRepository.save(UserEntity.builder()
+                    .email(email)
+                    .passwordHash(passwordHash)
+                    .status("ACTIVE")
+                    .build());
+            profileRepository.save(UserProfileEntity.builder()
+                    .userId(saved.getId())
+                    .fullName(request.getFullName() != null ? request.getFullName().trim() : null)
+                    .build());
+            return saved;
+        });
         String accessToken = jwtService.createAccessToken(user.getId(), email);
         String refreshToken = refreshTokenService.create(user.getId());
         return AuthResponse.builder()
@@ -65,8 +74,10 @@ public class AuthServiceImpl implements AuthService {
                 .build();
     }
 
+    /**
+     * Like {@link #register}, the password check and a hash upgrade run with no transaction open.
+     */
     @Override
-    @Transactional
     public AuthResponse login(LoginRequest request) {
         String email = request.getEmail().trim().toLowerCase();
         UserEntity user = userRepository.findByEmail(email)
@@ -74,6 +85,7 @@ public class AuthServiceImpl implements AuthService {
         if (!passwordHasher.matches(request.getPassword(), user.getPasswordHash())) {
             throw new ApiException("INVALID_CREDENTIALS", INVALID_CREDENTIALS, HttpStatus.UNAUTHORIZED);
         }
+        upgradePasswordHash(user, request.getPassword());
         String accessToken = jwtService.createAccessToken(user.getId(), email);
         String refreshToken = refreshTokenService.create(user.getId());
         return AuthResponse.builder()
@@ -83,6 +95,29 @@ public class AuthServiceImpl implements AuthService {
                 .build();
     }
 
+    /**
+     * The plain password is only available here, so outdated hashes are replaced on successful login.
+     * A busy hashing pool just postpones the upgrade to a later login. The update only applies while the
+     * stored hash is still the one verified, so a password change made in the meantime is kept.
+     */
+    private void upgradePasswordHash(UserEntity user, String rawPassword) {
+        if (!passwordHasher.needsRehash(user.getPasswordHash())) {
+            return;
+        }
+        String upgraded;
+        try {
+            upgraded = passwordHasher.hash(rawPassword);
+        } catch (ServiceUnavailableException e) {
+            log.debug("Password hash upgrade for user {} postponed: hashing pool busy", user.getId());
+            return;
+        }
+        Integer updated = new TransactionTemplate(transactionManager).execute(status ->
+                userRepository.updatePasswordHash(user.getId(), user.getPasswordHash(), upgraded, Instant.now()));
+        if (updated != null && updated > 0) {
+            log.info("Upgraded password hash for user {}", user.getId());
+        }
+    }
+
     @Override
     @Transactional
     public RefreshResponse refresh(RefreshRequest request) {
@@ -0,0 +1,39 @@
+package eu.api.service.impl;
+
+import eu.api.repository.UserRepository;
+import eu.api.security.EmergencyTokenFilter;
+import eu.api.service.DataVersionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class DataVersionServiceImpl implements DataVersionService {
+
+    private final UserRepository userRepository;
+    private final EmergencyTokenFilter emergencyTokenFilter;
+
+    @Override
+    @Transactional
+    public void increment(UUID userId) {
+        userRepository.incrementDataVersion(userId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Long> current(UUID userId) {
+        return userRepository.findDataVersion(userId);
+    }
+
+    @Override
+    public Optional<Long> currentForEmergencyToken(String token) {
+        if (!emergencyTokenFilter.mightBeActive(token)) {
+            return Optional.empty();
+        }
+        return userRepository.findDataVersionByEmergencyToken(token);
+    }
+}
@@ -10,7 +10,9 @@ import eu.api.exception.ForbiddenException;
 import eu.api.exception.NotFoundException;
 import eu.api.repository.EmergencyContactRepository;
 import eu.api.service.AuditService;
+import eu.api.service.EmergencySnapshotService;
 import eu.api.service.EmergencyContactService;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -18,6 +20,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
@@ -27,6 +30,8 @@ public class EmergencyContactServiceImpl implements EmergencyContactService {
 
     private final EmergencyContactRepository emergencyContactRepository;
     private final AuditService auditService;
+    private final EmergencySnapshotService emergencySnapshotService;
+    private final EntityManager entityManager;
 
     @Override
     @Transactional(readOnly = true)
@@ -37,6 +42,14 @@ public class EmergencyContactServiceImpl implements EmergencyContactService {
                 .toList();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void stream(UUID userId, Consumer<? super EmergencyContactResponse> sink) {
+        auditService.record(userId, AuditResourceType.EMERGENCY_CONTACT, AuditAction.READ, null);
+        EntityChunks.forEach(emergencyContactRepository.streamByUserIdOrderByPriorityAsc(userId), entityManager,
+                chunk -> chunk.forEach(entity -> sink.accept(toResponse(entity))));
+    }
+
     @Override
     @Transactional
     public EmergencyContactResponse create(UUID userId, CreateEmergencyContactRequest request) {
@@ -49,6 +62,7 @@ public class EmergencyContactServiceImpl implements EmergencyContactService {
                 .priority(priority)
                 .build();
         entity = emergencyContactRepository.save(entity);
+        emergencySnapshotService.markChanged(userId);
         auditService.record(userId, AuditResourceType.EMERGENCY_CONTACT, AuditAction.CREATE, entity.getId());
         return toResponse(entity);
     }
@@ -74,6 +88,7 @@ public class EmergencyContactServiceImpl implements EmergencyContactService {
             entity.setPriority(request.getPriority());
         }
         entity = emergencyContactRepository.save(entity);
+        emergencySnapshotService.markChanged(userId);
         return toResponse(entity);
     }
 
@@ -87,6 +102,7 @@ public class EmergencyContactServiceImpl implements EmergencyContactService {
         }
         entity.setDeletedAt(Instant.now());
         emergencyContactRepository.save(entity);
+        emergencySnapshotService.markChanged(userId);
         auditService.record(userId, AuditResourceType.EMERGENCY_CONTACT, AuditAction.DELETE, contactId);
     }
 
@@ -0,0 +1,177 @@
+package eu.api.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import eu.api.dto.response.EmergencyPublicResponse;
+import eu.api.entity.EmergencySnapshotEntity;
+import eu.api.entity.EmergencyTokenEntity;
+import eu.api.exception.NotFoundException;
+import eu.api.repository.EmergencySnapshotRepository;
+import eu.api.repository.EmergencyTokenRepository;
+import eu.api.repository.UserRepository;
+import eu.api.security.EmergencyTokenFilter;
+import eu.api.service.DataVersionService;
+import eu.api.service.EmergencyCardChangedEvent;
+import eu.api.service.EmergencySnapshotService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Keeps one pre-rendered card per user in emergency_snapshots, so a QR-code scan is a single indexed lookup
+ * whose bytes go to the response as they are. Writers delete the snapshot in their own transaction and it is
+ * rebuilt after they commit. Builds and those deletes (which also bump the user's data version) both take the
+ * user's row lock, so a build can never store a card older than a change that has already committed.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EmergencySnapshotServiceImpl implements EmergencySnapshotService {
+
+    private static final String INVALID_TOKEN = "Token de emergência inválido ou desativado";
+
+    private final EmergencySnapshotRepository snapshotRepository;
+    private final EmergencyTokenRepository emergencyTokenRepository;
+    private final UserRepository userRepository;
+    private final DataVersionService dataVersionService;
+    private final EmergencyTokenFilter emergencyTokenFilter;
+    private final PlatformTransactionManager transactionManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Not transactional itself, so a token the filter rules out is rejected without taking a connection.
+     */
+    @Override
+    public byte[] getCard(String token) {
+        if (!emergencyTokenFilter.mightBeActive(token)) {
+            throw new NotFoundException(INVALID_TOKEN);
+        }
+        List<byte[]> stored = snapshotRepository.findPayloadByToken(token);
+        if (!stored.isEmpty()) {
+            return stored.get(0);
+        }
+        byte[] built = new TransactionTemplate(transactionManager).execute(status ->
+                emergencyTokenRepository.findByTokenAndActiveTrue(token)
+                        .map(tokenEntity -> rebuild(tokenEntity.getUserId()))
+                        .orElse(null));
+        if (built == null) {
+            throw new NotFoundException(INVALID_TOKEN);
+        }
+        return built;
+    }
+
+    @Override
+    @Transactional
+    public void markChanged(UUID userId) {
+        dataVersionService.increment(userId);
+        snapshotRepository.deleteByUserId(userId);
+        eventPublisher.publishEvent(new EmergencyCardChangedEvent(userId));
+    }
+
+    /**
+     * Runs after the writer committed; a failure only leaves the card to be built on the next scan.
+     */
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onCardChanged(EmergencyCardChangedEvent event) {
+        try {
+            rebuild(event.userId());
+        } catch (RuntimeException e) {
+            log.warn("Emergency card rebuild failed for user {}; it will be built on the next scan", event.userId(), e);
+        }
+    }
+
+    /**
+     * Returns the stored bytes, or null when the user has no active token (and so no public card).
+     */
+    private byte[] rebuild(UUID userId) {
+        userRepository.lockById(userId);
+        EmergencyTokenEntity token = emergencyTokenRepository.findByUserId(userId)
+                .filter(EmergencyTokenEntity::getActive)
+                .orElse(null);
+        if (token == null) {
+            snapshotRepository.deleteByUserId(userId);
+            return null;
+        }
+        byte[] payload = serialize(buildCard(emergencyTokenRepository.findEmergencyCard(token.getToken())));
+        EmergencySnapshotEntity snapshot = snapshotRepository.findById(userId)
+                .orElseGet(() -> EmergencySnapshotEntity.builder().userId(userId).build());
+        snapshot.setPayload(payload);
+        snapshot.setBuiltAt(Instant.now());
+        snapshotRepository.save(snapshot);
+        return payload;
+    }
+
+    private byte[] serialize(EmergencyPublicResponse card) {
+        try {
+            return objectMapper.writeValueAsBytes(card);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Emergency card could not be serialised", e);
+        }
+    }
+
+    /**
+     * Maps the rows of {@link EmergencyTokenRepository#findEmergencyCard(String)}; only non-encrypted columns
+     * are shown publicly, so nothing is decrypted here.
+     */
+    private static EmergencyPublicResponse buildCard(List<EmergencyTokenRepository.EmergencyCardRow> rows) {
+        String name = null;
+        String phone = null;
+        String bloodType = "UNKNOWN";
+        List<EmergencyPublicResponse.EmergencyAllergyItem> allergyItems = new ArrayList<>();
+        List<EmergencyPublicResponse.EmergencyMedicationItem> medItems = new ArrayList<>();
+        List<EmergencyPublicResponse.EmergencyContactItem> contactItems = new ArrayList<>();
+        for (EmergencyTokenRepository.EmergencyCardRow row : rows) {
+            switch (row.getKind()) {
+                case EmergencyTokenRepository.CARD_PROFILE -> {
+                    name = row.getName();
+                    phone = row.getDetail();
+                }
+                case EmergencyTokenRepository.CARD_HEALTH -> bloodType = row.getName();
+                // Allergies: only name + severity — no encrypted notes for public view
+                case EmergencyTokenRepository.CARD_ALLERGY -> allergyItems.add(
+                        EmergencyPublicResponse.EmergencyAllergyItem.builder()
+                                .name(row.getName())
+                                .severity(row.getDetail())
+                                .build());
+                // Medications: name + dosage + frequency — no encrypted notes
+                case EmergencyTokenRepository.CARD_MEDICATION -> medItems.add(
+                        EmergencyPublicResponse.EmergencyMedicationItem.builder()
+                                .name(row.getName())
+                                .dosage(row.getDetail())
+                                .frequency(row.getExtra())
+                                .build());
+                case EmergencyTokenRepository.CARD_CONTACT -> contactItems.add(
+                        EmergencyPublicResponse.EmergencyContactItem.builder()
+                                .name(row.getName())
+                                .relationship(row.getDetail())
+                                .phone(row.getExtra())
+                                .priority(row.getPriority())
+                                .build());
+                default -> {
+                }
+            }
+        }
+
+        return EmergencyPublicResponse.builder()
+                .name(name)
+                .bloodType(bloodType)
+                .phone(phone)
+                .allergies(allergyItems)
+                .medications(medItems)
+                .emergencyContacts(contactItems)
+                .build();
+    }
+}
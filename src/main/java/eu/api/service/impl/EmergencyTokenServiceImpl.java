@@ -1,10 +1,15 @@
 package eu.api.service.impl;
 
-import eu.api.dto.response.EmergencyPublicResponse;
 import eu.api.dto.response.EmergencyTokenResponse;
-import eu.api.entity.*;
-import eu.api.exception.NotFoundException;
-import eu.api.repository.*;
+import eu.api.dto.response.OfflineEmergencyCardResponse;
+import eu.api.entity.EmergencyTokenEntity;
+import eu.api.exception.ValidationException;
+import eu.api.offlinecard.InvalidOfflineCardException;
+import eu.api.offlinecard.OfflineCard;
+import eu.api.repository.EmergencyTokenRepository;
+import eu.api.security.EmergencyTokenFilter;
+import eu.api.security.OfflineCardSigner;
+import eu.api.service.EmergencySnapshotService;
 import eu.api.service.EmergencyTokenService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -13,7 +18,6 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.security.SecureRandom;
 import java.util.Base64;
-import java.util.List;
 import java.util.UUID;
 
 @Slf4j
@@ -22,11 +26,9 @@ import java.util.UUID;
 public class EmergencyTokenServiceImpl implements EmergencyTokenService {
 
     private final EmergencyTokenRepository emergencyTokenRepository;
-    private final ProfileRepository profileRepository;
-    private final HealthInfoRepository healthInfoRepository;
-    private final AllergyRepository allergyRepository;
-    private final MedicationRepository medicationRepository;
-    private final EmergencyContactRepository emergencyContactRepository;
+    private final EmergencyTokenFilter emergencyTokenFilter;
+    private final EmergencySnapshotService emergencySnapshotService;
+    private final OfflineCardSigner offlineCardSigner;
 
     private static final SecureRandom RANDOM = new SecureRandom();
 
@@ -42,6 +44,7 @@ public class EmergencyTokenServiceImpl implements EmergencyTokenService {
                             .active(true)
                             .build();
                     emergencyTokenRepository.save(entity);
+                    emergencyTokenFilter.add(entity.getToken());
                     log.info("Emergency token created for user {}", userId);
                     return toTokenResponse(entity);
                 });
@@ -58,67 +61,36 @@ public class EmergencyTokenServiceImpl implements EmergencyTokenService {
         entity.setToken(generateSecureToken());
         entity.setActive(true);
         emergencyTokenRepository.save(entity);
+        emergencyTokenFilter.add(entity.getToken());
         log.info("Emergency token regenerated for user {}", userId);
         return toTokenResponse(entity);
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public EmergencyPublicResponse getEmergencyData(String token) {
-        EmergencyTokenEntity tokenEntity = emergencyTokenRepository.findByTokenAndActiveTrue(token)
-                .orElseThrow(() -> new NotFoundException("Token de emergência inválido ou desativado"));
-
-        UUID userId = tokenEntity.getUserId();
-
-        // Profile name & phone
-        UserProfileEntity profile = profileRepository.findByUserId(userId).orElse(null);
-        String name = profile != null ? profile.getFullName() : null;
-        String phone = profile != null ? profile.getPhone() : null;
-
-        // Blood type
-        HealthInfoEntity health = healthInfoRepository.findByUserId(userId).orElse(null);
-        String bloodType = health != null ? health.getBloodType() : "UNKNOWN";
-
-        // Allergies (only name + severity — no encrypted notes for public view)
-        List<AllergyEntity> allergies = allergyRepository.findByUserIdOrderByCreatedAtAsc(userId);
-        List<EmergencyPublicResponse.EmergencyAllergyItem> allergyItems = allergies.stream()
-                .map(a -> EmergencyPublicResponse.EmergencyAllergyItem.builder()
-                        .name(a.getName())
-                        .severity(a.getSeverity())
-                        .build())
-                .toList();
-
-        // Medications (name + dosage + frequency — no encrypted notes)
-        List<MedicationEntity> medications = medicationRepository.findByUserIdOrderByCreatedAtAsc(userId);
-        List<EmergencyPublicResponse.EmergencyMedicationItem> medItems = medications.stream()
-                .map(m -> EmergencyPublicResponse.EmergencyMedicationItem.builder()
-                        .name(m.getName())
-                        .dosage(m.getDosage())
-                        .frequency(m.getFrequency())
-                        .build())
-                .toList();
-
-        // Emergency contacts
-        List<EmergencyContactEntity> contacts = emergencyContactRepository.findByUserIdOrderByPriorityAsc(userId);
-        List<EmergencyPublicResponse.EmergencyContactItem> contactItems = contacts.stream()
-                .map(c -> EmergencyPublicResponse.EmergencyContactItem.builder()
-                        .name(c.getName())
-                        .relationship(c.getRelationship())
-                        .phone(c.getPhone())
-                        .priority(c.getPriority())
-                        .build())
-                .toList();
-
-        return EmergencyPublicResponse.builder()
-                .name(name)
-                .bloodType(bloodType)
-                .phone(phone)
-                .allergies(allergyItems)
-                .medications(medItems)
-                .emergencyContacts(contactItems)
+    @Transactional
+    public OfflineEmergencyCardResponse issueOfflineCard(UUID userId) {
+        EmergencyTokenResponse token = getOrCreateToken(userId);
+        OfflineCardSigner.SignedCard signed = offlineCardSigner.sign(emergencySnapshotService.getCard(token.getToken()));
+        if (signed.card().length() > OfflineCard.MAX_QR_CHARS) {
+            throw new ValidationException("Emergency card is too large for a QR code");
+        }
+        return OfflineEmergencyCardResponse.builder()
+                .card(signed.card())
+                .keyId(signed.keyId())
+                .issuedAt(signed.issuedAt())
+                .expiresAt(signed.expiresAt())
                 .build();
     }
 
+    @Override
+    public byte[] verifyOfflineCard(String card) {
+        try {
+            return offlineCardSigner.verifier().verify(card).cardJson();
+        } catch (InvalidOfflineCardException e) {
+            throw new ValidationException(e.getMessage());
+        }
+    }
+
     private String generateSecureToken() {
         byte[] bytes = new byte[32];
         RANDOM.nextBytes(bytes);
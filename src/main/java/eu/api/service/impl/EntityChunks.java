@@ -0,0 +1,42 @@
+package eu.api.service.impl;
+
+import jakarta.persistence.EntityManager;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Walks a forward-only entity stream in chunks, so encrypted fields can still be revealed with one batch
+ * call per chunk. Each chunk is detached once handled: the persistence context never holds more than
+ * {@link #SIZE} rows, however many the user has.
+ */
+final class EntityChunks {
+
+    static final int SIZE = 100;
+
+    private EntityChunks() {
+    }
+
+    /**
+     * Closes the stream; returns the number of rows seen.
+     */
+    static <E> int forEach(Stream<E> rows, EntityManager entityManager, Consumer<List<E>> handler) {
+        int total = 0;
+        List<E> chunk = new ArrayList<>(SIZE);
+        try (rows) {
+            for (Iterator<E> it = rows.iterator(); it.hasNext(); ) {
+                chunk.add(it.next());
+                if (chunk.size() == SIZE || !it.hasNext()) {
+                    handler.accept(chunk);
+                    chunk.forEach(entityManager::detach);
+                    total += chunk.size();
+                    chunk.clear();
+                }
+            }
+        }
+        return total;
+    }
+}
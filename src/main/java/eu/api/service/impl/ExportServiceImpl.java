@@ -0,0 +1,279 @@
+package eu.api.service.impl;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import eu.api.dto.response.*;
+import eu.api.exception.ApiException;
+import eu.api.exception.ServiceUnavailableException;
+import eu.api.service.*;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Loads the six export sections in parallel, one virtual thread each, so an export takes as long as its
+ * slowest section instead of the sum of all six. Each section still runs in its own service transaction.
+ * <p>
+ * The whole export shares one deadline (export.deadline-ms). A section still running at the deadline is
+ * cancelled and reported as TIMEOUT; one that throws is reported as ERROR. The profile is the one required
+ * section: without it the export fails with 503 rather than returning data with no owner. Every section holds
+ * a database connection while it runs, plus a second one (REQUIRES_NEW) when the user's data key is not
+ * cached, so at most export.max-concurrent-loads of them run at once across all exports, and never more than
+ * a quarter of the connection pool: exports then use at most half the pool, leaving the rest to sign-in and
+ * the emergency card.
+ * <p>
+ * The streaming variant writes with a JsonGenerator straight to the response and takes list sections from
+ * the services' forward-only streams, one item at a time. A streamed section keeps its transaction open
+ * while the client reads, at the client's pace, so it holds a load permit for that time too, and at most
+ * export.stream.max-concurrent streams run at once; further ones get 503 before anything is written.
+ * <p>
+ * Metrics: export.duration{outcome=complete|partial|failed}, export.stream.duration{outcome=complete|failed}
+ * and export.section.duration{section}, all with p50/p99.
+ */
+@Slf4j
+@Service
+public class ExportServiceImpl implements ExportService {
+
+    static final String PROFILE = "profile";
+    static final String HEALTH = "health";
+    static final String ALLERGIES = "allergies";
+    static final String MEDICATIONS = "medications";
+    static final String EMERGENCY_CONTACTS = "emergencyContacts";
+    static final String ADDRESSES = "addresses";
+
+    private static final String UNAVAILABLE_MESSAGE = "Export could not be completed; try again shortly";
+
+    private final ProfileService profileService;
+    private final HealthInfoService healthInfoService;
+    private final AllergyService allergyService;
+    private final MedicationService medicationService;
+    private final EmergencyContactService emergencyContactService;
+    private final AddressService addressService;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("export-", 0).factory());
+    private final Semaphore loadPermits;
+    private final Semaphore streamSlots;
+    private final long deadlineNanos;
+
+    public ExportServiceImpl(ProfileService profileService,
+                             HealthInfoService healthInfoService,
+                             AllergyService allergyService,
+                             MedicationService medicationService,
+                             EmergencyContactService emergencyContactService,
+                             AddressService addressService,
+                             MeterRegistry meterRegistry,
+                             ObjectMapper objectMapper,
+                             @Value("${export.deadline-ms:5000}") long deadlineMs,
+                             @Value("${export.max-concurrent-loads:0}") int maxConcurrentLoads,
+                             @Value("${export.stream.max-concurrent:1}") int maxConcurrentStreams,
+                             @Value("${spring.datasource.hikari.maximum-pool-size:10}") int connectionPoolSize) {
+        this.profileService = profileService;
+        this.healthInfoService = healthInfoService;
+        this.allergyService = allergyService;
+        this.medicationService = medicationService;
+        this.emergencyContactService = emergencyContactService;
+        this.addressService = addressService;
+        this.meterRegistry = meterRegistry;
+        this.objectMapper = objectMapper;
+        this.deadlineNanos = TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+        int loadCap = Math.max(1, connectionPoolSize / 4);
+        if (maxConcurrentLoads > loadCap) {
+            log.warn("export.max-concurrent-loads={} capped at {} (a quarter of the connection pool)",
+                    maxConcurrentLoads, loadCap);
+        }
+        this.loadPermits = new Semaphore(maxConcurrentLoads > 0 ? Math.min(maxConcurrentLoads, loadCap) : loadCap);
+        this.streamSlots = new Semaphore(Math.max(1, maxConcurrentStreams));
+    }
+
+    @Override
+    public ExportDataResponse exportAll(UUID userId) {
+        long startedAt = System.nanoTime();
+        long deadline = startedAt + deadlineNanos;
+        Future<?>[] all = new Future<?>[6];
+        Future<ProfileResponse> profile = submit(PROFILE, () -> profileService.getProfile(userId), all, 0);
+        Future<HealthInfoResponse> health = submit(HEALTH, () -> healthInfoService.getHealthInfo(userId, true), all, 1);
+        Future<List<AllergyListItemResponse>> allergies = submit(ALLERGIES, () -> allergyService.list(userId, true), all, 2);
+        Future<List<MedicationListItemResponse>> medications =
+                submit(MEDICATIONS, () -> medicationService.list(userId, true), all, 3);
+        Future<List<EmergencyContactResponse>> contacts =
+                submit(EMERGENCY_CONTACTS, () -> emergencyContactService.list(userId), all, 4);
+        Future<List<AddressResponse>> addresses = submit(ADDRESSES, () -> addressService.list(userId), all, 5);
+
+        List<ExportDataResponse.SectionFailure> failures = new ArrayList<>();
+        try {
+            ProfileResponse loadedProfile = await(PROFILE, profile, deadline, failures);
+            if (loadedProfile == null) {
+                throw new ServiceUnavailableException(UNAVAILABLE_MESSAGE);
+            }
+            ExportDataResponse response = ExportDataResponse.builder()
+                    .profile(loadedProfile)
+                    .health(await(HEALTH, health, deadline, failures))
+                    .allergies(await(ALLERGIES, allergies, deadline, failures))
+                    .medications(await(MEDICATIONS, medications, deadline, failures))
+                    .emergencyContacts(await(EMERGENCY_CONTACTS, contacts, deadline, failures))
+                    .addresses(await(ADDRESSES, addresses, deadline, failures))
+                    .exportedAt(Instant.now().toString())
+                    .complete(failures.isEmpty())
+                    .failedSections(failures.isEmpty() ? null : failures)
+                    .build();
+            record(startedAt, failures.isEmpty() ? "complete" : "partial");
+            return response;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancelAll(all);
+            record(startedAt, "failed");
+            throw new ServiceUnavailableException(UNAVAILABLE_MESSAGE);
+        } catch (RuntimeException e) {
+            cancelAll(all);
+            record(startedAt, "failed");
+            throw e;
+        }
+    }
+
+    @Override
+    public void streamAll(UUID userId, OutputStream out) throws IOException {
+        if (!streamSlots.tryAcquire()) {
+            throw new ServiceUnavailableException(UNAVAILABLE_MESSAGE);
+        }
+        long startedAt = System.nanoTime();
+        String outcome = "failed";
+        try (JsonGenerator json = objectMapper.createGenerator(out, JsonEncoding.UTF8)) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.writeStartObject();
+            json.writePOJOField(PROFILE, withLoadPermit(() -> profileService.getProfile(userId)));
+            json.writePOJOField(HEALTH, withLoadPermit(() -> healthInfoService.getHealthInfo(userId, true)));
+            writeArray(json, ALLERGIES, sink -> allergyService.stream(userId, true, sink));
+            writeArray(json, MEDICATIONS, sink -> medicationService.stream(userId, true, sink));
+            writeArray(json, EMERGENCY_CONTACTS, sink -> emergencyContactService.stream(userId, sink));
+            writeArray(json, ADDRESSES, sink -> addressService.stream(userId, sink));
+            json.writeStringField("exportedAt", Instant.now().toString());
+            json.writeBooleanField("complete", true);
+            json.writeEndObject();
+            outcome = "complete";
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            streamSlots.release();
+            record("export.stream.duration", startedAt, outcome);
+        }
+    }
+
+    /**
+     * Writes "field": [ ... ] with the items source hands to its sink; the array is never held in memory.
+     */
+    private void writeArray(JsonGenerator json, String field, Consumer<Consumer<Object>> source) throws IOException {
+        json.writeArrayFieldStart(field);
+        withLoadPermit(() -> {
+            source.accept(item -> {
+                try {
+                    json.writeObject(item);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            return null;
+        });
+        json.writeEndArray();
+    }
+
+    /**
+     * Runs load holding one of the permits the parallel export uses, waiting at most export.deadline-ms for it.
+     */
+    private <T> T withLoadPermit(Supplier<T> load) {
+        try {
+            if (!loadPermits.tryAcquire(deadlineNanos, TimeUnit.NANOSECONDS)) {
+                throw new ServiceUnavailableException(UNAVAILABLE_MESSAGE);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException(UNAVAILABLE_MESSAGE);
+        }
+        try {
+            return load.get();
+        } finally {
+            loadPermits.release();
+        }
+    }
+
+    private <T> Future<T> submit(String section, Callable<T> load, Future<?>[] all, int slot) {
+        Timer timer = Timer.builder("export.section.duration").tag("section", section)
+                .publishPercentiles(0.5, 0.99).register(meterRegistry);
+        Future<T> future = executor.submit(() -> {
+            loadPermits.acquire();
+            try {
+                return timer.recordCallable(load);
+            } finally {
+                loadPermits.release();
+            }
+        });
+        all[slot] = future;
+        return future;
+    }
+
+    /**
+     * The section's value, or null after adding it to failures.
+     */
+    private <T> T await(String section, Future<T> future, long deadline, List<ExportDataResponse.SectionFailure> failures)
+            throws InterruptedException {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("Export section {} missed the deadline", section);
+            failures.add(new ExportDataResponse.SectionFailure(section, ExportDataResponse.FailureReason.TIMEOUT));
+        } catch (ExecutionException e) {
+            if (PROFILE.equals(section) && e.getCause() instanceof ApiException api) {
+                throw api;
+            }
+            log.warn("Export section {} failed error={}", section, e.getCause().getClass().getSimpleName());
+            failures.add(new ExportDataResponse.SectionFailure(section, ExportDataResponse.FailureReason.ERROR));
+        }
+        return null;
+    }
+
+    private static void cancelAll(Future<?>[] futures) {
+        for (Future<?> future : futures) {
+            future.cancel(true);
+        }
+    }
+
+    private void record(long startedAt, String outcome) {
+        record("export.duration", startedAt, outcome);
+    }
+
+    private void record(String name, long startedAt, String outcome) {
+        Timer.builder(name).tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry)
+                .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -6,17 +6,17 @@ import eu.api.domain.BloodType;
 import eu.api.dto.request.UpdateHealthRequest;
 import eu.api.dto.response.HealthInfoResponse;
 import eu.api.entity.HealthInfoEntity;
-import eu.api.crypto.CryptoService;
+import eu.api.crypto.EncryptedString;
 import eu.api.repository.AllergyRepository;
 import eu.api.repository.HealthInfoRepository;
 import eu.api.repository.MedicationRepository;
 import eu.api.service.AuditService;
+import eu.api.service.EmergencySnapshotService;
 import eu.api.service.HealthInfoService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Optional;
 import java.util.UUID;
 
 @Service
@@ -28,14 +28,14 @@ public class HealthInfoServiceImpl implements HealthInfoService {
     private final HealthInfoRepository healthInfoRepository;
     private final AllergyRepository allergyRepository;
     private final MedicationRepository medicationRepository;
-    private final CryptoService cryptoService;
     private final AuditService auditService;
+    private final EmergencySnapshotService emergencySnapshotService;
 
     @Override
     @Transactional(readOnly = true)
     public HealthInfoResponse getHealthInfo(UUID userId, boolean includeNotes) {
-        int allergyCount = allergyRepository.findByUserIdOrderByCreatedAtAsc(userId).size();
-        int medicationCount = medicationRepository.findByUserIdOrderByCreatedAtAsc(userId).size();
+        int allergyCount = Math.toIntExact(allergyRepository.countByUserId(userId));
+        int medicationCount = Math.toIntExact(medicationRepository.countByUserId(userId));
         return healthInfoRepository.findByUserId(userId)
                 .map(entity -> {
                     auditService.record(userId, AuditResourceType.HEALTH_INFO, AuditAction.READ, entity.getId());
@@ -62,17 +62,21 @@ public class HealthInfoServiceImpl implements HealthInfoService {
         }
         if (request.getMedicalNotes() != null) {
             String plain = request.getMedicalNotes().trim().isEmpty() ? null : request.getMedicalNotes().trim();
-            entity.setMedicalNotes(plain == null ? null : cryptoService.encrypt(plain));
+            entity.setMedicalNotes(EncryptedString.of(plain));
+            entity.setLegacyMedicalNotes(null);
         }
         entity = healthInfoRepository.save(entity);
+        emergencySnapshotService.markChanged(userId);
         auditService.record(userId, AuditResourceType.HEALTH_INFO, AuditAction.UPDATE, entity.getId());
-        int allergyCount = allergyRepository.findByUserIdOrderByCreatedAtAsc(userId).size();
-        int medicationCount = medicationRepository.findByUserIdOrderByCreatedAtAsc(userId).size();
+        int allergyCount = Math.toIntExact(allergyRepository.countByUserId(userId));
+        int medicationCount = Math.toIntExact(medicationRepository.countByUserId(userId));
         return toResponse(entity, allergyCount, medicationCount, true);
     }
 
     private HealthInfoResponse toResponse(HealthInfoEntity entity, int allergyCount, int medicationCount, boolean includeNotes) {
-        String medicalNotes = includeNotes ? decrypt(entity.getMedicalNotes()) : null;
+        String medicalNotes = includeNotes
+                ? EncryptedString.reveal(EncryptedString.orLegacy(entity.getMedicalNotes(), entity.getLegacyMedicalNotes()))
+                : null;
         return HealthInfoResponse.builder()
                 .bloodType(entity.getBloodType())
                 .allergyCount(allergyCount)
@@ -80,9 +84,4 @@ public class HealthInfoServiceImpl implements HealthInfoService {
                 .medicalNotes(medicalNotes)
                 .build();
     }
-
-    private String decrypt(String encrypted) {
-        return Optional.ofNullable(encrypted).filter(s -> !s.isBlank())
-                .map(cryptoService::decrypt).orElse(null);
-    }
 }
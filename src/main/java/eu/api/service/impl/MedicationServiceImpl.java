@@ -8,53 +8,63 @@ import eu.api.dto.response.MedicationListItemResponse;
 import eu.api.entity.MedicationEntity;
 import eu.api.exception.ForbiddenException;
 import eu.api.exception.NotFoundException;
-import eu.api.crypto.CryptoService;
+import eu.api.crypto.EncryptedString;
 import eu.api.repository.MedicationRepository;
 import eu.api.service.AuditService;
+import eu.api.service.EmergencySnapshotService;
 import eu.api.service.MedicationService;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
 public class MedicationServiceImpl implements MedicationService {
 
     private final MedicationRepository medicationRepository;
-    private final CryptoService cryptoService;
     private final AuditService auditService;
+    private final EmergencySnapshotService emergencySnapshotService;
+    private final EntityManager entityManager;
 
     @Override
     @Transactional(readOnly = true)
     public List<MedicationListItemResponse> list(UUID userId, boolean includeNotes) {
         auditService.record(userId, AuditResourceType.MEDICATION, AuditAction.READ, null);
-        return medicationRepository.findByUserIdOrderByCreatedAtAsc(userId).stream()
-                .map(e -> toItemResponse(e, includeNotes))
-                .toList();
+        return toItemResponses(medicationRepository.findByUserIdOrderByCreatedAtAsc(userId), includeNotes);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void stream(UUID userId, boolean includeNotes, Consumer<? super MedicationListItemResponse> sink) {
+        auditService.record(userId, AuditResourceType.MEDICATION, AuditAction.READ, null);
+        EntityChunks.forEach(medicationRepository.streamByUserIdOrderByCreatedAtAsc(userId), entityManager,
+                chunk -> toItemResponses(chunk, includeNotes).forEach(sink));
     }
 
     @Override
     @Transactional
     public MedicationListItemResponse create(UUID userId, CreateMedicationRequest request) {
-        String notesEncrypted = encryptNotes(request.getNotes());
         MedicationEntity entity = MedicationEntity.builder()
                 .userId(userId)
                 .name(request.getName().trim())
                 .dosage(trimOrNull(request.getDosage()))
                 .frequency(trimOrNull(request.getFrequency()))
-                .notes(notesEncrypted)
+                .notes(newNotes(request.getNotes()))
                 .active(request.getActive() != null ? request.getActive() : true)
                 .startedAt(parseDate(request.getStartedAt()))
                 .stoppedAt(parseDate(request.getStoppedAt()))
                 .build();
         entity = medicationRepository.save(entity);
-        return toItemResponse(entity, true);
+        emergencySnapshotService.markChanged(userId);
+        return toItemResponse(entity, EncryptedString.reveal(notesOf(entity)));
     }
 
     @Override
@@ -75,7 +85,8 @@ public class MedicationServiceImpl implements MedicationService {
             entity.setFrequency(trimOrNull(request.getFrequency()));
         }
         if (request.getNotes() != null) {
-            entity.setNotes(encryptNotes(request.getNotes()));
+            entity.setNotes(newNotes(request.getNotes()));
+            entity.setLegacyNotes(null);
         }
         if (request.getActive() != null) {
             entity.setActive(request.getActive());
@@ -87,8 +98,9 @@ public class MedicationServiceImpl implements MedicationService {
             entity.setStoppedAt(parseDate(request.getStoppedAt()));
         }
         entity = medicationRepository.save(entity);
+        emergencySnapshotService.markChanged(userId);
         auditService.record(userId, AuditResourceType.MEDICATION, AuditAction.UPDATE, medicationId);
-        return toItemResponse(entity, true);
+        return toItemResponse(entity, EncryptedString.reveal(notesOf(entity)));
     }
 
     @Override
@@ -101,11 +113,23 @@ public class MedicationServiceImpl implements MedicationService {
         }
         entity.setDeletedAt(Instant.now());
         medicationRepository.save(entity);
+        emergencySnapshotService.markChanged(userId);
         auditService.record(userId, AuditResourceType.MEDICATION, AuditAction.DELETE, medicationId);
     }
 
-    private MedicationListItemResponse toItemResponse(MedicationEntity entity, boolean includeNotes) {
-        String notes = includeNotes ? decryptNotes(entity.getNotes()) : null;
+    private List<MedicationListItemResponse> toItemResponses(List<MedicationEntity> entities, boolean includeNotes) {
+        if (!includeNotes) {
+            return entities.stream().map(e -> toItemResponse(e, null)).toList();
+        }
+        List<String> notes = EncryptedString.revealAll(entities.stream().map(this::notesOf).toList());
+        List<MedicationListItemResponse> responses = new ArrayList<>(entities.size());
+        for (int i = 0; i < entities.size(); i++) {
+            responses.add(toItemResponse(entities.get(i), notes.get(i)));
+        }
+        return responses;
+    }
+
+    private MedicationListItemResponse toItemResponse(MedicationEntity entity, String notes) {
         return MedicationListItemResponse.builder()
                 .id(entity.getId())
                 .name(entity.getName())
@@ -125,16 +149,15 @@ public class MedicationServiceImpl implements MedicationService {
         return s.trim();
     }
 
-    private String encryptNotes(String notes) {
+    private EncryptedString newNotes(String notes) {
         if (notes == null || notes.trim().isEmpty()) {
             return null;
         }
-        return cryptoService.encrypt(notes.trim());
+        return EncryptedString.of(notes.trim());
     }
 
-    private String decryptNotes(String encrypted) {
-        return Optional.ofNullable(encrypted).filter(str -> !str.isBlank())
-                .map(cryptoService::decrypt).orElse(null);
+    private EncryptedString notesOf(MedicationEntity entity) {
+        return EncryptedString.orLegacy(entity.getNotes(), entity.getLegacyNotes());
     }
 
     private LocalDate parseDate(String dateStr) {
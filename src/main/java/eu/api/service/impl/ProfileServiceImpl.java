@@ -4,15 +4,15 @@ import eu.api.dto.request.UpdateProfileRequest;
 import eu.api.dto.response.ProfileResponse;
 import eu.api.entity.UserProfileEntity;
 import eu.api.exception.NotFoundException;
-import eu.api.crypto.CryptoService;
+import eu.api.crypto.EncryptedString;
 import eu.api.mapper.ProfileMapper;
 import eu.api.repository.ProfileRepository;
+import eu.api.service.EmergencySnapshotService;
 import eu.api.service.ProfileService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Optional;
 import java.util.UUID;
 
 @Service
@@ -20,16 +20,15 @@ import java.util.UUID;
 public class ProfileServiceImpl implements ProfileService {
 
     private final ProfileRepository profileRepository;
-    private final CryptoService cryptoService;
     private final ProfileMapper profileMapper;
+    private final EmergencySnapshotService emergencySnapshotService;
 
     @Override
     @Transactional(readOnly = true)
     public ProfileResponse getProfile(UUID userId) {
         UserProfileEntity entity = profileRepository.findByUserId(userId)
                 .orElseThrow(() -> new NotFoundException("Profile not found"));
-        String decryptedWorkplace = decryptWorkplace(entity.getWorkplace());
-        return profileMapper.toResponse(entity, decryptedWorkplace);
+        return profileMapper.toResponse(entity, workplaceOf(entity));
     }
 
     @Override
@@ -48,17 +47,15 @@ public class ProfileServiceImpl implements ProfileService {
         }
         if (request.getWorkplace() != null) {
             String plain = request.getWorkplace().trim().isEmpty() ? null : request.getWorkplace().trim();
-            entity.setWorkplace(plain == null ? null : cryptoService.encrypt(plain));
+            entity.setWorkplace(EncryptedString.of(plain));
+            entity.setLegacyWorkplace(null);
         }
         entity = profileRepository.save(entity);
-        String decryptedWorkplace = decryptWorkplace(entity.getWorkplace());
-        return profileMapper.toResponse(entity, decryptedWorkplace);
+        emergencySnapshotService.markChanged(userId);
+        return profileMapper.toResponse(entity, workplaceOf(entity));
     }
 
-    private String decryptWorkplace(String encrypted) {
-        if (encrypted == null || encrypted.isBlank()) {
-            return null;
-        }
-        return Optional.ofNullable(cryptoService.decrypt(encrypted)).orElse(null);
+    private String workplaceOf(UserProfileEntity entity) {
+        return EncryptedString.reveal(EncryptedString.orLegacy(entity.getWorkplace(), entity.getLegacyWorkplace()));
     }
 }
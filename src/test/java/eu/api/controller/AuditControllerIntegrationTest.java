@@ -0,0 +1,130 @@
+package eu.api.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import eu.api.dto.request.RegisterRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AuditControllerIntegrationTest {
+
+    private static final String AUDIT_URL = "/api/v1/me/audit";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID userId;
+    private String accessToken;
+
+    @BeforeEach
+    void register() throws Exception {
+        RegisterRequest reg = RegisterRequest.builder()
+                .email("audit-" + UUID.randomUUID() + "@example.com")
+                .password("password123")
+                .fullName("Audit User")
+                .build();
+        MvcResult result = mockMvc.perform(post("/api/v1/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(reg)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        JsonNode auth = objectMapper.readTree(result.getResponse().getContentAsString());
+        userId = UUID.fromString(auth.get("userId").asText());
+        accessToken = auth.get("accessToken").asText();
+    }
+
+    @Test
+    void pages_walkTheTrailNewestFirstWithoutGapsOrRepeats() throws Exception {
+        Instant base = Instant.now().truncatedTo(ChronoUnit.SECONDS).minusSeconds(3600);
+        List<UUID> expected = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            // two rows per timestamp, so the id tie-break is exercised
+            Instant at = base.plusSeconds(i / 2);
+            expected.add(insert(userId, "ALLERGY", i == 4 ? "UPDATE" : "READ", at));
+        }
+        insert(UUID.randomUUID(), "ALLERGY", "READ", base);
+
+        List<UUID> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            MockHttpServletRequestBuilder request = get(AUDIT_URL).param("limit", "2")
+                    .header("Authorization", "Bearer " + accessToken);
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            JsonNode page = objectMapper.readTree(mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            page.get("items").forEach(item -> seen.add(UUID.fromString(item.get("id").asText())));
+            cursor = page.hasNonNull("nextCursor") ? page.get("nextCursor").asText() : null;
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(seen).containsExactlyInAnyOrderElementsOf(expected);
+        assertThat(seen.get(0)).isEqualTo(expected.get(4));
+    }
+
+    @Test
+    void filters_andInvalidParameters() throws Exception {
+        Instant at = Instant.now().minusSeconds(60);
+        insert(userId, "MEDICATION", "READ", at);
+        UUID update = insert(userId, "MEDICATION", "UPDATE", at.plusSeconds(1));
+        insert(userId, "ALLERGY", "UPDATE", at.plusSeconds(2));
+
+        mockMvc.perform(get(AUDIT_URL).param("resourceType", "MEDICATION").param("action", "update")
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].id").value(update.toString()))
+                .andExpect(jsonPath("$.items[0].count").value(1))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        mockMvc.perform(get(AUDIT_URL).param("action", "PEEK").header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get(AUDIT_URL).param("cursor", "not-a-cursor").header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get(AUDIT_URL).param("limit", "1000").header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get(AUDIT_URL)).andExpect(status().is4xxClientError());
+    }
+
+    private UUID insert(UUID owner, String resourceType, String action, Instant createdAt) {
+        UUID id = UUID.randomUUID();
+        Timestamp at = Timestamp.from(createdAt);
+        jdbcTemplate.update("""
+                        INSERT INTO audit_events (id, user_id, resource_type, action, created_at, updated_at)
+                        VALUES (?, ?, ?, ?, ?, ?)""",
+                id, owner, resourceType, action, at, at);
+        return id;
+    }
+}
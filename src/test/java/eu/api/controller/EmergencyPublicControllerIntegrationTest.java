@@ -0,0 +1,199 @@
+package eu.api.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import eu.api.dto.request.RegisterRequest;
+import eu.api.entity.AllergyEntity;
+import eu.api.entity.EmergencyContactEntity;
+import eu.api.entity.HealthInfoEntity;
+import eu.api.entity.MedicationEntity;
+import eu.api.repository.AllergyRepository;
+import eu.api.repository.EmergencyContactRepository;
+import eu.api.repository.EmergencySnapshotRepository;
+import eu.api.repository.EmergencyTokenRepository;
+import eu.api.repository.HealthInfoRepository;
+import eu.api.repository.MedicationRepository;
+import eu.api.service.EmergencyTokenService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class EmergencyPublicControllerIntegrationTest {
+
+    private static final String EMERGENCY_URL = "/api/v1/emergency/";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private EmergencyTokenService emergencyTokenService;
+    @Autowired
+    private EmergencyTokenRepository emergencyTokenRepository;
+    @Autowired
+    private HealthInfoRepository healthInfoRepository;
+    @Autowired
+    private AllergyRepository allergyRepository;
+    @Autowired
+    private MedicationRepository medicationRepository;
+    @Autowired
+    private EmergencyContactRepository emergencyContactRepository;
+
+    @Autowired
+    private EmergencySnapshotRepository emergencySnapshotRepository;
+
+    private UUID userId;
+    private String accessToken;
+
+    @BeforeEach
+    void register() throws Exception {
+        RegisterRequest reg = RegisterRequest.builder()
+                .email("emergency-" + UUID.randomUUID() + "@example.com")
+                .password("password123")
+                .fullName("Maria Silva")
+                .build();
+        MvcResult result = mockMvc.perform(post("/api/v1/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(reg)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        JsonNode auth = objectMapper.readTree(result.getResponse().getContentAsString());
+        userId = UUID.fromString(auth.get("userId").asText());
+        accessToken = auth.get("accessToken").asText();
+    }
+
+    @Test
+    void validToken_returnsWholeCardInDisplayOrder() throws Exception {
+        healthInfoRepository.save(HealthInfoEntity.builder().userId(userId).bloodType("O_NEG").build());
+        allergyRepository.save(AllergyEntity.builder().userId(userId).name("Penicillin").severity("HIGH").build());
+        allergyRepository.save(AllergyEntity.builder().userId(userId).name("Latex").severity("LOW").build());
+        medicationRepository.save(MedicationEntity.builder().userId(userId).name("Insulin").dosage("10u").frequency("daily").build());
+        emergencyContactRepository.save(EmergencyContactEntity.builder().userId(userId).name("Second").phone("222").priority(2).build());
+        emergencyContactRepository.save(EmergencyContactEntity.builder().userId(userId).name("First").relationship("Mother").phone("111").priority(1).build());
+        String token = emergencyTokenService.getOrCreateToken(userId).getToken();
+
+        mockMvc.perform(get(EMERGENCY_URL + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Maria Silva"))
+                .andExpect(jsonPath("$.bloodType").value("O_NEG"))
+                .andExpect(jsonPath("$.allergies.length()").value(2))
+                .andExpect(jsonPath("$.allergies[0].name").value("Penicillin"))
+                .andExpect(jsonPath("$.allergies[1].severity").value("LOW"))
+                .andExpect(jsonPath("$.medications[0].dosage").value("10u"))
+                .andExpect(jsonPath("$.medications[0].frequency").value("daily"))
+                .andExpect(jsonPath("$.emergencyContacts[0].name").value("First"))
+                .andExpect(jsonPath("$.emergencyContacts[0].relationship").value("Mother"))
+                .andExpect(jsonPath("$.emergencyContacts[0].phone").value("111"))
+                .andExpect(jsonPath("$.emergencyContacts[1].priority").value(2));
+    }
+
+    @Test
+    void tokenWithoutHealthData_returnsDefaults() throws Exception {
+        String token = emergencyTokenService.getOrCreateToken(userId).getToken();
+
+        mockMvc.perform(get(EMERGENCY_URL + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bloodType").value("UNKNOWN"))
+                .andExpect(jsonPath("$.allergies").isEmpty())
+                .andExpect(jsonPath("$.emergencyContacts").isEmpty());
+    }
+
+    @Test
+    void committedChange_replacesStoredCard() throws Exception {
+        String token = emergencyTokenService.getOrCreateToken(userId).getToken();
+        mockMvc.perform(get(EMERGENCY_URL + token))
+                .andExpect(jsonPath("$.allergies").isEmpty());
+        assertThat(emergencySnapshotRepository.findById(userId)).isPresent();
+
+        mockMvc.perform(post("/api/v1/me/allergies")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Peanuts\",\"severity\":\"HIGH\"}"))
+                .andExpect(status().is2xxSuccessful());
+
+        assertThat(new String(emergencySnapshotRepository.findById(userId).orElseThrow().getPayload(),
+                StandardCharsets.UTF_8)).contains("Peanuts");
+        mockMvc.perform(get(EMERGENCY_URL + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.allergies[0].name").value("Peanuts"));
+    }
+
+    @Test
+    void matchingETag_returns304UntilCardChanges() throws Exception {
+        String token = emergencyTokenService.getOrCreateToken(userId).getToken();
+        String etag = mockMvc.perform(get(EMERGENCY_URL + token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertThat(etag).isNotNull();
+
+        mockMvc.perform(get(EMERGENCY_URL + token).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(post("/api/v1/me/allergies")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Peanuts\",\"severity\":\"HIGH\"}"))
+                .andExpect(status().is2xxSuccessful());
+
+        mockMvc.perform(get(EMERGENCY_URL + token).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.allergies[0].name").value("Peanuts"));
+    }
+
+    @Test
+    void offlineCard_verifiesWithoutTheToken() throws Exception {
+        allergyRepository.save(AllergyEntity.builder().userId(userId).name("Penicillin").severity("HIGH").build());
+        MvcResult issued = mockMvc.perform(get("/api/v1/me/emergency-token/offline-card")
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.card").value(startsWith("EC1:")))
+                .andReturn();
+        String card = objectMapper.readTree(issued.getResponse().getContentAsString()).get("card").asText();
+
+        mockMvc.perform(post(EMERGENCY_URL + "offline/verify")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("card", card))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Maria Silva"))
+                .andExpect(jsonPath("$.allergies[0].name").value("Penicillin"));
+
+        mockMvc.perform(post(EMERGENCY_URL + "offline/verify")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("card", card.substring(0, card.length() - 3)))))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get(EMERGENCY_URL + "offline/keys"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.keys[0].crv").value("P-256"));
+    }
+
+    @Test
+    void inactiveOrUnknownToken_returns404() throws Exception {
+        String token = emergencyTokenService.getOrCreateToken(userId).getToken();
+        emergencyTokenRepository.findByUserId(userId).ifPresent(entity -> {
+            entity.setActive(false);
+            emergencyTokenRepository.save(entity);
+        });
+
+        mockMvc.perform(get(EMERGENCY_URL + token)).andExpect(status().isNotFound());
+        mockMvc.perform(get(EMERGENCY_URL + "unknown")).andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,105 @@
+package eu.api.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import eu.api.crypto.EncryptedString;
+import eu.api.dto.request.RegisterRequest;
+import eu.api.entity.MedicationEntity;
+import eu.api.repository.MedicationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ExportControllerIntegrationTest {
+
+    private static final String EXPORT_URL = "/api/v1/me/export";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private MedicationRepository medicationRepository;
+
+    private UUID userId;
+    private String accessToken;
+
+    @BeforeEach
+    void register() throws Exception {
+        RegisterRequest reg = RegisterRequest.builder()
+                .email("export-" + UUID.randomUUID() + "@example.com")
+                .password("password123")
+                .fullName("Export User")
+                .build();
+        MvcResult result = mockMvc.perform(post("/api/v1/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(reg)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        JsonNode auth = objectMapper.readTree(result.getResponse().getContentAsString());
+        userId = UUID.fromString(auth.get("userId").asText());
+        accessToken = auth.get("accessToken").asText();
+    }
+
+    @Test
+    void streamedExport_matchesTheBufferedOne() throws Exception {
+        List<MedicationEntity> medications = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            medications.add(MedicationEntity.builder().userId(userId).name("Med " + i).dosage(i + "mg")
+                    .notes(i % 50 == 0 ? EncryptedString.of("note " + i) : null).build());
+        }
+        medicationRepository.saveAll(medications);
+        mockMvc.perform(post("/api/v1/me/allergies")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Peanuts\",\"severity\":\"HIGH\",\"notes\":\"since 2001\"}"))
+                .andExpect(status().is2xxSuccessful());
+        mockMvc.perform(post("/api/v1/me/emergency-contacts")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Ana\",\"phone\":\"+351900000000\"}"))
+                .andExpect(status().is2xxSuccessful());
+
+        JsonNode buffered = objectMapper.readTree(mockMvc.perform(get(EXPORT_URL)
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+
+        MvcResult started = mockMvc.perform(get(EXPORT_URL + "/stream")
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        JsonNode streamed = objectMapper.readTree(mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsString());
+
+        assertThat(streamed.get("complete").asBoolean()).isTrue();
+        assertThat(streamed.get("medications")).hasSize(250);
+        assertThat(streamed.get("medications").get(100).get("notes").asText()).isEqualTo("note 100");
+        assertThat(streamed.get("allergies").get(0).get("notes").asText()).isEqualTo("since 2001");
+        ((ObjectNode) buffered).remove("exportedAt");
+        ((ObjectNode) streamed).remove("exportedAt");
+        assertThat(streamed).isEqualTo(buffered);
+    }
+}
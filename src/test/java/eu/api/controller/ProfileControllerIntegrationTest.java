@@ -18,6 +18,7 @@ import org.springframework.test.web.servlet.ResultActions;
 import java.time.LocalDate;
 import java.util.UUID;
 
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
@@ -73,6 +74,35 @@ class ProfileControllerIntegrationTest {
             mockMvc.perform(get(PROFILE_URL))
                     .andExpect(status().is4xxClientError());
         }
+
+        @Test
+        void whenETagStillCurrent_returns304UntilProfileChanges() throws Exception {
+            String etag = mockMvc.perform(get(PROFILE_URL)
+                            .header("Authorization", "Bearer " + accessToken))
+                    .andExpect(status().isOk())
+                    .andExpect(header().exists("ETag"))
+                    .andReturn().getResponse().getHeader("ETag");
+
+            mockMvc.perform(get(PROFILE_URL)
+                            .header("Authorization", "Bearer " + accessToken)
+                            .header("If-None-Match", etag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(content().string(""));
+
+            mockMvc.perform(put(PROFILE_URL)
+                            .header("Authorization", "Bearer " + accessToken)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(
+                                    UpdateProfileRequest.builder().fullName("Changed").build())))
+                    .andExpect(status().isOk());
+
+            mockMvc.perform(get(PROFILE_URL)
+                            .header("Authorization", "Bearer " + accessToken)
+                            .header("If-None-Match", etag))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", not(etag)))
+                    .andExpect(jsonPath("$.fullName").value("Changed"));
+        }
     }
 
     @Nested
@@ -0,0 +1,146 @@
+package eu.api.crypto;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the pooled AES-GCM engine with the previous per-call Cipher/SecureRandom implementation.
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=CryptoServiceBenchmark
+ * (the profile adds -prof gc, so results include gc.alloc.rate.norm = bytes allocated per op).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class CryptoServiceBenchmark {
+
+    private static final String MASTER_KEY = "AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA=";
+    private static final UUID USER_ID = UUID.randomUUID();
+
+    @Param({"16", "256", "2048"})
+    private int plaintextLength;
+
+    private CryptoService pooled;
+    private LegacyCryptoService legacy;
+    private String plaintext;
+    private Ciphertext ciphertext;
+    private String legacyCiphertext;
+
+    @Setup
+    public void setUp() {
+        SecretKey dataKey = new SecretKeySpec(Base64.getDecoder().decode(MASTER_KEY), "AES");
+        pooled = new CryptoServiceImpl(new MasterKeyProvider(MASTER_KEY, 1, ""), new FixedDataKeyService(dataKey));
+        legacy = new LegacyCryptoService(Base64.getDecoder().decode(MASTER_KEY));
+        plaintext = "x".repeat(plaintextLength);
+        ciphertext = pooled.encrypt(USER_ID, plaintext);
+        legacyCiphertext = legacy.encrypt(plaintext);
+    }
+
+    @Benchmark
+    public Ciphertext encryptPooled() {
+        return pooled.encrypt(USER_ID, plaintext);
+    }
+
+    @Benchmark
+    public String encryptLegacy() {
+        return legacy.encrypt(plaintext);
+    }
+
+    @Benchmark
+    public String decryptPooled() {
+        return pooled.decrypt(USER_ID, ciphertext);
+    }
+
+    @Benchmark
+    public String decryptLegacy() {
+        return legacy.decrypt(legacyCiphertext);
+    }
+
+    /**
+     * Data key lookup without the database, so only the cipher path is measured.
+     */
+    record FixedDataKeyService(SecretKey key) implements DataKeyService {
+
+        @Override
+        public DataKeyRing keyRing(UUID userId) {
+            return new DataKeyRing(1, Map.of(1, key));
+        }
+
+        @Override
+        public DataKeyRing reload(UUID userId) {
+            return keyRing(userId);
+        }
+
+        @Override
+        public int rewrapBatch(int batchSize) {
+            return 0;
+        }
+    }
+
+    /**
+     * Verbatim copy of the implementation before the pooled engine, kept as the benchmark baseline.
+     */
+    static final class LegacyCryptoService {
+
+        private final SecretKey key;
+
+        LegacyCryptoService(byte[] keyBytes) {
+            this.key = new SecretKeySpec(keyBytes, "AES");
+        }
+
+        String encrypt(String plaintext) {
+            try {
+                byte[] iv = new byte[12];
+                new SecureRandom().nextBytes(iv);
+                Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+                cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(128, iv));
+                byte[] ciphertext = cipher.doFinal(plaintext.getBytes(StandardCharsets.UTF_8));
+                byte[] combined = new byte[iv.length + ciphertext.length];
+                System.arraycopy(iv, 0, combined, 0, iv.length);
+                System.arraycopy(ciphertext, 0, combined, iv.length, ciphertext.length);
+                return Base64.getEncoder().encodeToString(combined);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        String decrypt(String ciphertext) {
+            try {
+                byte[] combined = Base64.getDecoder().decode(ciphertext);
+                byte[] iv = new byte[12];
+                byte[] encrypted = new byte[combined.length - 12];
+                System.arraycopy(combined, 0, iv, 0, iv.length);
+                System.arraycopy(combined, iv.length, encrypted, 0, encrypted.length);
+                Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+                cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(128, iv));
+                return new String(cipher.doFinal(encrypted), StandardCharsets.UTF_8);
+            } catch (Exception e) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package eu.api.crypto;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CryptoServiceImplTest {
+
+    private static final String MASTER_KEY = "AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA=";
+    private static final UUID USER_ID = UUID.randomUUID();
+
+    private final DataKeyService dataKeyService = mock(DataKeyService.class);
+    private final CryptoService cryptoService =
+            new CryptoServiceImpl(new MasterKeyProvider(MASTER_KEY, 1, ""), dataKeyService);
+
+    @BeforeEach
+    void stubDataKey() {
+        when(dataKeyService.keyRing(any())).thenReturn(new DataKeyRing(1, Map.of(1, dataKey(9))));
+    }
+
+    private static SecretKey dataKey(int fill) {
+        byte[] bytes = new byte[32];
+        Arrays.fill(bytes, (byte) fill);
+        return new SecretKeySpec(bytes, "AES");
+    }
+
+    @Test
+    void encryptThenDecrypt_roundTripsUtf8() {
+        String plain = "Rua das Acácias, 42 — apto 7";
+
+        Ciphertext encrypted = cryptoService.encrypt(USER_ID, plain);
+
+        assertThat(new String(encrypted.bytes(), StandardCharsets.UTF_8)).doesNotContain("Acácias");
+        assertThat(cryptoService.decrypt(USER_ID, encrypted)).isEqualTo(plain);
+    }
+
+    @Test
+    void encrypt_usesUserDataKeyNotMasterKey() {
+        Ciphertext encrypted = cryptoService.encrypt(USER_ID, "workplace");
+        DataKeyService otherUserKeys = mock(DataKeyService.class);
+        DataKeyRing otherRing = new DataKeyRing(1, Map.of(1, new SecretKeySpec(new byte[32], "AES")));
+        when(otherUserKeys.keyRing(any())).thenReturn(otherRing);
+        when(otherUserKeys.reload(any())).thenReturn(otherRing);
+        CryptoService otherUser = new CryptoServiceImpl(new MasterKeyProvider(
+                "BBBBBBBBBBBBBBBBBBBBBBBBBBBBBBBBBBBBBBBBBBB=", 1, ""), otherUserKeys);
+
+        assertThat(otherUser.decrypt(USER_ID, encrypted)).isNull();
+        verify(dataKeyService).keyRing(USER_ID);
+    }
+
+    @Test
+    void encrypt_usesFreshIvPerCall() {
+        assertThat(cryptoService.encrypt(USER_ID, "same")).isNotEqualTo(cryptoService.encrypt(USER_ID, "same"));
+    }
+
+    @Test
+    void decrypt_readsValuesWrittenDirectlyUnderMasterKey() throws Exception {
+        byte[] iv = new byte[12];
+        iv[0] = 7;
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(Base64.getDecoder().decode(MASTER_KEY), "AES"),
+                new GCMParameterSpec(128, iv));
+        byte[] body = cipher.doFinal("legacy notes".getBytes(StandardCharsets.UTF_8));
+        byte[] combined = new byte[iv.length + body.length];
+        System.arraycopy(iv, 0, combined, 0, iv.length);
+        System.arraycopy(body, 0, combined, iv.length, body.length);
+
+        assertThat(cryptoService.decrypt(USER_ID, Ciphertext.of(combined))).isEqualTo("legacy notes");
+        assertThat(cryptoService.decrypt(USER_ID, Ciphertext.fromLegacyText(Base64.getEncoder().encodeToString(combined))))
+                .isEqualTo("legacy notes");
+    }
+
+    @Test
+    void encrypt_writesHeaderNamingCurrentDataKeyVersion() {
+        when(dataKeyService.keyRing(any())).thenReturn(new DataKeyRing(3, Map.of(1, dataKey(9), 3, dataKey(3))));
+
+        byte[] bytes = cryptoService.encrypt(USER_ID, "notes").bytes();
+
+        assertThat(bytes[0]).isEqualTo((byte) 1);
+        assertThat(bytes[1]).isEqualTo((byte) 3);
+        assertThat(bytes).hasSize(2 + 12 + "notes".length() + 16);
+    }
+
+    @Test
+    void decrypt_afterRotation_readsOlderVersionsAndUnheaderedDataKeyValues() throws Exception {
+        Ciphertext underV1 = cryptoService.encrypt(USER_ID, "old notes");
+        Ciphertext unheadered = legacyEncrypt(dataKey(9), "pre-header notes");
+        when(dataKeyService.keyRing(any())).thenReturn(new DataKeyRing(2, Map.of(1, dataKey(9), 2, dataKey(2))));
+
+        assertThat(cryptoService.decrypt(USER_ID, underV1)).isEqualTo("old notes");
+        assertThat(cryptoService.decrypt(USER_ID, unheadered)).isEqualTo("pre-header notes");
+        assertThat(AesGcmEngine.keyId(cryptoService.encrypt(USER_ID, "new notes").bytes())).isEqualTo(2);
+    }
+
+    @Test
+    void decrypt_unknownVersion_reloadsKeyRingOnce() {
+        DataKeyRing rotatedElsewhere = new DataKeyRing(2, Map.of(1, dataKey(9), 2, dataKey(2)));
+        when(dataKeyService.keyRing(any())).thenReturn(rotatedElsewhere);
+        Ciphertext underV2 = cryptoService.encrypt(USER_ID, "rotated");
+        when(dataKeyService.keyRing(any())).thenReturn(new DataKeyRing(1, Map.of(1, dataKey(9))));
+        when(dataKeyService.reload(USER_ID)).thenReturn(rotatedElsewhere);
+
+        assertThat(cryptoService.decrypt(USER_ID, underV2)).isEqualTo("rotated");
+        verify(dataKeyService).reload(USER_ID);
+    }
+
+    @Test
+    void decrypt_legacyValueWhoseIvLooksHeadered_reloadsKeyRingAtMostOnce() throws Exception {
+        DataKeyRing ring = new DataKeyRing(1, Map.of(1, dataKey(9)));
+        AtomicReference<DataKeyRing> cached = new AtomicReference<>(ring);
+        when(dataKeyService.keyRing(USER_ID)).thenAnswer(invocation -> cached.get());
+        when(dataKeyService.reload(USER_ID)).thenAnswer(invocation -> {
+            cached.set(ring.reloaded(Instant.now()));
+            return cached.get();
+        });
+        Ciphertext legacy = legacyEncrypt(dataKey(9), "legacy", AesGcmEngine.FORMAT_V1, (byte) 7);
+        Ciphertext belowNewest = legacyEncrypt(dataKey(9), "gap", AesGcmEngine.FORMAT_V1, (byte) 0);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(cryptoService.decrypt(USER_ID, legacy)).isEqualTo("legacy");
+            assertThat(cryptoService.decrypt(USER_ID, belowNewest)).isEqualTo("gap");
+        }
+        verify(dataKeyService, times(1)).reload(USER_ID);
+    }
+
+    @Test
+    void reencrypt_movesOlderValuesForwardAndLeavesCurrentOnesAlone() throws Exception {
+        Ciphertext current = cryptoService.encrypt(USER_ID, "current");
+        Ciphertext legacy = legacyEncrypt(new SecretKeySpec(Base64.getDecoder().decode(MASTER_KEY), "AES"), "legacy");
+
+        assertThat(cryptoService.reencrypt(USER_ID, current)).isSameAs(current);
+        Ciphertext moved = cryptoService.reencrypt(USER_ID, legacy);
+        assertThat(AesGcmEngine.keyId(moved.bytes())).isEqualTo(1);
+        assertThat(cryptoService.decrypt(USER_ID, moved)).isEqualTo("legacy");
+        assertThat(cryptoService.reencrypt(USER_ID, Ciphertext.of(new byte[40]))).isNull();
+        assertThat(cryptoService.reencrypt(USER_ID, null)).isNull();
+    }
+
+    @Test
+    void decrypt_whenHeaderTampered_returnsNull() {
+        when(dataKeyService.reload(any())).thenReturn(new DataKeyRing(1, Map.of(1, dataKey(9))));
+        byte[] bytes = cryptoService.encrypt(USER_ID, "secret").bytes();
+        bytes[1] = 2;
+
+        assertThat(cryptoService.decrypt(USER_ID, Ciphertext.of(bytes))).isNull();
+    }
+
+    @Test
+    void decrypt_whenTamperedOrGarbage_returnsNull() {
+        byte[] bytes = cryptoService.encrypt(USER_ID, "secret").bytes();
+        bytes[bytes.length - 1] ^= 1;
+
+        assertThat(cryptoService.decrypt(USER_ID, Ciphertext.of(bytes))).isNull();
+        assertThat(cryptoService.decrypt(USER_ID, Ciphertext.of(new byte[3]))).isNull();
+        assertThat(Ciphertext.fromLegacyText("not base64 !!")).isNull();
+    }
+
+    @Test
+    void decryptAll_preservesOrderAndMapsMissingValuesToNull() {
+        List<String> plain = Arrays.asList("a", null, "", "d");
+        List<Ciphertext> encrypted = cryptoService.encryptAll(USER_ID, plain);
+
+        assertThat(encrypted).hasSize(4);
+        assertThat(encrypted.get(1)).isNull();
+        assertThat(cryptoService.decryptAll(USER_ID,
+                Arrays.asList(encrypted.get(0), null, encrypted.get(2), Ciphertext.of(new byte[40]), encrypted.get(3))))
+                .containsExactly("a", null, "", null, "d");
+    }
+
+    @Test
+    void decryptAll_largeBatchFansOutAndKeepsOrder() {
+        List<String> plain = IntStream.range(0, 2_000).mapToObj(i -> "row-" + i).toList();
+
+        assertThat(cryptoService.decryptAll(USER_ID, cryptoService.encryptAll(USER_ID, plain))).containsExactlyElementsOf(plain);
+    }
+
+    @Test
+    void concurrentCallers_shareThePoolSafely() throws Exception {
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            List<Callable<Boolean>> tasks = IntStream.range(0, 500)
+                    .<Callable<Boolean>>mapToObj(i -> () -> {
+                        String plain = "value-" + i + "-" + "y".repeat(i % 700);
+                        return plain.equals(cryptoService.decrypt(USER_ID, cryptoService.encrypt(USER_ID, plain)));
+                    })
+                    .toList();
+            for (Future<Boolean> result : executor.invokeAll(tasks)) {
+                assertThat(result.get()).isTrue();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static Ciphertext legacyEncrypt(SecretKey key, String plaintext) throws Exception {
+        return legacyEncrypt(key, plaintext, (byte) 5, (byte) 0);
+    }
+
+    private static Ciphertext legacyEncrypt(SecretKey key, String plaintext, byte iv0, byte iv1) throws Exception {
+        byte[] iv = new byte[12];
+        iv[0] = iv0;
+        iv[1] = iv1;
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(128, iv));
+        byte[] body = cipher.doFinal(plaintext.getBytes(StandardCharsets.UTF_8));
+        byte[] combined = new byte[iv.length + body.length];
+        System.arraycopy(iv, 0, combined, 0, iv.length);
+        System.arraycopy(body, 0, combined, iv.length, body.length);
+        return Ciphertext.of(combined);
+    }
+}
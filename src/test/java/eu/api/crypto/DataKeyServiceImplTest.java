@@ -0,0 +1,116 @@
+package eu.api.crypto;
+
+import eu.api.entity.UserDataKeyEntity;
+import eu.api.repository.UserDataKeyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import javax.crypto.SecretKey;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class DataKeyServiceImplTest {
+
+    private static final String OLD_MASTER = "AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA=";
+    private static final String NEW_MASTER = "BBBBBBBBBBBBBBBBBBBBBBBBBBBBBBBBBBBBBBBBBBB=";
+    private static final UUID USER_ID = UUID.randomUUID();
+
+    private final UserDataKeyRepository repository = mock(UserDataKeyRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    @BeforeEach
+    void stubTransactions() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    }
+
+    private DataKeyServiceImpl service(MasterKeyProvider masterKeys) {
+        return service(masterKeys, 1);
+    }
+
+    private DataKeyServiceImpl service(MasterKeyProvider masterKeys, int targetVersion) {
+        return new DataKeyServiceImpl(repository, masterKeys, transactionManager, targetVersion, 100, 30);
+    }
+
+    @Test
+    void keyRing_firstUse_storesWrappedKeyAndCachesIt() {
+        when(repository.findByUserId(USER_ID)).thenReturn(List.of());
+        DataKeyServiceImpl service = service(new MasterKeyProvider(OLD_MASTER, 1, ""));
+
+        DataKeyRing first = service.keyRing(USER_ID);
+        DataKeyRing second = service.keyRing(USER_ID);
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.currentVersion()).isEqualTo(1);
+        ArgumentCaptor<UserDataKeyEntity> saved = ArgumentCaptor.forClass(UserDataKeyEntity.class);
+        verify(repository, times(1)).saveAndFlush(saved.capture());
+        assertThat(saved.getValue().getMasterKeyId()).isEqualTo(1);
+        assertThat(saved.getValue().getKeyVersion()).isEqualTo(1);
+        assertThat(saved.getValue().getWrappedKey()).doesNotContain(
+                java.util.Base64.getEncoder().encodeToString(first.current().getEncoded()));
+    }
+
+    @Test
+    void keyRing_belowTargetVersion_addsNewVersionAndKeepsOldOne() {
+        when(repository.findByUserId(USER_ID)).thenReturn(List.of());
+        MasterKeyProvider masterKeys = new MasterKeyProvider(OLD_MASTER, 1, "");
+        SecretKey v1 = service(masterKeys).keyRing(USER_ID).current();
+        ArgumentCaptor<UserDataKeyEntity> saved = ArgumentCaptor.forClass(UserDataKeyEntity.class);
+        verify(repository).saveAndFlush(saved.capture());
+        when(repository.findByUserId(USER_ID)).thenReturn(List.of(saved.getValue()));
+
+        DataKeyRing ring = service(masterKeys, 2).keyRing(USER_ID);
+
+        assertThat(ring.currentVersion()).isEqualTo(2);
+        assertThat(ring.byVersion(1).getEncoded()).isEqualTo(v1.getEncoded());
+        assertThat(ring.current().getEncoded()).isNotEqualTo(v1.getEncoded());
+    }
+
+    @Test
+    void keyRing_newerVersionThanTarget_isUsedAsCurrent() {
+        when(repository.findByUserId(USER_ID)).thenReturn(List.of());
+        MasterKeyProvider masterKeys = new MasterKeyProvider(OLD_MASTER, 1, "");
+        service(masterKeys, 3).keyRing(USER_ID);
+        ArgumentCaptor<UserDataKeyEntity> saved = ArgumentCaptor.forClass(UserDataKeyEntity.class);
+        verify(repository).saveAndFlush(saved.capture());
+        when(repository.findByUserId(USER_ID)).thenReturn(List.of(saved.getValue()));
+
+        assertThat(service(masterKeys, 1).keyRing(USER_ID).currentVersion()).isEqualTo(3);
+        verify(repository, times(1)).saveAndFlush(any());
+    }
+
+    @Test
+    void rewrapBatch_movesKeysToCurrentMasterKeyWithoutChangingDataKey() {
+        when(repository.findByUserId(USER_ID)).thenReturn(List.of());
+        SecretKey dataKey = service(new MasterKeyProvider(OLD_MASTER, 1, "")).keyRing(USER_ID).current();
+        ArgumentCaptor<UserDataKeyEntity> saved = ArgumentCaptor.forClass(UserDataKeyEntity.class);
+        verify(repository).saveAndFlush(saved.capture());
+        UserDataKeyEntity row = saved.getValue();
+        String wrappedByOld = row.getWrappedKey();
+
+        MasterKeyProvider rotated = new MasterKeyProvider(NEW_MASTER, 2, "1:" + OLD_MASTER);
+        when(repository.findByMasterKeyIdIn(eq(Set.of(1)), any(Pageable.class))).thenReturn(List.of(row));
+
+        assertThat(service(rotated).rewrapBatch(50)).isEqualTo(1);
+        assertThat(row.getMasterKeyId()).isEqualTo(2);
+        assertThat(row.getWrappedKey()).isNotEqualTo(wrappedByOld);
+
+        when(repository.findByUserId(USER_ID)).thenReturn(List.of(row));
+        assertThat(service(rotated).keyRing(USER_ID).current().getEncoded()).isEqualTo(dataKey.getEncoded());
+    }
+
+    @Test
+    void rewrapBatch_withoutRetiredKeys_doesNothing() {
+        assertThat(service(new MasterKeyProvider(OLD_MASTER, 1, "")).rewrapBatch(50)).isZero();
+        verifyNoInteractions(repository);
+    }
+}
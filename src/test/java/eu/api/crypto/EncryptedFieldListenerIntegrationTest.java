@@ -0,0 +1,112 @@
+package eu.api.crypto;
+
+import eu.api.entity.AllergyEntity;
+import eu.api.repository.AllergyRepository;
+import eu.api.service.AllergyService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class EncryptedFieldListenerIntegrationTest {
+
+    @SpyBean
+    private CryptoService cryptoService;
+    @Autowired
+    private AllergyRepository allergyRepository;
+    @Autowired
+    private AllergyService allergyService;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void save_encryptsAssignedValueUnderOwnerKey() {
+        UUID userId = UUID.randomUUID();
+        UUID id = saveAllergy(userId, "peanuts");
+
+        assertThat(cryptoService.decrypt(userId, storedNotes(id))).isEqualTo("peanuts");
+    }
+
+    @Test
+    void load_decryptsOnFirstAccessOnly() {
+        UUID userId = UUID.randomUUID();
+        UUID id = saveAllergy(userId, "peanuts");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            EncryptedString notes = allergyRepository.findById(id).orElseThrow().getNotes();
+            assertThat(notes.isRevealed()).isFalse();
+            verify(cryptoService, never()).decrypt(any(), any());
+
+            assertThat(notes.get()).isEqualTo("peanuts");
+            assertThat(notes.get()).isEqualTo("peanuts");
+            verify(cryptoService, times(1)).decrypt(any(), any());
+        });
+    }
+
+    @Test
+    void list_withoutNotes_doesNoDecryption() {
+        UUID userId = UUID.randomUUID();
+        saveAllergy(userId, "peanuts");
+        saveAllergy(userId, "shellfish");
+
+        assertThat(allergyService.list(userId, false)).hasSize(2).allSatisfy(a -> assertThat(a.getNotes()).isNull());
+
+        verify(cryptoService, never()).decrypt(any(), any());
+        verify(cryptoService, never()).decryptAll(any(), any());
+    }
+
+    @Test
+    void load_withoutChanges_doesNotRewriteRow() {
+        UUID userId = UUID.randomUUID();
+        UUID id = saveAllergy(userId, "peanuts");
+        Ciphertext before = storedNotes(id);
+        Timestamp updatedAt = updatedAt(id);
+
+        transactionTemplate.executeWithoutResult(status ->
+                allergyRepository.findById(id).orElseThrow().getNotes().get());
+
+        assertThat(storedNotes(id)).isEqualTo(before);
+        assertThat(updatedAt(id)).isEqualTo(updatedAt);
+        verify(cryptoService, times(1)).encryptAll(any(), any());
+    }
+
+    @Test
+    void assignNewValue_isEncryptedOnFlush() {
+        UUID userId = UUID.randomUUID();
+        UUID id = saveAllergy(userId, "peanuts");
+
+        transactionTemplate.executeWithoutResult(status ->
+                allergyRepository.findById(id).orElseThrow().setNotes(EncryptedString.of("tree nuts")));
+
+        assertThat(cryptoService.decrypt(userId, storedNotes(id))).isEqualTo("tree nuts");
+    }
+
+    private UUID saveAllergy(UUID userId, String notes) {
+        return allergyRepository.save(AllergyEntity.builder()
+                .userId(userId).name("Food").notes(EncryptedString.of(notes)).build()).getId();
+    }
+
+    private Ciphertext storedNotes(UUID id) {
+        return Ciphertext.of(jdbcTemplate.queryForObject("SELECT notes_ct FROM allergies WHERE id = ?", byte[].class, id));
+    }
+
+    private Timestamp updatedAt(UUID id) {
+        return jdbcTemplate.queryForObject("SELECT updated_at FROM allergies WHERE id = ?", Timestamp.class, id);
+    }
+}
@@ -0,0 +1,176 @@
+package eu.api.crypto;
+
+import eu.api.entity.AddressEntity;
+import eu.api.entity.AllergyEntity;
+import eu.api.entity.ReencryptionProgressEntity;
+import eu.api.repository.AddressRepository;
+import eu.api.repository.AllergyRepository;
+import eu.api.repository.ReencryptionProgressRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class FieldReencryptorIntegrationTest {
+
+    private static final String MASTER_KEY = "AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA=";
+
+    @Autowired
+    private FieldReencryptor fieldReencryptor;
+    @Autowired
+    private CryptoService cryptoService;
+    @Autowired
+    private AllergyRepository allergyRepository;
+    @Autowired
+    private AddressRepository addressRepository;
+    @Autowired
+    private ReencryptionProgressRepository progressRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void resetProgress() {
+        progressRepository.deleteAll();
+    }
+
+    @Test
+    void run_movesLegacyTextToBinaryAtCurrentVersionAndKeepsCurrentValues() {
+        UUID userId = UUID.randomUUID();
+        UUID legacyAllergy = saveLegacyAllergy(userId, legacyEncrypt("legacy notes"));
+        UUID headeredTextAllergy = saveLegacyAllergy(userId,
+                Base64.getEncoder().encodeToString(cryptoService.encrypt(userId, "headered text").bytes()));
+        UUID currentAllergy = allergyRepository.save(AllergyEntity.builder()
+                .userId(userId).name("Pollen").notes(EncryptedString.of("already current")).build()).getId();
+        Ciphertext current = binary("allergies", "notes", currentAllergy);
+        UUID address = addressRepository.save(AddressEntity.builder()
+                .userId(userId)
+                .label("HOME")
+                .zip(EncryptedString.of("01000-000"))
+                .build()).getId();
+        jdbcTemplate.update("UPDATE addresses SET street = ? WHERE id = ?", legacyEncrypt("Rua A"), address);
+
+        assertThat(fieldReencryptor.run(Duration.ofMinutes(1))).isTrue();
+
+        Ciphertext notes = binary("allergies", "notes", legacyAllergy);
+        assertThat(AesGcmEngine.keyId(notes.bytes())).isEqualTo(1);
+        assertThat(cryptoService.decrypt(userId, notes)).isEqualTo("legacy notes");
+        assertThat(text("allergies", "notes", legacyAllergy)).isNull();
+        assertThat(cryptoService.decrypt(userId, binary("allergies", "notes", headeredTextAllergy))).isEqualTo("headered text");
+        assertThat(binary("allergies", "notes", currentAllergy)).isEqualTo(current);
+        assertThat(cryptoService.decrypt(userId, binary("addresses", "street", address))).isEqualTo("Rua A");
+        assertThat(binary("addresses", "number", address)).isNull();
+        assertThat(progressRepository.findByTarget("allergies"))
+                .hasValueSatisfying(progress -> assertThat(progress.getCompletedAt()).isNotNull());
+    }
+
+    @Test
+    void run_resumesAfterStoredProgress() {
+        UUID userId = UUID.randomUUID();
+        IntStream.range(0, 4).forEach(i -> saveLegacyAllergy(userId, legacyEncrypt("notes " + i)));
+        List<UUID> ordered = jdbcTemplate.queryForList(
+                "SELECT id FROM allergies WHERE user_id = ? ORDER BY id", UUID.class, userId);
+        progressRepository.save(ReencryptionProgressEntity.builder()
+                .target("allergies")
+                .keyVersion(1)
+                .storageFormat(FieldReencryptor.STORAGE_FORMAT)
+                .lastId(ordered.get(1))
+                .build());
+
+        fieldReencryptor.run(Duration.ofMinutes(1));
+
+        assertThat(binary("allergies", "notes", ordered.get(0))).isNull();
+        assertThat(binary("allergies", "notes", ordered.get(1))).isNull();
+        assertThat(binary("allergies", "notes", ordered.get(2))).isNotNull();
+        assertThat(binary("allergies", "notes", ordered.get(3))).isNotNull();
+    }
+
+    @Test
+    void run_whenAlreadyCompleted_doesNotTouchRows() {
+        UUID userId = UUID.randomUUID();
+        fieldReencryptor.run(Duration.ofMinutes(1));
+        String legacy = legacyEncrypt("written after completion");
+        UUID allergy = saveLegacyAllergy(userId, legacy);
+
+        assertThat(fieldReencryptor.run(Duration.ofMinutes(1))).isTrue();
+
+        assertThat(text("allergies", "notes", allergy)).isEqualTo(legacy);
+    }
+
+    @Test
+    void run_skipsTablesLeasedByAnotherReplicaUntilTheLeaseExpires() {
+        UUID userId = UUID.randomUUID();
+        String legacy = legacyEncrypt("leased elsewhere");
+        UUID allergy = saveLegacyAllergy(userId, legacy);
+        progressRepository.save(ReencryptionProgressEntity.builder()
+                .target("allergies")
+                .keyVersion(1)
+                .storageFormat(FieldReencryptor.STORAGE_FORMAT)
+                .leaseOwner(UUID.randomUUID())
+                .leasedUntil(Instant.now().plusSeconds(600))
+                .build());
+
+        assertThat(fieldReencryptor.run(Duration.ofMinutes(1))).isFalse();
+        assertThat(text("allergies", "notes", allergy)).isEqualTo(legacy);
+
+        jdbcTemplate.update("UPDATE reencryption_progress SET leased_until = ? WHERE target = 'allergies'",
+                Timestamp.from(Instant.now().minusSeconds(1)));
+
+        assertThat(fieldReencryptor.run(Duration.ofMinutes(1))).isTrue();
+        assertThat(binary("allergies", "notes", allergy)).isNotNull();
+        assertThat(progressRepository.findByTarget("allergies"))
+                .hasValueSatisfying(progress -> assertThat(progress.getLeaseOwner()).isNull());
+    }
+
+    private UUID saveLegacyAllergy(UUID userId, String legacyNotes) {
+        UUID id = allergyRepository.save(AllergyEntity.builder().userId(userId).name("Pollen").build()).getId();
+        jdbcTemplate.update("UPDATE allergies SET notes = ? WHERE id = ?", legacyNotes, id);
+        return id;
+    }
+
+    private Ciphertext binary(String table, String field, UUID id) {
+        return Ciphertext.of(jdbcTemplate.queryForObject(
+                "SELECT " + field + "_ct FROM " + table + " WHERE id = ?", byte[].class, id));
+    }
+
+    private String text(String table, String field, UUID id) {
+        return jdbcTemplate.queryForObject("SELECT " + field + " FROM " + table + " WHERE id = ?", String.class, id);
+    }
+
+    /**
+     * Value as written before envelope encryption: directly under the master key, no header, Base64 text.
+     */
+    private static String legacyEncrypt(String plaintext) {
+        try {
+            byte[] iv = new byte[12];
+            iv[0] = 7;
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(Base64.getDecoder().decode(MASTER_KEY), "AES"),
+                    new GCMParameterSpec(128, iv));
+            byte[] body = cipher.doFinal(plaintext.getBytes(StandardCharsets.UTF_8));
+            byte[] combined = new byte[iv.length + body.length];
+            System.arraycopy(iv, 0, combined, 0, iv.length);
+            System.arraycopy(body, 0, combined, iv.length, body.length);
+            return Base64.getEncoder().encodeToString(combined);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
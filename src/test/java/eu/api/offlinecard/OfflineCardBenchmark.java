@@ -0,0 +1,60 @@
+package eu.api.offlinecard;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode (deflate + ES256 sign + base45) and on-device verify time for a typical card. Setup prints the JSON
+ * and QR text sizes. Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=OfflineCardBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OfflineCardBenchmark {
+
+    private KeyPair keyPair;
+    private byte[] json;
+    private Instant issuedAt;
+    private Instant expiresAt;
+    private String card;
+    private OfflineCardVerifier verifier;
+
+    @Setup
+    public void setUp() {
+        keyPair = OfflineCardVerifierTest.generate();
+        json = OfflineCardVerifierTest.TYPICAL_CARD.getBytes(StandardCharsets.UTF_8);
+        issuedAt = Instant.now();
+        expiresAt = issuedAt.plus(Duration.ofDays(30));
+        card = encode();
+        verifier = new OfflineCardVerifier(Map.of("card-1", keyPair.getPublic()));
+        System.out.printf("%nTypical card: %d bytes of JSON -> %d QR characters%n", json.length, card.length());
+    }
+
+    @Benchmark
+    public String encode() {
+        return OfflineCard.encode("card-1", issuedAt, expiresAt, json, keyPair.getPrivate());
+    }
+
+    @Benchmark
+    public OfflineCardVerifier.VerifiedCard verify() {
+        return verifier.verify(card);
+    }
+}
@@ -0,0 +1,106 @@
+package eu.api.offlinecard;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OfflineCardVerifierTest {
+
+    static final String TYPICAL_CARD = """
+            {"name":"Maria Silva","bloodType":"O_NEG","phone":"+5511999999999",\
+            "allergies":[{"name":"Penicillin","severity":"HIGH"},{"name":"Latex","severity":"LOW"}],\
+            "emergencyContacts":[{"name":"João Silva","relationship":"Husband","phone":"+5511988887777","priority":1},\
+            {"name":"Ana Souza","relationship":"Sister","phone":"+5511977776666","priority":2}],\
+            "medications":[{"name":"Insulin glargine","dosage":"10u","frequency":"daily"},\
+            {"name":"Metformin","dosage":"850mg","frequency":"twice daily"}]}""";
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    private final KeyPair keyPair = generate();
+    private final OfflineCardVerifier verifier =
+            new OfflineCardVerifier(Map.of("k1", keyPair.getPublic()), Clock.fixed(NOW, ZoneOffset.UTC));
+
+    @Test
+    void signedCard_roundTripsAndFitsASmallQrCode() {
+        String card = encode(NOW.plus(Duration.ofDays(30)));
+
+        OfflineCardVerifier.VerifiedCard verified = verifier.verify(card);
+
+        assertThat(new String(verified.cardJson(), StandardCharsets.UTF_8)).isEqualTo(TYPICAL_CARD);
+        assertThat(verified.keyId()).isEqualTo("k1");
+        assertThat(verified.expiresAt()).isEqualTo(NOW.plus(Duration.ofDays(30)));
+        assertThat(card).matches("EC1:[0-9A-Z $%*+\\-./:]+");
+        // QR version 15 at error correction M holds 758 alphanumeric characters
+        assertThat(card.length()).isLessThan(758);
+    }
+
+    @Test
+    void tamperedCard_isRejected() {
+        String card = encode(NOW.plus(Duration.ofDays(1)));
+        char[] chars = card.toCharArray();
+        int i = chars.length / 2;
+        chars[i] = chars[i] == '0' ? '1' : '0';
+
+        assertThatThrownBy(() -> verifier.verify(new String(chars)))
+                .isInstanceOf(InvalidOfflineCardException.class);
+    }
+
+    @Test
+    void expiredOrForeignCard_isRejected() {
+        assertThatThrownBy(() -> verifier.verify(encode(NOW.minusSeconds(1))))
+                .hasMessageContaining("expired");
+
+        KeyPair other = generate();
+        String foreign = OfflineCard.encode("k1", NOW, NOW.plus(Duration.ofDays(1)),
+                TYPICAL_CARD.getBytes(StandardCharsets.UTF_8), other.getPrivate());
+        assertThatThrownBy(() -> verifier.verify(foreign)).hasMessageContaining("signature");
+        assertThatThrownBy(() -> verifier.verify("EC1:")).isInstanceOf(InvalidOfflineCardException.class);
+    }
+
+    @Test
+    void keyFromJwkCoordinates_verifies() {
+        ECPublicKey ec = (ECPublicKey) keyPair.getPublic();
+        Base64.Encoder base64 = Base64.getUrlEncoder().withoutPadding();
+        OfflineCardVerifier fromJwk = new OfflineCardVerifier(Map.of("k1", OfflineCardVerifier.p256Key(
+                base64.encodeToString(fixed(ec.getW().getAffineX().toByteArray())),
+                base64.encodeToString(fixed(ec.getW().getAffineY().toByteArray())))),
+                Clock.fixed(NOW, ZoneOffset.UTC));
+
+        assertThat(fromJwk.verify(encode(NOW.plus(Duration.ofDays(1)))).keyId()).isEqualTo("k1");
+    }
+
+    private String encode(Instant expiresAt) {
+        return OfflineCard.encode("k1", NOW.minus(Duration.ofDays(1)), expiresAt,
+                TYPICAL_CARD.getBytes(StandardCharsets.UTF_8), keyPair.getPrivate());
+    }
+
+    private static byte[] fixed(byte[] raw) {
+        byte[] fixed = new byte[32];
+        int length = Math.min(raw.length, 32);
+        System.arraycopy(raw, raw.length - length, fixed, 32 - length, length);
+        return fixed;
+    }
+
+    static KeyPair generate() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(new ECGenParameterSpec("secp256r1"));
+            return generator.generateKeyPair();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package eu.api.security;
+
+import eu.api.repository.RateLimitBucketRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class DistributedRateLimiterIntegrationTest {
+
+    private static final int PER_MINUTE = 5;
+
+    @Autowired
+    private RateLimitBucketRepository repository;
+
+    @BeforeEach
+    void clean() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void replicas_shareOneLimit() {
+        DistributedRateLimiter first = replica(2);
+        DistributedRateLimiter second = replica(2);
+
+        int allowed = 0;
+        for (int i = 0; i < 20; i++) {
+            if ((i % 2 == 0 ? first : second).tryConsume("auth:10.0.0.1", PER_MINUTE)) {
+                allowed++;
+            }
+        }
+
+        assertThat(allowed).isLessThanOrEqualTo(PER_MINUTE);
+        assertThat(replica(1).tryConsume("auth:10.0.0.1", PER_MINUTE)).isFalse();
+        assertThat(replica(1).tryConsume("auth:10.0.0.2", PER_MINUTE)).isTrue();
+    }
+
+    @Test
+    void concurrentAcquires_neverGrantMoreThanCapacity() throws Exception {
+        List<DistributedRateLimiter> replicas = List.of(replica(1), replica(1), replica(1), replica(1));
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Integer>> calls = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                DistributedRateLimiter replica = replicas.get(i % replicas.size());
+                calls.add(() -> replica.acquire("auth:shared", 1, PER_MINUTE).tokens());
+            }
+            int granted = 0;
+            for (Future<Integer> result : pool.invokeAll(calls)) {
+                granted += result.get();
+            }
+            assertThat(granted).isLessThanOrEqualTo(PER_MINUTE);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void rejectedClient_isNotLookedUpAgainUntilNextToken() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        DistributedRateLimiter limiter = new DistributedRateLimiter(repository, registry, 1000, 5, 10_000);
+
+        for (int i = 0; i < 50; i++) {
+            limiter.tryConsume("auth:10.0.0.3", PER_MINUTE);
+        }
+
+        assertThat(registry.counter("rate-limit.distributed.acquire").count()).isEqualTo(2);
+    }
+
+    private DistributedRateLimiter replica(int leaseSize) {
+        return new DistributedRateLimiter(repository, new SimpleMeterRegistry(), 1000, leaseSize, 10_000);
+    }
+}
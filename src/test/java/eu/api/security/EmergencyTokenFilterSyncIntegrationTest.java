@@ -0,0 +1,97 @@
+package eu.api.security;
+
+import eu.api.crypto.FieldReencryptor;
+import eu.api.entity.EmergencyTokenEntity;
+import eu.api.repository.EmergencyTokenRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = {
+        "emergency-token.filter.sync-interval-ms=200",
+        "crypto.reencrypt.enabled=true",
+        "crypto.reencrypt.cron=* * * * * ?"
+})
+@ActiveProfiles("test")
+class EmergencyTokenFilterSyncIntegrationTest {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    @Autowired
+    private EmergencyTokenFilter filter;
+    @Autowired
+    private EmergencyTokenRepository emergencyTokenRepository;
+    @MockBean
+    private FieldReencryptor fieldReencryptor;
+
+    private final CountDownLatch batchJobRunning = new CountDownLatch(1);
+    private final CountDownLatch releaseBatchJob = new CountDownLatch(1);
+
+    @AfterEach
+    void releaseBatchJob() {
+        releaseBatchJob.countDown();
+    }
+
+    @Test
+    void tokenIssuedOnAnotherReplica_passesWithinSyncIntervalWhileBatchJobRuns() throws Exception {
+        when(fieldReencryptor.run(any())).thenAnswer(invocation -> {
+            batchJobRunning.countDown();
+            releaseBatchJob.await();
+            return true;
+        });
+        assertThat(batchJobRunning.await(5, TimeUnit.SECONDS)).isTrue();
+        String token = unknownToken();
+
+        emergencyTokenRepository.save(EmergencyTokenEntity.builder().userId(UUID.randomUUID()).token(token).build());
+
+        assertThat(eventually(() -> filter.mightBeActive(token), 1_000)).isTrue();
+        assertThat(batchJobRunning.getCount()).isZero();
+        assertThat(releaseBatchJob.getCount()).isEqualTo(1);
+    }
+
+    private static boolean eventually(BooleanSupplier condition, long timeoutMs) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        while (System.nanoTime() < deadline) {
+            if (condition.getAsBoolean()) {
+                return true;
+            }
+            Thread.sleep(20);
+        }
+        return condition.getAsBoolean();
+    }
+
+    /**
+     * A random token the built filter rejects; waits for the first build and skips false positives.
+     */
+    private String unknownToken() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            String token = randomToken();
+            if (!filter.mightBeActive(token)) {
+                return token;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("Emergency token filter was not built");
+    }
+
+    private static String randomToken() {
+        byte[] bytes = new byte[EmergencyTokenFilter.TOKEN_BYTES];
+        RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
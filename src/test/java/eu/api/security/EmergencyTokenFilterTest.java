@@ -0,0 +1,79 @@
+package eu.api.security;
+
+import eu.api.repository.EmergencyTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EmergencyTokenFilterTest {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final EmergencyTokenRepository repository = mock(EmergencyTokenRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final EmergencyTokenFilter filter =
+            new EmergencyTokenFilter(repository, meterRegistry, 10_000, 0.01, Clock.systemUTC());
+
+    @Test
+    void malformedTokens_areRejectedBeforeFirstBuild() {
+        assertThat(filter.mightBeActive(null)).isFalse();
+        assertThat(filter.mightBeActive("unknown")).isFalse();
+        assertThat(filter.mightBeActive("+" + randomToken().substring(1))).isFalse();
+        assertThat(filter.mightBeActive(randomToken() + "A")).isFalse();
+        assertThat(filter.mightBeActive(randomToken())).isTrue();
+        assertThat(meterRegistry.counter("emergency.token.rejected", "reason", "malformed").count()).isEqualTo(4);
+    }
+
+    @Test
+    void afterRebuild_knownTokensPassAndUnknownOnesMostlyFail() {
+        List<String> active = tokens(5_000);
+        when(repository.countByActiveTrue()).thenReturn((long) active.size());
+        when(repository.streamActiveTokens()).thenReturn(active.stream());
+        filter.rebuild();
+
+        assertThat(active).allMatch(filter::mightBeActive);
+        long falsePositives = tokens(10_000).stream().filter(filter::mightBeActive).count();
+        assertThat(falsePositives).isLessThan(300);
+    }
+
+    @Test
+    void issuedAndSyncedTokens_areAdded() {
+        when(repository.streamActiveTokens()).thenReturn(Stream.empty());
+        filter.rebuild();
+        String local = randomToken();
+        String remote = randomToken();
+        assertThat(filter.mightBeActive(local)).isFalse();
+
+        filter.add(local);
+        when(repository.findActiveTokensUpdatedSince(any())).thenReturn(List.of(remote));
+        filter.sync();
+
+        assertThat(filter.mightBeActive(local)).isTrue();
+        assertThat(filter.mightBeActive(remote)).isTrue();
+    }
+
+    private static List<String> tokens(int count) {
+        List<String> tokens = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tokens.add(randomToken());
+        }
+        return tokens;
+    }
+
+    private static String randomToken() {
+        byte[] bytes = new byte[EmergencyTokenFilter.TOKEN_BYTES];
+        RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
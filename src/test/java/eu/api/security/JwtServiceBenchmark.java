@@ -0,0 +1,64 @@
+package eu.api.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Access token verification with the cached key and parser versus rebuilding both per call (the previous
+ * implementation). Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=JwtServiceBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET = "benchmark-secret-at-least-32-characters-long";
+    private static final String ISSUER = "eu-api";
+
+    private JwtServiceImpl cached;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cached = new JwtServiceImpl(JwtSigningKeys.hmacOnly(), SECRET, "", "", ISSUER, 15, true);
+        token = cached.createAccessToken(UUID.randomUUID(), "bench@example.com");
+    }
+
+    @Benchmark
+    public UUID verifyCached() {
+        return cached.verifyAccessToken(token);
+    }
+
+    @Benchmark
+    public UUID verifyPerCall() {
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        Claims claims = Jwts.parser()
+                .verifyWith(key)
+                .requireIssuer(ISSUER)
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+        return UUID.fromString(claims.get("userId", String.class));
+    }
+}
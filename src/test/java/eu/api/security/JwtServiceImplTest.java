@@ -0,0 +1,159 @@
+package eu.api.security;
+
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.JwkSet;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.PublicJwk;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtServiceImplTest {
+
+    private static final String SECRET = "test-secret-at-least-32-characters-long!!";
+    private static final String NEXT_SECRET = "next-secret-at-least-32-characters-long!!";
+    private static final String LAST_SECRET = "last-secret-at-least-32-characters-long!!";
+    private static final String ISSUER = "eu-api";
+    private static final UUID USER_ID = UUID.randomUUID();
+
+    @Test
+    void verifyAccessToken_returnsUserIdOfTokenItCreated() {
+        JwtServiceImpl jwtService = hmac(SECRET, "");
+
+        assertThat(jwtService.verifyAccessToken(jwtService.createAccessToken(USER_ID, "a@b.c"))).isEqualTo(USER_ID);
+    }
+
+    @Test
+    void verifyAccessToken_rejectsOtherIssuer() {
+        String token = new JwtServiceImpl(JwtSigningKeys.hmacOnly(), SECRET, "", "", "someone-else", 15, true)
+                .createAccessToken(USER_ID, "a@b.c");
+
+        assertThatThrownBy(() -> hmac(SECRET, "").verifyAccessToken(token)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void rotateSecret_signsWithNewSecretAndKeepsPreviousTokensValid() {
+        JwtServiceImpl jwtService = hmac(SECRET, "");
+        String beforeRotation = jwtService.createAccessToken(USER_ID, "a@b.c");
+
+        jwtService.rotateSecret(NEXT_SECRET);
+        String afterRotation = jwtService.createAccessToken(USER_ID, "a@b.c");
+
+        assertThat(jwtService.verifyAccessToken(beforeRotation)).isEqualTo(USER_ID);
+        assertThat(hmac(NEXT_SECRET, "").verifyAccessToken(afterRotation)).isEqualTo(USER_ID);
+
+        jwtService.rotateSecret(LAST_SECRET);
+        assertThat(jwtService.verifyAccessToken(afterRotation)).isEqualTo(USER_ID);
+        assertThatThrownBy(() -> jwtService.verifyAccessToken(beforeRotation)).isInstanceOf(SignatureException.class);
+    }
+
+    @Test
+    void reloadSecret_rotatesOnlyWhenSecretFileChanged(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("jwt-secret");
+        Files.writeString(file, SECRET + "\n");
+        JwtServiceImpl jwtService = new JwtServiceImpl(JwtSigningKeys.hmacOnly(), "ignored-when-file-is-set-32-chars!!",
+                file.toString(), "", ISSUER, 15, true);
+        String beforeRotation = jwtService.createAccessToken(USER_ID, "a@b.c");
+
+        assertThat(hmac(SECRET, "").verifyAccessToken(beforeRotation)).isEqualTo(USER_ID);
+        assertThat(jwtService.reloadSecret()).isFalse();
+
+        Files.writeString(file, NEXT_SECRET);
+
+        assertThat(jwtService.reloadSecret()).isTrue();
+        assertThat(jwtService.reloadSecret()).isFalse();
+        assertThat(hmac(NEXT_SECRET, "").verifyAccessToken(jwtService.createAccessToken(USER_ID, "a@b.c")))
+                .isEqualTo(USER_ID);
+        assertThat(jwtService.verifyAccessToken(beforeRotation)).isEqualTo(USER_ID);
+    }
+
+    @Test
+    void previousSecret_isAcceptedForVerificationOnly() {
+        String oldToken = hmac(SECRET, "").createAccessToken(USER_ID, "a@b.c");
+
+        assertThat(hmac(NEXT_SECRET, SECRET).verifyAccessToken(oldToken)).isEqualTo(USER_ID);
+        assertThatThrownBy(() -> hmac(NEXT_SECRET, "").verifyAccessToken(oldToken))
+                .isInstanceOf(SignatureException.class);
+    }
+
+    @Test
+    void es256_tokenCarriesKidAndVerifiesAgainstPublishedJwks() throws Exception {
+        KeyPair keyPair = generateKeyPair();
+        JwtSigningKeys keys = es256("k1", keyPair, "");
+        String token = es256Service(keys, true).createAccessToken(USER_ID, "a@b.c");
+
+        PublicKey published = publishedKey(keys, "k1");
+        String subject = Jwts.parser().verifyWith(published).build().parseSignedClaims(token).getPayload().getSubject();
+
+        assertThat(subject).isEqualTo(USER_ID.toString());
+        assertThat(es256Service(keys, true).verifyAccessToken(token)).isEqualTo(USER_ID);
+    }
+
+    @Test
+    void es256_rollover_acceptsAndPublishesPreviousKey() throws Exception {
+        KeyPair previous = generateKeyPair();
+        String oldToken = es256Service(es256("k1", previous, ""), true).createAccessToken(USER_ID, "a@b.c");
+        String previousPublic = Base64.getEncoder().encodeToString(previous.getPublic().getEncoded());
+
+        JwtSigningKeys rolled = es256("k2", generateKeyPair(), "k1:" + previousPublic);
+
+        assertThat(es256Service(rolled, true).verifyAccessToken(oldToken)).isEqualTo(USER_ID);
+        assertThat(publishedKey(rolled, "k1")).isEqualTo(previous.getPublic());
+        assertThat(publishedKey(rolled, "k2")).isNotNull();
+    }
+
+    @Test
+    void es256_hmacTokensAcceptedOnlyWhileEnabled() throws Exception {
+        String hmacToken = hmac(SECRET, "").createAccessToken(USER_ID, "a@b.c");
+        JwtSigningKeys keys = es256("k1", generateKeyPair(), "");
+
+        assertThat(es256Service(keys, true).verifyAccessToken(hmacToken)).isEqualTo(USER_ID);
+        assertThatThrownBy(() -> es256Service(keys, false).verifyAccessToken(hmacToken))
+                .isInstanceOf(UnsupportedJwtException.class);
+    }
+
+    private static JwtServiceImpl hmac(String secret, String previousSecret) {
+        return new JwtServiceImpl(JwtSigningKeys.hmacOnly(), secret, "", previousSecret, ISSUER, 15, true);
+    }
+
+    private static JwtServiceImpl es256Service(JwtSigningKeys keys, boolean acceptHmac) {
+        return new JwtServiceImpl(keys, SECRET, "", "", ISSUER, 15, acceptHmac);
+    }
+
+    private static JwtSigningKeys es256(String kid, KeyPair keyPair, String verificationKeys) {
+        return new JwtSigningKeys(JwtSigningKeys.ES256, kid,
+                Base64.getEncoder().encodeToString(keyPair.getPrivate().getEncoded()),
+                Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded()),
+                verificationKeys);
+    }
+
+    private static PublicKey publishedKey(JwtSigningKeys keys, String kid) {
+        JwkSet set = Jwks.setParser().build().parse(new String(keys.jwks(), StandardCharsets.UTF_8));
+        return set.getKeys().stream()
+                .filter(jwk -> kid.equals(jwk.getId()))
+                .map(jwk -> ((PublicJwk<?>) jwk).toKey())
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static KeyPair generateKeyPair() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        return generator.generateKeyPair();
+    }
+}
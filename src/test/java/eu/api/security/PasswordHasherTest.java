@@ -0,0 +1,64 @@
+package eu.api.security;
+
+import eu.api.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PasswordHasherTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PasswordHasher passwordHasher = new PasswordHasher(new BCryptPasswordEncoder(), meterRegistry, 1, 1, 5000);
+
+    @AfterEach
+    void shutdown() {
+        passwordHasher.shutdown();
+    }
+
+    @Test
+    void hashAndMatches_roundTrip() {
+        String hash = passwordHasher.hash("password123");
+
+        assertThat(passwordHasher.matches("password123", hash)).isTrue();
+        assertThat(passwordHasher.matches("wrong", hash)).isFalse();
+        assertThat(meterRegistry.get("password.hashing.duration").tag("operation", "hash").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void hash_whenQueueFull_rejectsWith503() throws Exception {
+        int callers = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        List<CompletableFuture<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            results.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    start.await();
+                    passwordHasher.hash("password123");
+                    return true;
+                } catch (ServiceUnavailableException e) {
+                    return false;
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            }, pool));
+        }
+        start.countDown();
+
+        long rejected = results.stream().map(CompletableFuture::join).filter(ok -> !ok).count();
+        pool.shutdown();
+
+        assertThat(rejected).isPositive();
+        assertThat(meterRegistry.get("password.hashing.rejected").counter().count()).isEqualTo(rejected);
+    }
+}
@@ -0,0 +1,124 @@
+package eu.api.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class RateLimitFilterTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RateLimitFilter filter = filter(List.of(
+            policy("auth", "/api/v1/auth/**", RateLimitProperties.KeyType.IP, 2),
+            policy("emergency", "/api/v1/emergency/{token}", RateLimitProperties.KeyType.IP, 5),
+            policy("emergency-token", "/api/v1/emergency/{token}", RateLimitProperties.KeyType.TOKEN, 2),
+            policy("export", "/api/v1/me/export/**", RateLimitProperties.KeyType.USER, 1)));
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void exceedingLimit_returns429() throws Exception {
+        assertThat(call("/api/v1/auth/login", "10.0.0.1")).isEqualTo(200);
+        assertThat(call("/api/v1/auth/login", "10.0.0.1")).isEqualTo(200);
+        assertThat(call("/api/v1/auth/login", "10.0.0.1")).isEqualTo(429);
+        assertThat(call("/api/v1/auth/login", "10.0.0.2")).isEqualTo(200);
+        assertThat(meterRegistry.counter("rate-limit.rejected", "policy", "auth").count()).isEqualTo(1);
+    }
+
+    @Test
+    void unmatchedPath_isNotLimited() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            assertThat(call("/api/v1/me/profile", "10.0.0.1")).isEqualTo(200);
+        }
+        assertThat(filter.trackedClients()).isZero();
+    }
+
+    @Test
+    void tokenPolicy_limitsOneTokenAcrossClients() throws Exception {
+        assertThat(call("/api/v1/emergency/abc", "10.0.0.1")).isEqualTo(200);
+        assertThat(call("/api/v1/emergency/abc", "10.0.0.2")).isEqualTo(200);
+        assertThat(call("/api/v1/emergency/abc", "10.0.0.3")).isEqualTo(429);
+        assertThat(call("/api/v1/emergency/other", "10.0.0.3")).isEqualTo(200);
+    }
+
+    @Test
+    void userPolicy_keysByAuthenticatedUser() throws Exception {
+        authenticate(UUID.randomUUID());
+        assertThat(call("/api/v1/me/export", "10.0.0.1")).isEqualTo(200);
+        assertThat(call("/api/v1/me/export", "10.0.0.2")).isEqualTo(429);
+
+        authenticate(UUID.randomUUID());
+        assertThat(call("/api/v1/me/export", "10.0.0.1")).isEqualTo(200);
+    }
+
+    @Test
+    void tokenPolicy_withoutTokenVariable_isRejectedAtStartup() {
+        assertThatThrownBy(() -> filter(List.of(policy("bad", "/api/v1/x/**", RateLimitProperties.KeyType.TOKEN, 1))))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void distinctClients_areCappedAtMaxClients() throws Exception {
+        for (int i = 0; i < 1_000; i++) {
+            call("/api/v1/auth/login", "10.0." + (i / 256) + "." + (i % 256));
+        }
+
+        assertThat(filter.trackedClients()).isLessThanOrEqualTo(100);
+    }
+
+    @Test
+    void idleBuckets_expireAfterRefillInterval() throws Exception {
+        call("/api/v1/auth/login", "10.0.0.1");
+        call("/api/v1/auth/login", "10.0.0.2");
+        assertThat(filter.trackedClients()).isEqualTo(2);
+
+        nanos.addAndGet(Duration.ofMinutes(1).plusSeconds(1).toNanos());
+
+        assertThat(filter.trackedClients()).isZero();
+    }
+
+    private RateLimitFilter filter(List<RateLimitProperties.Policy> policies) {
+        return new RateLimitFilter(new ObjectMapper(), meterRegistry, policies, 100, nanos::get, Runnable::run, null);
+    }
+
+    private static RateLimitProperties.Policy policy(String name, String path, RateLimitProperties.KeyType key,
+                                                     int requestsPerMinute) {
+        RateLimitProperties.Policy policy = new RateLimitProperties.Policy();
+        policy.setName(name);
+        policy.setPath(path);
+        policy.setKey(key);
+        policy.setRequestsPerMinute(requestsPerMinute);
+        return policy;
+    }
+
+    private static void authenticate(UUID userId) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(AuthPrincipal.of(userId), null, List.of()));
+    }
+
+    private int call(String path, String forwardedFor) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.addHeader("X-Forwarded-For", forwardedFor);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, mock(FilterChain.class));
+        return response.getStatus();
+    }
+}
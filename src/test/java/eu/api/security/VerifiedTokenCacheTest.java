@@ -0,0 +1,81 @@
+package eu.api.security;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.MalformedJwtException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class VerifiedTokenCacheTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T12:00:00Z");
+    private static final UUID USER_ID = UUID.randomUUID();
+
+    private final JwtService jwtService = mock(JwtService.class);
+    private Instant now = NOW;
+    private final Clock clock = new Clock() {
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    };
+    private final VerifiedTokenCache cache =
+            new VerifiedTokenCache(jwtService, 100, clock, () -> now.toEpochMilli() * 1_000_000L);
+
+    @Test
+    void verify_repeatedToken_verifiesOnce() {
+        VerifiedToken verified = new VerifiedToken(USER_ID, NOW.plus(Duration.ofMinutes(15)));
+        when(jwtService.verify("token")).thenReturn(verified);
+
+        assertThat(cache.verify("token")).isEqualTo(verified);
+        assertThat(cache.verify("token")).isEqualTo(verified);
+
+        verify(jwtService, times(1)).verify("token");
+    }
+
+    @Test
+    void verify_afterTokenExpiry_verifiesAgain() {
+        when(jwtService.verify("token"))
+                .thenReturn(new VerifiedToken(USER_ID, NOW.plus(Duration.ofMinutes(15))))
+                .thenThrow(new ExpiredJwtException(null, null, "expired"));
+        cache.verify("token");
+
+        now = NOW.plus(Duration.ofMinutes(15));
+
+        assertThatThrownBy(() -> cache.verify("token")).isInstanceOf(ExpiredJwtException.class);
+        verify(jwtService, times(2)).verify("token");
+    }
+
+    @Test
+    void verify_invalidToken_isNotCached() {
+        when(jwtService.verify("bad"))
+                .thenThrow(new MalformedJwtException("bad"))
+                .thenThrow(new MalformedJwtException("bad"));
+
+        assertThatThrownBy(() -> cache.verify("bad")).isInstanceOf(MalformedJwtException.class);
+        assertThatThrownBy(() -> cache.verify("bad")).isInstanceOf(MalformedJwtException.class);
+        verify(jwtService, times(2)).verify("bad");
+    }
+}
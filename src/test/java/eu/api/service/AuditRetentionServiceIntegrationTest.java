@@ -0,0 +1,92 @@
+package eu.api.service;
+
+import eu.api.entity.AuditDailyCountEntity;
+import eu.api.repository.AuditDailyCountRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AuditRetentionServiceIntegrationTest {
+
+    @Autowired
+    private AuditRetentionService auditRetentionService;
+    @Autowired
+    private AuditDailyCountRepository dailyCountRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void rollUp_countsEachPastDayOncePerUserResourceAndAction() {
+        UUID userId = UUID.randomUUID();
+        LocalDate twoDaysAgo = LocalDate.now(ZoneOffset.UTC).minusDays(2);
+        Instant dayStart = twoDaysAgo.atStartOfDay(ZoneOffset.UTC).toInstant();
+        insert(userId, "ALLERGY", "READ", dayStart.plusSeconds(60), false);
+        insert(userId, "ALLERGY", "READ", dayStart.plusSeconds(3600), false);
+        insert(userId, "ALLERGY", "UPDATE", dayStart.plusSeconds(7200), false);
+        insert(userId, "ALLERGY", "READ", dayStart.plusSeconds(7300), true);
+        insert(userId, "MEDICATION", "READ", dayStart.plusSeconds(86_400 + 60), false);
+        insert(userId, "MEDICATION", "READ", Instant.now(), false);
+
+        LocalDate last = auditRetentionService.rollUp();
+
+        assertThat(last).isEqualTo(twoDaysAgo.plusDays(1));
+        List<AuditDailyCountEntity> counts = dailyCountRepository.findAll().stream()
+                .filter(c -> userId.equals(c.getUserId()))
+                .toList();
+        assertThat(counts).hasSize(3);
+        assertThat(counts).anySatisfy(c -> {
+            assertThat(c.getEventDay()).isEqualTo(twoDaysAgo);
+            assertThat(c.getResourceType()).isEqualTo("ALLERGY");
+            assertThat(c.getAction()).isEqualTo("READ");
+            assertThat(c.getEventCount()).isEqualTo(2);
+        });
+        assertThat(counts).anySatisfy(c -> {
+            assertThat(c.getEventDay()).isEqualTo(twoDaysAgo.plusDays(1));
+            assertThat(c.getResourceType()).isEqualTo("MEDICATION");
+            assertThat(c.getEventCount()).isEqualTo(1);
+        });
+
+        assertThat(auditRetentionService.rollUp()).isNull();
+        assertThat(dailyCountRepository.findAll().stream().filter(c -> userId.equals(c.getUserId()))).hasSize(3);
+    }
+
+    @Test
+    void rollUp_ofAlreadyCountedDay_isSkippedInsteadOfFailing() {
+        UUID userId = UUID.randomUUID();
+        LocalDate day = LocalDate.now(ZoneOffset.UTC).minusDays(3);
+        Instant from = day.atStartOfDay(ZoneOffset.UTC).toInstant();
+        insert(userId, "ADDRESS", "READ", from.plusSeconds(60), false);
+        Instant to = from.plusSeconds(86_400);
+
+        Integer first = transactionTemplate.execute(status -> dailyCountRepository.rollUp(day, from, to));
+        Integer again = transactionTemplate.execute(status -> dailyCountRepository.rollUp(day, from, to));
+
+        assertThat(first).isPositive();
+        assertThat(again).isZero();
+        assertThat(dailyCountRepository.findAll().stream().filter(c -> userId.equals(c.getUserId()))).hasSize(1);
+    }
+
+    private void insert(UUID userId, String resourceType, String action, Instant createdAt, boolean deleted) {
+        Timestamp at = Timestamp.from(createdAt);
+        jdbcTemplate.update("""
+                        INSERT INTO audit_events (id, user_id, resource_type, action, created_at, updated_at, deleted_at)
+                        VALUES (?, ?, ?, ?, ?, ?, ?)""",
+                UUID.randomUUID(), userId, resourceType, action, at, at, deleted ? at : null);
+    }
+}
@@ -0,0 +1,105 @@
+package eu.api.service;
+
+import eu.api.domain.AuditAction;
+import eu.api.domain.AuditResourceType;
+import eu.api.service.impl.AuditServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class AuditServiceImplTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void events_areWrittenInBatches() throws Exception {
+        List<Integer> batchSizes = new ArrayList<>();
+        when(jdbcTemplate.batchUpdate(anyString(), any(Collection.class), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(invocation -> {
+                    batchSizes.add(invocation.<Collection<?>>getArgument(1).size());
+                    return new int[0][];
+                });
+        AuditServiceImpl audit = new AuditServiceImpl(jdbcTemplate, meterRegistry, 100, 4, 50, 0, 0);
+        for (int i = 0; i < 10; i++) {
+            audit.record(UUID.randomUUID(), AuditResourceType.MEDICATION, AuditAction.READ, null);
+        }
+        audit.start();
+        audit.shutdown();
+
+        assertThat(batchSizes).containsExactly(4, 4, 2);
+        assertThat(meterRegistry.counter("audit.events.written").count()).isEqualTo(10);
+    }
+
+    @Test
+    void fullBuffer_dropsAndCounts() throws Exception {
+        AuditServiceImpl audit = new AuditServiceImpl(jdbcTemplate, meterRegistry, 2, 10, 50, 0, 0);
+        for (int i = 0; i < 5; i++) {
+            audit.record(UUID.randomUUID(), AuditResourceType.HEALTH_INFO, AuditAction.READ, null);
+        }
+        audit.start();
+        audit.shutdown();
+
+        assertThat(meterRegistry.counter("audit.events.dropped", "reason", "buffer-full").count()).isEqualTo(3);
+        assertThat(meterRegistry.counter("audit.events.written").count()).isEqualTo(2);
+
+        audit.record(UUID.randomUUID(), AuditResourceType.HEALTH_INFO, AuditAction.READ, null);
+        assertThat(meterRegistry.counter("audit.events.dropped", "reason", "shutdown").count()).isEqualTo(1);
+    }
+
+    @Test
+    void failedWrite_isCountedAndWriterKeepsGoing() throws Exception {
+        when(jdbcTemplate.batchUpdate(anyString(), any(Collection.class), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new DataAccessResourceFailureException("down"))
+                .thenReturn(new int[0][]);
+        AuditServiceImpl audit = new AuditServiceImpl(jdbcTemplate, meterRegistry, 100, 1, 50, 0, 0);
+        audit.record(UUID.randomUUID(), AuditResourceType.ALLERGY, AuditAction.UPDATE, null);
+        audit.record(UUID.randomUUID(), AuditResourceType.ALLERGY, AuditAction.UPDATE, null);
+        audit.start();
+        audit.shutdown();
+
+        assertThat(meterRegistry.counter("audit.events.dropped", "reason", "write-failed").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("audit.events.written").count()).isEqualTo(1);
+    }
+
+    @Test
+    void repeatedReads_areWrittenAsOneRowWithCount() throws Exception {
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(jdbcTemplate.batchUpdate(anyString(), any(Collection.class), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(invocation -> {
+                    ParameterizedPreparedStatementSetter<Object> setter = invocation.getArgument(3);
+                    for (Object event : invocation.<Collection<?>>getArgument(1)) {
+                        setter.setValues(statement, event);
+                    }
+                    return new int[0][];
+                });
+        AuditServiceImpl audit = new AuditServiceImpl(jdbcTemplate, meterRegistry, 100, 10, 50, 0, 60_000);
+        UUID userId = UUID.randomUUID();
+        for (int i = 0; i < 3; i++) {
+            audit.record(userId, AuditResourceType.MEDICATION, AuditAction.READ, null);
+        }
+        audit.record(userId, AuditResourceType.MEDICATION, AuditAction.UPDATE, null);
+        audit.record(userId, AuditResourceType.MEDICATION, AuditAction.UPDATE, null);
+        audit.start();
+        audit.shutdown();
+
+        assertThat(meterRegistry.counter("audit.events.written").count()).isEqualTo(3);
+        assertThat(meterRegistry.counter("audit.events.coalesced").count()).isEqualTo(2);
+        verify(statement).setInt(9, 3);
+        verify(statement, times(2)).setInt(9, 1);
+    }
+}
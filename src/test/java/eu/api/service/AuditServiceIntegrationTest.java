@@ -0,0 +1,47 @@
+package eu.api.service;
+
+import eu.api.domain.AuditAction;
+import eu.api.domain.AuditResourceType;
+import eu.api.entity.AuditEventEntity;
+import eu.api.repository.AuditEventRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AuditServiceIntegrationTest {
+
+    @Autowired
+    private AuditService auditService;
+    @Autowired
+    private AuditEventRepository auditEventRepository;
+
+    @Test
+    void recordedEvents_reachAuditTable() throws Exception {
+        UUID userId = UUID.randomUUID();
+        UUID resourceId = UUID.randomUUID();
+        auditService.record(userId, AuditResourceType.MEDICATION, AuditAction.READ, null);
+        auditService.record(userId, AuditResourceType.ALLERGY, AuditAction.UPDATE, resourceId);
+
+        List<AuditEventEntity> events = List.of();
+        for (int i = 0; i < 100 && events.size() < 2; i++) {
+            Thread.sleep(50);
+            events = auditEventRepository.findAll().stream().filter(e -> userId.equals(e.getUserId())).toList();
+        }
+
+        assertThat(events).hasSize(2);
+        assertThat(events).anySatisfy(e -> {
+            assertThat(e.getResourceType()).isEqualTo("ALLERGY");
+            assertThat(e.getAction()).isEqualTo("UPDATE");
+            assertThat(e.getResourceId()).isEqualTo(resourceId);
+            assertThat(e.getCreatedAt()).isNotNull();
+        });
+    }
+}
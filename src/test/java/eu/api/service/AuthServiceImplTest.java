@@ -19,6 +19,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.util.Optional;
 import java.util.UUID;
@@ -42,6 +43,8 @@ class AuthServiceImplTest {
     private JwtService jwtService;
     @Mock
     private RefreshTokenService refreshTokenService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
 
     @InjectMocks
     private AuthServiceImpl authService;
@@ -121,6 +124,20 @@ class AuthServiceImplTest {
             verify(refreshTokenService).create(USER_ID);
         }
 
+        @Test
+        void whenHashOutdated_rehashesPassword() {
+            UserEntity user = UserEntity.builder().email(EMAIL).passwordHash(HASH).build();
+            user.setId(USER_ID);
+            when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user));
+            when(passwordHasher.matches(PASSWORD, HASH)).thenReturn(true);
+            when(passwordHasher.needsRehash(HASH)).thenReturn(true);
+            when(passwordHasher.hash(PASSWORD)).thenReturn("{bcrypt}upgraded");
+
+            authService.login(LoginRequest.builder().email(EMAIL).password(PASSWORD).build());
+
+            verify(userRepository).updatePasswordHash(eq(USER_ID), eq(HASH), eq("{bcrypt}upgraded"), any());
+        }
+
         @Test
         void whenUserNotFound_throwsUnauthorized() {
             when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.empty());
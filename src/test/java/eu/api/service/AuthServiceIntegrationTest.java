@@ -0,0 +1,98 @@
+package eu.api.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import eu.api.dto.request.LoginRequest;
+import eu.api.dto.request.RegisterRequest;
+import eu.api.dto.response.AuthResponse;
+import eu.api.security.PasswordHasher;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AuthServiceIntegrationTest {
+
+    @Autowired
+    private AuthService authService;
+    @Autowired
+    private HikariDataSource dataSource;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @SpyBean
+    private PasswordHasher passwordHasher;
+
+    @Test
+    void register_holdsNoConnectionWhileWaitingForHashingPool() throws Exception {
+        int callers = dataSource.getMaximumPoolSize() + 2;
+        CountDownLatch queued = new CountDownLatch(callers);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean transactionSeen = new AtomicBoolean();
+        doAnswer(invocation -> {
+            transactionSeen.compareAndSet(false, TransactionSynchronizationManager.isActualTransactionActive());
+            queued.countDown();
+            release.await();
+            return invocation.callRealMethod();
+        }).when(passwordHasher).hash(anyString());
+
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<AuthResponse>> responses = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                RegisterRequest request = RegisterRequest.builder()
+                        .email("queued-" + UUID.randomUUID() + "@example.com")
+                        .password("password123")
+                        .build();
+                responses.add(executor.submit(() -> authService.register(request)));
+            }
+            assertThat(queued.await(10, TimeUnit.SECONDS)).isTrue();
+
+            assertThat(dataSource.getHikariPoolMXBean().getActiveConnections()).isZero();
+            assertThat(jdbcTemplate.queryForObject("SELECT 1", Integer.class)).isEqualTo(1);
+            assertThat(transactionSeen).isFalse();
+
+            release.countDown();
+            for (Future<AuthResponse> response : responses) {
+                assertThat(response.get(10, TimeUnit.SECONDS).getUserId()).isNotNull();
+            }
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void login_verifiesPasswordOutsideTransaction() {
+        String email = "login-" + UUID.randomUUID() + "@example.com";
+        authService.register(RegisterRequest.builder().email(email).password("password123").build());
+        AtomicBoolean transactionSeen = new AtomicBoolean();
+        doAnswer(invocation -> {
+            transactionSeen.set(TransactionSynchronizationManager.isActualTransactionActive()
+                    || dataSource.getHikariPoolMXBean().getActiveConnections() > 0);
+            return invocation.callRealMethod();
+        }).when(passwordHasher).matches(anyString(), anyString());
+
+        AuthResponse response = authService.login(LoginRequest.builder().email(email).password("password123").build());
+
+        assertThat(response.getAccessToken()).isNotEmpty();
+        assertThat(transactionSeen).isFalse();
+    }
+}
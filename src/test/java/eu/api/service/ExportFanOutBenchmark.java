@@ -0,0 +1,96 @@
+package eu.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import eu.api.dto.response.ExportDataResponse;
+import eu.api.dto.response.HealthInfoResponse;
+import eu.api.dto.response.ProfileResponse;
+import eu.api.service.impl.ExportServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Export latency (p50/p99 in the SampleTime output) of the old sequential calls against the virtual-thread
+ * fan-out. Each section sleeps for a typical single-transaction time of 2-6 ms, jittered, in place of the
+ * database. Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=ExportFanOutBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Threads(4)
+@Fork(1)
+public class ExportFanOutBenchmark {
+
+    private final UUID userId = UUID.randomUUID();
+    private ProfileService profileService;
+    private HealthInfoService healthInfoService;
+    private AllergyService allergyService;
+    private MedicationService medicationService;
+    private EmergencyContactService emergencyContactService;
+    private AddressService addressService;
+    private ExportServiceImpl exportService;
+
+    @Setup
+    public void setUp() {
+        profileService = mock(ProfileService.class);
+        healthInfoService = mock(HealthInfoService.class);
+        allergyService = mock(AllergyService.class);
+        medicationService = mock(MedicationService.class);
+        emergencyContactService = mock(EmergencyContactService.class);
+        addressService = mock(AddressService.class);
+        when(profileService.getProfile(any())).thenAnswer(i -> load(3, ProfileResponse.builder().build()));
+        when(healthInfoService.getHealthInfo(any(), anyBoolean())).thenAnswer(i -> load(2, HealthInfoResponse.builder().build()));
+        when(allergyService.list(any(), anyBoolean())).thenAnswer(i -> load(5, List.of()));
+        when(medicationService.list(any(), anyBoolean())).thenAnswer(i -> load(5, List.of()));
+        when(emergencyContactService.list(any())).thenAnswer(i -> load(3, List.of()));
+        when(addressService.list(any())).thenAnswer(i -> load(2, List.of()));
+        exportService = new ExportServiceImpl(profileService, healthInfoService, allergyService, medicationService,
+                emergencyContactService, addressService, new SimpleMeterRegistry(), new ObjectMapper(), 5_000, 8, 2, 32);
+    }
+
+    @Benchmark
+    public ExportDataResponse sequential() {
+        return ExportDataResponse.builder()
+                .profile(profileService.getProfile(userId))
+                .health(healthInfoService.getHealthInfo(userId, true))
+                .allergies(allergyService.list(userId, true))
+                .medications(medicationService.list(userId, true))
+                .emergencyContacts(emergencyContactService.list(userId))
+                .addresses(addressService.list(userId))
+                .exportedAt(Instant.now().toString())
+                .build();
+    }
+
+    @Benchmark
+    public ExportDataResponse fanOut() {
+        return exportService.exportAll(userId);
+    }
+
+    private static <T> T load(int typicalMillis, T result) throws InterruptedException {
+        int jitter = ThreadLocalRandom.current().nextInt(typicalMillis + 1);
+        Thread.sleep(typicalMillis + (ThreadLocalRandom.current().nextInt(20) == 0 ? 4 * jitter : jitter / 2));
+        return result;
+    }
+}
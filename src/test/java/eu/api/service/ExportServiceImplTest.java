@@ -0,0 +1,165 @@
+package eu.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import eu.api.dto.response.AllergyListItemResponse;
+import eu.api.dto.response.ExportDataResponse;
+import eu.api.dto.response.HealthInfoResponse;
+import eu.api.dto.response.ProfileResponse;
+import eu.api.exception.NotFoundException;
+import eu.api.exception.ServiceUnavailableException;
+import eu.api.service.impl.ExportServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ExportServiceImplTest {
+
+    private final ProfileService profileService = mock(ProfileService.class);
+    private final HealthInfoService healthInfoService = mock(HealthInfoService.class);
+    private final AllergyService allergyService = mock(AllergyService.class);
+    private final MedicationService medicationService = mock(MedicationService.class);
+    private final EmergencyContactService emergencyContactService = mock(EmergencyContactService.class);
+    private final AddressService addressService = mock(AddressService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UUID userId = UUID.randomUUID();
+    private final ExportServiceImpl exportService = new ExportServiceImpl(profileService, healthInfoService,
+            allergyService, medicationService, emergencyContactService, addressService, meterRegistry, new ObjectMapper(),
+            300, 8, 2, 32);
+
+    @Test
+    void allSections_loadInParallelWithinOneSectionsTime() {
+        givenSectionsTakeMillis(100);
+
+        long started = System.nanoTime();
+        ExportDataResponse response = exportService.exportAll(userId);
+        long tookMs = (System.nanoTime() - started) / 1_000_000;
+
+        assertThat(response.isComplete()).isTrue();
+        assertThat(response.getFailedSections()).isNull();
+        assertThat(response.getProfile().getFullName()).isEqualTo("Maria");
+        assertThat(response.getAllergies()).hasSize(1);
+        assertThat(tookMs).isLessThan(300);
+        assertThat(meterRegistry.timer("export.duration", "outcome", "complete").count()).isEqualTo(1);
+    }
+
+    @Test
+    void slowSection_isLeftOutAsTimeout() {
+        givenSectionsTakeMillis(0);
+        when(medicationService.list(userId, true)).thenAnswer(invocation -> {
+            Thread.sleep(5_000);
+            return List.of();
+        });
+
+        ExportDataResponse response = exportService.exportAll(userId);
+
+        assertThat(response.isComplete()).isFalse();
+        assertThat(response.getMedications()).isNull();
+        assertThat(response.getAllergies()).hasSize(1);
+        assertThat(response.getFailedSections()).singleElement().satisfies(failure -> {
+            assertThat(failure.getSection()).isEqualTo("medications");
+            assertThat(failure.getReason()).isEqualTo(ExportDataResponse.FailureReason.TIMEOUT);
+        });
+    }
+
+    @Test
+    void failingSection_isLeftOutAsError() {
+        givenSectionsTakeMillis(0);
+        when(allergyService.list(userId, true)).thenThrow(new IllegalStateException("boom"));
+
+        ExportDataResponse response = exportService.exportAll(userId);
+
+        assertThat(response.isComplete()).isFalse();
+        assertThat(response.getAllergies()).isNull();
+        assertThat(response.getHealth()).isNotNull();
+        assertThat(response.getFailedSections()).singleElement().satisfies(failure -> {
+            assertThat(failure.getSection()).isEqualTo("allergies");
+            assertThat(failure.getReason()).isEqualTo(ExportDataResponse.FailureReason.ERROR);
+        });
+    }
+
+    @Test
+    void missingProfile_failsTheExport() {
+        givenSectionsTakeMillis(0);
+        when(profileService.getProfile(userId)).thenThrow(new IllegalStateException("boom"));
+        assertThatThrownBy(() -> exportService.exportAll(userId)).isInstanceOf(ServiceUnavailableException.class);
+
+        reset(profileService);
+        when(profileService.getProfile(userId)).thenThrow(new NotFoundException("Profile not found"));
+        assertThatThrownBy(() -> exportService.exportAll(userId)).isInstanceOf(NotFoundException.class);
+        assertThat(meterRegistry.timer("export.duration", "outcome", "failed").count()).isEqualTo(2);
+    }
+
+    @Test
+    void streamBeyondLimit_isRejectedBeforeWriting() throws Exception {
+        ExportServiceImpl limited = new ExportServiceImpl(profileService, healthInfoService, allergyService,
+                medicationService, emergencyContactService, addressService, meterRegistry, new ObjectMapper(), 300, 8, 1, 32);
+        givenSectionsTakeMillis(0);
+        CountDownLatch streaming = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            streaming.countDown();
+            release.await();
+            return null;
+        }).when(allergyService).stream(eq(userId), eq(true), any());
+
+        Thread first = Thread.ofVirtual().start(() -> {
+            try {
+                limited.streamAll(userId, new ByteArrayOutputStream());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        assertThat(streaming.await(5, TimeUnit.SECONDS)).isTrue();
+
+        ByteArrayOutputStream rejected = new ByteArrayOutputStream();
+        assertThatThrownBy(() -> limited.streamAll(userId, rejected)).isInstanceOf(ServiceUnavailableException.class);
+        assertThat(rejected.size()).isZero();
+
+        release.countDown();
+        first.join(5_000);
+        ByteArrayOutputStream after = new ByteArrayOutputStream();
+        limited.streamAll(userId, after);
+        assertThat(after.toString(StandardCharsets.UTF_8)).contains("\"complete\":true");
+    }
+
+    private void givenSectionsTakeMillis(long millis) {
+        when(profileService.getProfile(userId)).thenAnswer(invocation -> {
+            Thread.sleep(millis);
+            return ProfileResponse.builder().fullName("Maria").build();
+        });
+        when(healthInfoService.getHealthInfo(userId, true)).thenAnswer(invocation -> {
+            Thread.sleep(millis);
+            return HealthInfoResponse.builder().build();
+        });
+        when(allergyService.list(userId, true)).thenAnswer(invocation -> {
+            Thread.sleep(millis);
+            return List.of(AllergyListItemResponse.builder().name("Latex").build());
+        });
+        when(medicationService.list(userId, true)).thenAnswer(invocation -> {
+            Thread.sleep(millis);
+            return List.of();
+        });
+        when(emergencyContactService.list(userId)).thenAnswer(invocation -> {
+            Thread.sleep(millis);
+            return List.of();
+        });
+        when(addressService.list(userId)).thenAnswer(invocation -> {
+            Thread.sleep(millis);
+            return List.of();
+        });
+    }
+}
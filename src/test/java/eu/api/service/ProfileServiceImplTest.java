@@ -4,7 +4,7 @@ import eu.api.dto.request.UpdateProfileRequest;
 import eu.api.dto.response.ProfileResponse;
 import eu.api.entity.UserProfileEntity;
 import eu.api.exception.NotFoundException;
-import eu.api.crypto.CryptoService;
+import eu.api.crypto.EncryptedString;
 import eu.api.mapper.ProfileMapper;
 import eu.api.repository.ProfileRepository;
 import eu.api.service.impl.ProfileServiceImpl;
@@ -32,9 +32,9 @@ class ProfileServiceImplTest {
     @Mock
     private ProfileRepository profileRepository;
     @Mock
-    private CryptoService cryptoService;
-    @Mock
     private ProfileMapper profileMapper;
+    @Mock
+    private EmergencySnapshotService emergencySnapshotService;
 
     @InjectMocks
     private ProfileServiceImpl profileService;
@@ -52,11 +52,10 @@ class ProfileServiceImplTest {
                     .fullName("John")
                     .birthDate(LocalDate.of(1990, 1, 15))
                     .phone("+123")
-                    .workplace("encrypted-workplace")
+                    .workplace(EncryptedString.of("Office"))
                     .build();
             entity.setId(UUID.randomUUID());
             when(profileRepository.findByUserId(USER_ID)).thenReturn(Optional.of(entity));
-            when(cryptoService.decrypt("encrypted-workplace")).thenReturn("Office");
             ProfileResponse expected = ProfileResponse.builder()
                     .fullName("John")
                     .birthDate(LocalDate.of(1990, 1, 15))
@@ -69,7 +68,19 @@ class ProfileServiceImplTest {
 
             assertThat(response).isSameAs(expected);
             verify(profileRepository).findByUserId(USER_ID);
-            verify(cryptoService).decrypt("encrypted-workplace");
+        }
+
+        @Test
+        void whenWorkplaceOnlyInLegacyTextColumn_returnsLegacyValue() {
+            UserProfileEntity entity = UserProfileEntity.builder()
+                    .userId(USER_ID)
+                    .legacyWorkplace(EncryptedString.of("Office"))
+                    .build();
+            when(profileRepository.findByUserId(USER_ID)).thenReturn(Optional.of(entity));
+
+            profileService.getProfile(USER_ID);
+
+            verify(profileMapper).toResponse(entity, "Office");
         }
 
         @Test
@@ -79,7 +90,7 @@ class ProfileServiceImplTest {
             assertThatThrownBy(() -> profileService.getProfile(USER_ID))
                     .isInstanceOf(NotFoundException.class)
                     .hasMessageContaining("Profile not found");
-            verify(cryptoService, never()).decrypt(any());
+            verify(profileMapper, never()).toResponse(any(), any());
         }
     }
 
@@ -88,7 +99,7 @@ class ProfileServiceImplTest {
     class UpdateProfile {
 
         @Test
-        void whenProfileExists_updatesAndReturnsResponseWithEncryptedWorkplace() {
+        void whenProfileExists_updatesAndAssignsWorkplaceForEncryption() {
             UserProfileEntity entity = UserProfileEntity.builder()
                     .userId(USER_ID)
                     .fullName("Old")
@@ -96,8 +107,6 @@ class ProfileServiceImplTest {
             entity.setId(UUID.randomUUID());
             when(profileRepository.findByUserId(USER_ID)).thenReturn(Optional.of(entity));
             when(profileRepository.save(any(UserProfileEntity.class))).thenAnswer(i -> i.getArgument(0));
-            when(cryptoService.encrypt("New Office")).thenReturn("enc-new");
-            when(cryptoService.decrypt("enc-new")).thenReturn("New Office");
             ProfileResponse expected = ProfileResponse.builder()
                     .fullName("Jane")
                     .birthDate(LocalDate.of(1995, 5, 20))
@@ -120,8 +129,8 @@ class ProfileServiceImplTest {
             assertThat(entity.getFullName()).isEqualTo("Jane");
             assertThat(entity.getBirthDate()).isEqualTo(LocalDate.of(1995, 5, 20));
             assertThat(entity.getPhone()).isEqualTo("+456");
-            assertThat(entity.getWorkplace()).isEqualTo("enc-new");
-            verify(cryptoService).encrypt("New Office");
+            assertThat(entity.getWorkplace().get()).isEqualTo("New Office");
+            assertThat(entity.getLegacyWorkplace()).isNull();
         }
 
         @Test